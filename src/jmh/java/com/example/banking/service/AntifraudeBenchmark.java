@@ -0,0 +1,64 @@
+package com.example.banking.service;
+
+import com.example.banking.service.antifraude.Antifraude;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de {@link Antifraude#avaliar} por transferência, com o estado de 10 mil contas já
+ * aquecido. O limiar fica alto para que nenhuma avaliação seja recusada: mede-se só a
+ * pontuação e o registro. A meta é ficar abaixo de 50 µs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AntifraudeBenchmark {
+
+    private static final int CONTAS = 10_000;
+    private static final int DESTINOS_POR_CONTA = 20;
+
+    private ConfigurableApplicationContext contexto;
+    private Antifraude antifraude;
+    private String[] contas;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("--banking.antifraude.habilitado=true",
+                "--banking.antifraude.limiar=" + Integer.MAX_VALUE);
+        antifraude = contexto.getBean(Antifraude.class);
+        contas = new String[CONTAS];
+        for (int i = 0; i < CONTAS; i++) {
+            contas[i] = String.format("%08d", i);
+        }
+        var aleatorio = new SplittableRandom(42);
+        for (int i = 0; i < CONTAS; i++) {
+            for (int j = 0; j < DESTINOS_POR_CONTA; j++) {
+                antifraude.avaliar(contas[i], contas[aleatorio.nextInt(CONTAS)], 1_000L + aleatorio.nextInt(10_000));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        final SplittableRandom aleatorio = new SplittableRandom();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void avaliar(Sorteio sorteio) {
+        var aleatorio = sorteio.aleatorio;
+        antifraude.avaliar(contas[aleatorio.nextInt(CONTAS)], contas[aleatorio.nextInt(CONTAS)],
+                1_000L + aleatorio.nextInt(10_000));
+    }
+}
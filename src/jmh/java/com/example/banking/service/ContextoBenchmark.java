@@ -0,0 +1,43 @@
+package com.example.banking.service;
+
+import com.example.banking.BankingApplication;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Sobe a aplicação sem servidor web e com logs de SQL desligados para os benchmarks JMH.
+ */
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        var argumentos = Stream.concat(Stream.of("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.com.example.banking=WARN"),
+                Stream.of(propriedades))
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos);
+    }
+
+    static String salvarCliente(ConfigurableApplicationContext contexto, long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        contexto.getBean(ClienteRepository.class).save(Cliente.builder()
+                .nome("Benchmark " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.banking.service;
+
+import com.example.banking.config.FormatoBinarioConfig;
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Transferencia;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de codificar uma {@link Transferencia} e decodificar um {@link TransferenciaDTO} em JSON
+ * e em CBOR, com a configuração do Jackson usada pelos controllers. O tamanho em bytes de cada
+ * formato é impresso no início do trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatoBenchmark {
+
+    @Param({"json", "cbor"})
+    public String formato;
+
+    private Transferencia transferencia;
+    private byte[] transferenciaDTO;
+    private ObjectWriter escritor;
+    private ObjectReader leitor;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        var mapper = "cbor".equals(formato)
+                ? FormatoBinarioConfig.mapperCbor(Jackson2ObjectMapperBuilder.json())
+                : Jackson2ObjectMapperBuilder.json().build();
+        escritor = mapper.writerFor(Transferencia.class);
+        leitor = mapper.readerFor(TransferenciaDTO.class);
+        transferencia = Transferencia.builder()
+                .id(123_456L)
+                .contaOrigem("000123")
+                .contaDestino("000456")
+                .valor(2_500L)
+                .dataTransferencia(LocalDateTime.of(2024, 10, 6, 12, 0, 0, 123_000_000))
+                .sucesso(true)
+                .mensagem(RegrasTransferencia.MENSAGEM_SUCESSO)
+                .build();
+        transferenciaDTO = mapper.writeValueAsBytes(
+                TransferenciaDTO.builder().contaOrigem("000123").contaDestino("000456").valor(2_500L).build());
+        System.out.printf("%n[formato] %s: transferencia=%d bytes, dto=%d bytes%n",
+                formato, escritor.writeValueAsBytes(transferencia).length, transferenciaDTO.length);
+    }
+
+    @Benchmark
+    public byte[] codificarTransferencia() throws Exception {
+        return escritor.writeValueAsBytes(transferencia);
+    }
+
+    @Benchmark
+    public TransferenciaDTO decodificarTransferenciaDTO() throws Exception {
+        return leitor.readValue(transferenciaDTO);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.Pagina;
+import com.example.banking.model.Transferencia;
+import com.example.banking.utils.Cursores;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta paginada do histórico de uma conta com 10 mil, 100 mil e 1 milhão de transferências
+ * na tabela. Metade das linhas tem a conta como origem e metade como destino.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class HistoricoBenchmark {
+
+    private static final String CONTA = "000123";
+    private static final String OUTRA_CONTA = "000456";
+    private static final int LIMITE = 100;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"10000", "100000", "1000000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private TransferenciaService transferenciaService;
+    private String cursorIntermediario;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        transferenciaService = contexto.getBean(TransferenciaService.class);
+        var jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO transferencias (id, conta_origem, conta_destino, valor, data_transferencia, sucesso, mensagem)
+                SELECT X,
+                       CASE WHEN MOD(X, 2) = 0 THEN ? ELSE ? END,
+                       CASE WHEN MOD(X, 2) = 0 THEN ? ELSE ? END,
+                       100, DATEADD(SECOND, X, CAST(? AS TIMESTAMP)), TRUE, ?
+                FROM SYSTEM_RANGE(1, ?)""",
+                CONTA, OUTRA_CONTA, OUTRA_CONTA, CONTA, INICIO, RegrasTransferencia.MENSAGEM_SUCESSO, linhas);
+        jdbcTemplate.execute("ALTER SEQUENCE transferencias_seq RESTART WITH " + (linhas + 1));
+
+        // Cursor equivalente ao da página que termina na linha do meio do histórico.
+        var meio = linhas / 2;
+        cursorIntermediario = Cursores.codificar(INICIO.plusSeconds(meio).toString(), String.valueOf(meio));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Pagina<Transferencia> primeiraPagina() {
+        return transferenciaService.buscarHistoricoTransferencias(CONTA, null, LIMITE);
+    }
+
+    @Benchmark
+    public Pagina<Transferencia> paginaIntermediaria() {
+        return transferenciaService.buscarHistoricoTransferencias(CONTA, cursorIntermediario, LIMITE);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.ClienteDTO;
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamentos entre DTO e entidade e serialização JSON de listas de {@link Transferencia},
+ * sem Spring nem banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tamanhoLista;
+
+    private Cliente cliente;
+    private TransferenciaDTO transferenciaDTO;
+    private List<Transferencia> transferencias;
+    private ObjectWriter escritor;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        cliente = Cliente.builder().id("1").nome("João Silva").numeroConta("000123").saldo(100_000L).versao(3L).build();
+        transferenciaDTO = TransferenciaDTO.builder().contaOrigem("000123").contaDestino("000456").valor(2_500L).build();
+        transferencias = new ArrayList<>(tamanhoLista);
+        for (long i = 0; i < tamanhoLista; i++) {
+            transferencias.add(Transferencia.builder()
+                    .id(i)
+                    .contaOrigem("000123")
+                    .contaDestino("000456")
+                    .valor(100L + i)
+                    .dataTransferencia(LocalDateTime.of(2024, 10, 6, 12, 0).plusSeconds(i))
+                    .sucesso(true)
+                    .mensagem(RegrasTransferencia.MENSAGEM_SUCESSO)
+                    .build());
+        }
+        escritor = Jackson2ObjectMapperBuilder.json().build().writerFor(List.class);
+    }
+
+    @Benchmark
+    public ClienteDTO clienteParaDTO() {
+        return ClienteService.mapToDTO(cliente);
+    }
+
+    @Benchmark
+    public Transferencia dtoParaTransferencia() {
+        return RegrasTransferencia.novaTransferencia(transferenciaDTO);
+    }
+
+    @Benchmark
+    public byte[] serializarTransferencias() throws Exception {
+        return escritor.writeValueAsBytes(transferencias);
+    }
+}
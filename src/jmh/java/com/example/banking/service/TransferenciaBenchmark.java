@@ -0,0 +1,48 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Transferencia;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de uma transferência de ponta a ponta pela engine configurada, com H2 em memória.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferenciaBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private TransferenciaEngine transferenciaEngine;
+    private TransferenciaDTO ida;
+    private TransferenciaDTO volta;
+    private boolean alternar;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        transferenciaEngine = contexto.getBean(TransferenciaEngine.class);
+        var origem = ContextoBenchmark.salvarCliente(contexto, 100_000_000_000L);
+        var destino = ContextoBenchmark.salvarCliente(contexto, 100_000_000_000L);
+        ida = TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(100L).build();
+        volta = TransferenciaDTO.builder().contaOrigem(destino).contaDestino(origem).valor(100L).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Transferencia realizarTransferencia() {
+        alternar = !alternar;
+        return transferenciaEngine.realizarTransferencia(alternar ? ida : volta);
+    }
+}
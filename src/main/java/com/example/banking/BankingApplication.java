@@ -2,10 +2,10 @@ package com.example.banking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@Profile("default")
+@EnableScheduling
 public class BankingApplication {
 
     public static void main(String[] args) {
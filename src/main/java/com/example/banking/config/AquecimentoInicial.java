@@ -0,0 +1,115 @@
+package com.example.banking.config;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.ClienteCache;
+import com.example.banking.service.TransferenciaService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Aquecimento na subida, com {@code banking.aquecimento.habilitado=true}. Roda como
+ * {@link ApplicationRunner}, antes de a prontidão ({@code /actuator/health/readiness}) passar a
+ * aceitar tráfego:
+ * <ol>
+ *     <li>carrega até {@code banking.aquecimento.contas} contas no cache de segundo nível e no
+ *     {@link ClienteCache}, em lotes;</li>
+ *     <li>executa {@code banking.aquecimento.iteracoes} transferências entre duas contas
+ *     sintéticas pelo {@link TransferenciaService}, cada uma com flush e rollback na sua
+ *     transação, e serializa o resultado em JSON, para que o JIT compile o caminho de
+ *     transferência antes da primeira requisição. Nada é gravado: o limite diário devolve a
+ *     reserva no rollback, e os demais efeitos só acontecem no commit.</li>
+ * </ol>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.aquecimento.habilitado", havingValue = "true")
+public class AquecimentoInicial implements ApplicationRunner {
+
+    private static final String CONTA_ORIGEM = "aquecimento-origem";
+    private static final String CONTA_DESTINO = "aquecimento-destino";
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private TransferenciaService transferenciaService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banking.aquecimento.contas:100000}")
+    private int contas = 100_000;
+    @Value("${banking.aquecimento.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+    @Value("${banking.aquecimento.iteracoes:2000}")
+    private int iteracoes = 2_000;
+
+    @Override
+    public void run(ApplicationArguments argumentos) {
+        var inicio = System.nanoTime();
+        var carregadas = carregarContas();
+        var aposContas = System.nanoTime();
+        exercitarTransferencias();
+        var fim = System.nanoTime();
+        log.info("Aquecimento concluído em {} ms: {} contas em cache em {} ms, {} transferências de aquecimento em {} ms",
+                (fim - inicio) / 1_000_000, carregadas, (aposContas - inicio) / 1_000_000,
+                iteracoes, (fim - aposContas) / 1_000_000);
+    }
+
+    private int carregarContas() {
+        var leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        var numeros = leitura.execute(status -> {
+            try (var todas = clienteRepository.streamNumerosConta()) {
+                return todas.limit(contas).toList();
+            }
+        });
+        for (int i = 0; i < numeros.size(); i += tamanhoLote) {
+            var lote = numeros.subList(i, Math.min(i + tamanhoLote, numeros.size()));
+            for (var cliente : clienteRepository.findByNumeroContaIn(lote)) {
+                clienteCache.obter(cliente.getNumeroConta(), conta -> cliente);
+            }
+        }
+        return numeros.size();
+    }
+
+    private void exercitarTransferencias() {
+        var transacao = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < iteracoes; i++) {
+            var ida = i % 2 == 0;
+            transacao.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                clienteRepository.save(Cliente.builder().nome("Aquecimento").numeroConta(CONTA_ORIGEM).saldo(1_000_000L).build());
+                clienteRepository.save(Cliente.builder().nome("Aquecimento").numeroConta(CONTA_DESTINO).saldo(1_000_000L).build());
+                var transferencia = transferenciaService.realizarTransferencia(TransferenciaDTO.builder()
+                        .contaOrigem(ida ? CONTA_ORIGEM : CONTA_DESTINO)
+                        .contaDestino(ida ? CONTA_DESTINO : CONTA_ORIGEM)
+                        .valor(100L)
+                        .build());
+                entityManager.flush();
+                try {
+                    objectMapper.writeValueAsBytes(transferencia);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+    }
+}
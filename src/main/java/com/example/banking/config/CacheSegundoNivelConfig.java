@@ -0,0 +1,52 @@
+package com.example.banking.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate sobre JCache, com o Caffeine como provedor local. Há uma
+ * região para as entidades {@code Cliente} e outra para a resolução do número da conta
+ * ({@code @NaturalId}) no id, ambas com tamanho máximo, expiração e estatísticas.
+ * <p>
+ * Cada contexto cria o seu {@link javax.cache.CacheManager}, que o Hibernate fecha junto com a
+ * fábrica de EntityManager. Os valores são guardados por referência, sem cópia serializada, e a
+ * manutenção do cache roda na própria thread: despachá-la para o ForkJoinPool custava uma troca
+ * de thread a cada put.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    public static final String REGIAO_CLIENTES = "clientes";
+    public static final String REGIAO_CLIENTES_NUMERO_CONTA = "clientes-numero-conta";
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(
+            @Value("${banking.cache.segundo-nivel.tamanho-maximo:100000}") long tamanhoMaximo,
+            @Value("${banking.cache.segundo-nivel.ttl:10m}") Duration ttl) {
+        var provedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = provedor.getCacheManager(
+                URI.create("urn:banking:cache:" + UUID.randomUUID()), provedor.getDefaultClassLoader());
+        for (var regiao : List.of(REGIAO_CLIENTES, REGIAO_CLIENTES_NUMERO_CONTA)) {
+            cacheManager.createCache(regiao, new CaffeineConfiguration<>()
+                    .setMaximumSize(OptionalLong.of(tamanhoMaximo))
+                    .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                    .setStoreByValue(false)
+                    .setExecutorFactory(new FactoryBuilder.SingletonFactory<>(Runnable::run))
+                    .setStatisticsEnabled(true));
+        }
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
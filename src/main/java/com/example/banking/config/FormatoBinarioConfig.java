@@ -0,0 +1,29 @@
+package com.example.banking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+/**
+ * Codificação CBOR ({@code application/cbor}) para clientes de alto volume, negociada pelo
+ * {@code Accept}/{@code Content-Type} ao lado do JSON. Usa a mesma configuração do Jackson da
+ * aplicação, com datas como arrays de inteiros, que evitam formatar e interpretar texto.
+ */
+@Configuration
+public class FormatoBinarioConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter conversorCbor(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(mapperCbor(builder));
+    }
+
+    public static ObjectMapper mapperCbor(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
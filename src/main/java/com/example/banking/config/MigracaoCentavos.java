@@ -0,0 +1,69 @@
+package com.example.banking.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+/**
+ * Converte as colunas monetárias gravadas em reais como ponto flutuante para {@code BIGINT}
+ * em centavos. Roda antes do Hibernate e cada passo pode ser repetido: a conversão usa uma
+ * coluna auxiliar, que só substitui a original depois de preenchida.
+ */
+@Slf4j
+@Component
+public class MigracaoCentavos {
+
+    private static final String[][] COLUNAS = {{"CLIENTES", "SALDO"}, {"TRANSFERENCIAS", "VALOR"}};
+    private static final Set<String> TIPOS_DECIMAIS = Set.of("DOUBLE PRECISION", "DOUBLE", "FLOAT", "REAL", "DECFLOAT", "NUMERIC", "DECIMAL");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void migrar() {
+        migrar(new JdbcTemplate(dataSource));
+    }
+
+    static void migrar(JdbcTemplate jdbcTemplate) {
+        for (var coluna : COLUNAS) {
+            migrar(jdbcTemplate, coluna[0], coluna[1]);
+        }
+    }
+
+    private static void migrar(JdbcTemplate jdbcTemplate, String tabela, String coluna) {
+        var auxiliar = coluna + "_CENTAVOS";
+        var tipo = tipo(jdbcTemplate, tabela, coluna);
+        if (tipo != null && TIPOS_DECIMAIS.contains(tipo)) {
+            log.info("Convertendo {}.{} de {} para centavos", tabela, coluna, tipo);
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " ADD COLUMN IF NOT EXISTS " + auxiliar + " BIGINT");
+            jdbcTemplate.update("UPDATE " + tabela + " SET " + auxiliar + " = CAST(ROUND(" + coluna + " * 100) AS BIGINT)"
+                    + " WHERE " + auxiliar + " IS NULL");
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " DROP COLUMN " + coluna);
+            tipo = null;
+        }
+        if (tipo == null && tipo(jdbcTemplate, tabela, auxiliar) != null) {
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " ALTER COLUMN " + auxiliar + " RENAME TO " + coluna);
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " ALTER COLUMN " + coluna + " SET NOT NULL");
+        }
+    }
+
+    private static String tipo(JdbcTemplate jdbcTemplate, String tabela, String coluna) {
+        return jdbcTemplate.query("SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS"
+                        + " WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+                resultado -> resultado.next() ? resultado.getString(1) : null, tabela, coluna);
+    }
+
+    /** Garante que a migração termine antes de o Hibernate validar ou atualizar o esquema. */
+    @Component
+    static class DependenciaEntityManagerFactory extends EntityManagerFactoryDependsOnPostProcessor {
+        DependenciaEntityManagerFactory() {
+            super(MigracaoCentavos.class);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.banking.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Preenche a coluna de versão de {@code clientes} em bancos em que o {@code ddl-auto} a criou
+ * anulável, sem valor nas linhas existentes. Com a versão nula, {@code versao + 1} dos ajustes de
+ * saldo continua nulo e o Hibernate trata a entidade carregada como nova. Roda antes do
+ * Hibernate, zera as versões nulas e declara a coluna {@code NOT NULL DEFAULT 0}, como o
+ * Hibernate já a cria em bancos novos; depois disso, não faz nada.
+ */
+@Slf4j
+@Component
+public class MigracaoVersaoClientes {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void migrar() {
+        migrar(new JdbcTemplate(dataSource));
+    }
+
+    static void migrar(JdbcTemplate jdbcTemplate) {
+        var anulavel = jdbcTemplate.query("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS"
+                        + " WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = 'CLIENTES' AND COLUMN_NAME = 'VERSAO'",
+                resultado -> resultado.next() ? resultado.getString(1) : null);
+        // Sem a coluna, o Hibernate a cria já com o padrão.
+        if (!"YES".equals(anulavel)) {
+            return;
+        }
+        var preenchidas = jdbcTemplate.update("UPDATE CLIENTES SET VERSAO = 0 WHERE VERSAO IS NULL");
+        jdbcTemplate.execute("ALTER TABLE CLIENTES ALTER COLUMN VERSAO SET DEFAULT 0");
+        jdbcTemplate.execute("ALTER TABLE CLIENTES ALTER COLUMN VERSAO SET NOT NULL");
+        log.info("Versão de {} clientes preenchida com 0; coluna CLIENTES.VERSAO agora obrigatória", preenchidas);
+    }
+
+    /** Garante que a migração termine antes de o Hibernate validar ou atualizar o esquema. */
+    @Component
+    static class DependenciaEntityManagerFactory extends EntityManagerFactoryDependsOnPostProcessor {
+        DependenciaEntityManagerFactory() {
+            super(MigracaoVersaoClientes.class);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.banking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Com {@code banking.replica.habilitado=true}, o DataSource da aplicação passa a ter dois pools:
+ * o primário, de {@code spring.datasource.*}, e o da réplica, de {@code banking.replica.*}, com
+ * o roteamento de {@link RoteamentoLeituraDataSource}. Relatórios e consultas disputam só o pool
+ * da réplica, e as transferências ficam com o primário.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.replica.habilitado", havingValue = "true")
+public class ReplicaLeituraConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("banking.replica.hikari")
+    public HikariDataSource dataSourceReplica(@Value("${banking.replica.url}") String url,
+                                              @Value("${banking.replica.username:${spring.datasource.username:}}") String usuario,
+                                              @Value("${banking.replica.password:${spring.datasource.password:}}") String senha) {
+        return DataSourceBuilder.create().type(HikariDataSource.class).url(url).username(usuario).password(senha).build();
+    }
+
+    @Bean
+    public RoteamentoLeituraDataSource roteamentoLeitura(@Qualifier("dataSourcePrimario") DataSource primario,
+                                                         @Qualifier("dataSourceReplica") DataSource replica) {
+        var roteamento = new RoteamentoLeituraDataSource();
+        roteamento.setTargetDataSources(Map.of(
+                RoteamentoLeituraDataSource.Destino.PRIMARIO, primario,
+                RoteamentoLeituraDataSource.Destino.REPLICA, replica));
+        roteamento.setDefaultTargetDataSource(primario);
+        return roteamento;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoLeituraDataSource roteamentoLeitura) {
+        return new LazyConnectionDataSourceProxy(roteamentoLeitura);
+    }
+}
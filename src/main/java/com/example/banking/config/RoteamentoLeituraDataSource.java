@@ -0,0 +1,35 @@
+package com.example.banking.config;
+
+import com.example.banking.service.LeituraConsistente;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia as transações somente-leitura para a réplica e todo o resto para o primário. Precisa
+ * ficar atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * o Hibernate pede a conexão ao iniciar a transação, antes de o Spring marcá-la como
+ * somente-leitura, e o proxy só escolhe o destino no primeiro comando.
+ * <p>
+ * Até a aplicação ficar pronta tudo vai para o primário: as reconstruções da subida (limite
+ * diário, antifraude, resumos) alimentam decisões de escrita e não podem ler uma réplica atrasada.
+ */
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource
+        implements ApplicationListener<ApplicationReadyEvent> {
+
+    public enum Destino {PRIMARIO, REPLICA}
+
+    private volatile boolean replicaLiberada;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent evento) {
+        replicaLiberada = true;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaLiberada && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !LeituraConsistente.primarioExigido() ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+}
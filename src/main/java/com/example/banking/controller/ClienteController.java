@@ -1,19 +1,35 @@
 package com.example.banking.controller;
 
 import com.example.banking.dto.ClienteDTO;
+import com.example.banking.dto.EstatisticasCacheDTO;
+import com.example.banking.dto.ResultadoImportacaoDTO;
+import com.example.banking.service.ClienteCache;
 import com.example.banking.service.ClienteService;
+import com.example.banking.service.ImportacaoClientesService;
+import com.example.banking.utils.Paginacao;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import static com.example.banking.service.ImportacaoClientesService.TEXT_CSV_VALUE;
 import static com.example.banking.utils.ApiPaths.API_V_1_CLIENTES;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping(API_V_1_CLIENTES)
@@ -23,21 +39,73 @@ public class ClienteController {
     @Autowired
     private ClienteService clienteService;
 
-    @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @Autowired
+    private ClienteCache clienteCache;
+
+    @Autowired
+    private ImportacaoClientesService importacaoClientesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping(consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
     @Operation(summary = "Cadastrar um novo cliente")
     public ResponseEntity<ClienteDTO> cadastrarCliente(@Valid @RequestBody ClienteDTO clienteDTO) {
         ClienteDTO criado = clienteService.cadastrarCliente(clienteDTO);
         return new ResponseEntity<>(criado, HttpStatus.CREATED);
     }
 
-    @GetMapping(produces = APPLICATION_JSON_VALUE)
-    @Operation(summary = "Listar todos os clientes")
-    public ResponseEntity<List<ClienteDTO>> listarClientes() {
-        List<ClienteDTO> clientes = clienteService.listarClientes();
-        return ResponseEntity.ok(clientes);
+    @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Listar clientes, paginado por cursor")
+    public ResponseEntity<List<ClienteDTO>> listarClientes(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limite) {
+        var clientes = clienteService.listarClientes(cursor, limite);
+        return Paginacao.resposta(clientes);
+    }
+
+    @GetMapping(value = "/exportacao", produces = {APPLICATION_NDJSON_VALUE, APPLICATION_JSON_VALUE})
+    @Operation(summary = "Exportar todos os clientes em NDJSON ou em um array JSON, sem paginação")
+    public void exportarClientes(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                 HttpServletResponse response) throws IOException {
+        var ndjson = accept != null && accept.contains(APPLICATION_NDJSON_VALUE);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(ndjson ? APPLICATION_NDJSON_VALUE : APPLICATION_JSON_VALUE);
+        try (var gerador = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            if (ndjson) {
+                gerador.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                gerador.writeStartArray();
+            }
+            clienteService.exportarClientes(cliente -> {
+                try {
+                    gerador.writeObject(cliente);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ndjson) {
+                gerador.writeEndArray();
+            }
+        }
+    }
+
+    @PostMapping(value = "/importacao", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE},
+            produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Importar clientes de um corpo CSV ou NDJSON lido em fluxo, com os erros por linha")
+    public ResponseEntity<ResultadoImportacaoDTO> importarClientes(HttpServletRequest request) throws IOException {
+        var ndjson = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_NDJSON);
+        var resultado = importacaoClientesService.importar(request.getInputStream(),
+                ndjson ? ImportacaoClientesService.Formato.NDJSON : ImportacaoClientesService.Formato.CSV);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @GetMapping(value = "/cache/estatisticas", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Consultar acertos, falhas e remoções do cache de clientes")
+    public ResponseEntity<EstatisticasCacheDTO> estatisticasCache() {
+        return ResponseEntity.ok(clienteCache.estatisticas());
     }
 
-    @GetMapping(value = "/{numeroConta}", produces = APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{numeroConta}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
     @Operation(summary = "Buscar cliente por número da conta")
     public ResponseEntity<ClienteDTO> buscarPorNumeroConta(@PathVariable String numeroConta) {
         ClienteDTO cliente = clienteService.buscarPorNumeroConta(numeroConta);
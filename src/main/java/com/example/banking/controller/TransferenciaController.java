@@ -1,20 +1,42 @@
 package com.example.banking.controller;
 
+import com.example.banking.dto.ResumoContaDTO;
+import com.example.banking.dto.SubmissaoTransferenciaDTO;
 import com.example.banking.dto.TransferenciaDTO;
 import com.example.banking.model.Transferencia;
+import com.example.banking.service.IdempotenciaService;
+import com.example.banking.service.ResumoDiarioService;
+import com.example.banking.service.TransferenciaAssincronaService;
+import com.example.banking.service.TransferenciaLoteService;
 import com.example.banking.service.TransferenciaService;
+import com.example.banking.service.engine.TransferenciaEngine;
+import com.example.banking.utils.LeitorNdjson;
+import com.example.banking.utils.Paginacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS;
+import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS_COM_ID;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping(API_V_1_TRANSFERENCIAS)
@@ -24,10 +46,29 @@ public class TransferenciaController {
     @Autowired
     private TransferenciaService transferenciaService;
 
-    @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+
+    @Autowired
+    private TransferenciaLoteService transferenciaLoteService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private TransferenciaAssincronaService transferenciaAssincronaService;
+
+    @Autowired
+    private ResumoDiarioService resumoDiarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping(consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
     @Operation(summary = "Realizar uma transferência entre contas")
-    public ResponseEntity<Transferencia> realizarTransferencia(@Valid @RequestBody TransferenciaDTO transferenciaDTO) {
-        Transferencia transferencia = transferenciaService.realizarTransferencia(transferenciaDTO);
+    public ResponseEntity<Transferencia> realizarTransferencia(@Valid @RequestBody TransferenciaDTO transferenciaDTO,
+                                                               @RequestHeader(value = IdempotenciaService.CABECALHO, required = false) String chaveIdempotencia) {
+        Transferencia transferencia = transferir(transferenciaDTO, chaveIdempotencia);
         if (transferencia.getSucesso()) {
             return new ResponseEntity<>(transferencia, HttpStatus.CREATED);
         } else {
@@ -35,11 +76,87 @@ public class TransferenciaController {
         }
     }
 
-    @GetMapping(value = "/historico/{numeroConta}", produces = APPLICATION_JSON_VALUE)
-    @Operation(summary = "Buscar histórico de transferências de uma conta")
-    public ResponseEntity<List<Transferencia>> buscarHistoricoTransferencias(@PathVariable String numeroConta) {
-        List<Transferencia> historico = transferenciaService.buscarHistoricoTransferencias(numeroConta);
-        return ResponseEntity.ok(historico);
+    @PostMapping(params = "async=true", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Submeter uma transferência para processamento assíncrono")
+    public ResponseEntity<SubmissaoTransferenciaDTO> submeterTransferencia(@Valid @RequestBody TransferenciaDTO transferenciaDTO,
+                                                                           @RequestHeader(value = IdempotenciaService.CABECALHO, required = false) String chaveIdempotencia) {
+        var submissao = transferenciaAssincronaService.submeter(() -> transferir(transferenciaDTO, chaveIdempotencia));
+        return ResponseEntity.accepted()
+                .location(URI.create(String.format(API_V_1_TRANSFERENCIAS_COM_ID, submissao.getId())))
+                .body(submissao);
     }
-}
 
+    @GetMapping(value = "/{id}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Consultar o status de uma transferência assíncrona, aguardando a conclusão por até 'aguardar' segundos")
+    public CompletableFuture<SubmissaoTransferenciaDTO> buscarSubmissao(@PathVariable String id,
+                                                                       @RequestParam(defaultValue = "0") long aguardar) {
+        return transferenciaAssincronaService.buscar(id, Duration.ofSeconds(aguardar));
+    }
+
+    @PostMapping(value = "/lote", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Realizar um lote de transferências, com um resultado por item")
+    public ResponseEntity<List<Transferencia>> realizarLote(@RequestBody List<TransferenciaDTO> transferencias) {
+        return ResponseEntity.ok(transferenciaLoteService.realizarLote(transferencias));
+    }
+
+    @PostMapping(value = "/lote", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Realizar um lote de transferências em NDJSON, com resultados emitidos a cada bloco")
+    public void realizarLoteNdjson(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var leitor = new LeitorNdjson<TransferenciaDTO>(request.getInputStream(), objectMapper.readerFor(TransferenciaDTO.class));
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        var saida = response.getOutputStream();
+        transferenciaLoteService.realizarLote(leitor, bloco -> {
+            try {
+                for (var transferencia : bloco) {
+                    saida.write(objectMapper.writeValueAsBytes(transferencia));
+                    saida.write('\n');
+                }
+                saida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Transferencia transferir(TransferenciaDTO transferenciaDTO, String chaveIdempotencia) {
+        return chaveIdempotencia == null
+                ? transferenciaEngine.realizarTransferencia(transferenciaDTO)
+                : idempotenciaService.executar(chaveIdempotencia, transferenciaDTO,
+                () -> transferenciaEngine.realizarTransferencia(transferenciaDTO, chaveIdempotencia));
+    }
+
+    @GetMapping(value = "/historico/{numeroConta}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Buscar histórico de transferências de uma conta, paginado por cursor")
+    public ResponseEntity<List<Transferencia>> buscarHistoricoTransferencias(@PathVariable String numeroConta,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) Integer limite) {
+        var historico = transferenciaService.buscarHistoricoTransferencias(numeroConta, cursor, limite);
+        return Paginacao.resposta(historico);
+    }
+
+    @GetMapping(value = "/resumo/{numeroConta}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Resumo diário de débitos, créditos e falhas de uma conta no período (padrão: últimos 30 dias)")
+    public ResponseEntity<ResumoContaDTO> buscarResumo(@PathVariable String numeroConta,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return ResponseEntity.ok(resumoDiarioService.buscarResumo(numeroConta, de, ate));
+    }
+
+    @GetMapping(value = "/historico/{numeroConta}/exportacao", produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar o histórico completo de transferências de uma conta em NDJSON")
+    public void exportarHistoricoTransferencias(@PathVariable String numeroConta, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        var saida = response.getOutputStream();
+        transferenciaService.exportarHistoricoTransferencias(numeroConta, transferencia -> {
+            try {
+                saida.write(objectMapper.writeValueAsBytes(transferencia));
+                saida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        saida.flush();
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.banking.dto;
 
+import com.example.banking.utils.Centavos;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,5 +16,8 @@ public class ClienteDTO {
     private String id;
     private String nome;
     private String numeroConta;
-    private Double saldo;
+    /** Em centavos; no JSON, em reais. */
+    @JsonSerialize(using = Centavos.Serializador.class)
+    @JsonDeserialize(using = Centavos.Desserializador.class)
+    private long saldo;
 }
@@ -0,0 +1,18 @@
+package com.example.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstatisticasCacheDTO {
+    private long acertos;
+    private long falhas;
+    private long remocoes;
+    private double taxaAcerto;
+    private long tamanho;
+}
@@ -0,0 +1,13 @@
+package com.example.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class Pagina<T> {
+    private List<T> itens;
+    private String proximoCursor;
+}
@@ -0,0 +1,34 @@
+package com.example.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação de clientes. {@code erros} traz no máximo
+ * {@code banking.importacao.erros-maximo} linhas; {@code rejeitadas} conta todas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoImportacaoDTO {
+    private long linhas;
+    private long importadas;
+    private long rejeitadas;
+    @Builder.Default
+    private List<Erro> erros = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Erro {
+        private long linha;
+        private String numeroConta;
+        private String mensagem;
+    }
+}
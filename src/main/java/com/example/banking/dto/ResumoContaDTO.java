@@ -0,0 +1,32 @@
+package com.example.banking.dto;
+
+import com.example.banking.model.ResumoDiario;
+import com.example.banking.utils.Centavos;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoContaDTO {
+    private String numeroConta;
+    private LocalDate de;
+    private LocalDate ate;
+    private long quantidade;
+    /** Em centavos; no JSON, em reais. */
+    @JsonSerialize(using = Centavos.Serializador.class)
+    private long totalDebitado;
+    /** Em centavos; no JSON, em reais. */
+    @JsonSerialize(using = Centavos.Serializador.class)
+    private long totalCreditado;
+    private long falhas;
+    /** Só os dias com movimento, em ordem. */
+    private List<ResumoDiario> dias;
+}
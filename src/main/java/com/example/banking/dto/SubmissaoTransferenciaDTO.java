@@ -0,0 +1,25 @@
+package com.example.banking.dto;
+
+import com.example.banking.model.Transferencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissaoTransferenciaDTO {
+
+    public enum Status {
+        PENDENTE, CONCLUIDA, FALHA
+    }
+
+    private String id;
+    private Status status;
+    /** Resultado da transferência, quando concluída. */
+    private Transferencia transferencia;
+    /** Motivo da falha, quando a transferência não chegou a ser processada. */
+    private String mensagem;
+}
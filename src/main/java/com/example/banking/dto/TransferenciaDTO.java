@@ -1,5 +1,8 @@
 package com.example.banking.dto;
 
+import com.example.banking.utils.Centavos;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,5 +15,8 @@ import lombok.NoArgsConstructor;
 public class TransferenciaDTO {
     private String contaOrigem;
     private String contaDestino;
-    private Double valor;
+    /** Em centavos; no JSON, em reais. */
+    @JsonSerialize(using = Centavos.Serializador.class)
+    @JsonDeserialize(using = Centavos.Desserializador.class)
+    private long valor;
 }
@@ -0,0 +1,25 @@
+package com.example.banking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Última sequência do journal de transferências já materializada no banco. Atualizada na mesma
+ * transação que grava as transferências, para que a recuperação saiba exatamente o que reaplicar.
+ */
+@Entity
+@Table(name = "journal_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckpointJournal {
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "ultima_sequencia", nullable = false)
+    private long ultimaSequencia;
+}
@@ -5,6 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.util.UUID;
 
 @Entity
 @Table(name = "clientes")
@@ -12,17 +19,40 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
+@NaturalIdCache(region = "clientes-numero-conta")
 public class Cliente {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
     @Column(nullable = false)
     private String nome;
 
+    @NaturalId
     @Column(name = "numero_conta", unique = true, nullable = false)
     private String numeroConta;
 
+    /** Em centavos. */
     @Column(name = "saldo", nullable = false)
-    private Double saldo;
+    private long saldo;
+
+    /** Categoria para os limites de {@code banking.limite-diario.categorias}; nula usa o limite padrão. */
+    @Column(name = "categoria")
+    private String categoria;
+
+    // Long, e não long: a versão nula é o que marca o cliente como novo para o save().
+    // Na coluna, nunca nula: MigracaoVersaoClientes preenche os bancos criados antes do padrão.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    // O id é atribuído aqui, e não por @GeneratedValue, para que clientes com id já definido
+    // continuem sendo inseridos com persist mesmo com a coluna de versão.
+    @PrePersist
+    void gerarId() {
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.banking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma chave de idempotência: a transferência pedida e, depois de concluída, o
+ * resultado devolvido. Sempre gravado com INSERT, para que duas reservas da mesma chave
+ * colidam na chave primária em vez de uma sobrescrever a outra.
+ */
+@Entity
+@Table(name = "idempotencias", indexes = {
+        @Index(name = "idx_idempotencias_criada_em", columnList = "criada_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Idempotencia implements Persistable<String> {
+    @Id
+    @Column(name = "chave")
+    private String chave;
+
+    @Column(name = "conta_origem", nullable = false)
+    private String contaOrigem;
+
+    @Column(name = "conta_destino", nullable = false)
+    private String contaDestino;
+
+    @Column(name = "valor", nullable = false)
+    private long valor;
+
+    @Column(name = "criada_em", nullable = false)
+    private LocalDateTime criadaEm;
+
+    @Column(name = "concluida", nullable = false)
+    private boolean concluida;
+
+    @Column(name = "transferencia_id")
+    private Long transferenciaId;
+
+    @Column(name = "data_transferencia")
+    private LocalDateTime dataTransferencia;
+
+    @Column(name = "sucesso")
+    private Boolean sucesso;
+
+    @Column(name = "mensagem")
+    private String mensagem;
+
+    @Transient
+    @Builder.Default
+    private boolean nova = true;
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        nova = false;
+    }
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nova;
+    }
+}
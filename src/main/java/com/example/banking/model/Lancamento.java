@@ -0,0 +1,61 @@
+package com.example.banking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada do livro razão. Nunca é alterada nem removida; o saldo de uma conta é a soma dos
+ * seus lançamentos, a partir da abertura que registra o saldo que a conta tinha ao entrar no livro.
+ * A transferência de origem é referenciada só pelo identificador, sem chave estrangeira, para que
+ * o histórico de transferências possa ser expurgado sem tocar no livro.
+ */
+@Entity
+@Table(name = "lancamentos", indexes = {
+        @Index(name = "idx_lancamentos_conta", columnList = "numero_conta, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Lancamento {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamentos_seq")
+    @SequenceGenerator(name = "lancamentos_seq", sequenceName = "lancamentos_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "numero_conta", nullable = false)
+    private String numeroConta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false)
+    private Tipo tipo;
+
+    /** Em centavos; negativo nos débitos. */
+    @Column(name = "valor", nullable = false)
+    private long valor;
+
+    @Column(name = "transferencia_id")
+    private Long transferenciaId;
+
+    @Transient
+    @ToString.Exclude
+    private Transferencia transferencia;
+
+    @Column(name = "data_lancamento", nullable = false)
+    private LocalDateTime dataLancamento;
+
+    @PrePersist
+    void copiarTransferenciaId() {
+        if (transferencia != null) {
+            transferenciaId = transferencia.getId();
+        }
+    }
+
+    public enum Tipo {
+        ABERTURA,
+        DEBITO,
+        CREDITO
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.banking.model;
+
+import com.example.banking.utils.Centavos;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Movimento de uma conta em um dia, acumulado na mesma transação que grava cada transferência.
+ */
+@Entity
+@Table(name = "resumos_diarios")
+@IdClass(ResumoDiario.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoDiario {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable, Comparable<Chave> {
+        private static final Comparator<Chave> ORDEM = Comparator
+                .comparing(Chave::getNumeroConta)
+                .thenComparing(Chave::getDia);
+
+        private String numeroConta;
+        private LocalDate dia;
+
+        @Override
+        public int compareTo(Chave outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+
+    @Id
+    @Column(name = "numero_conta")
+    private String numeroConta;
+
+    @Id
+    @Column(name = "dia")
+    private LocalDate dia;
+
+    /** Transferências concluídas em que a conta foi origem ou destino. */
+    @Column(name = "quantidade", nullable = false)
+    private long quantidade;
+
+    /** Em centavos; no JSON, em reais. */
+    @Column(name = "total_debitado", nullable = false)
+    @JsonSerialize(using = Centavos.Serializador.class)
+    private long totalDebitado;
+
+    /** Em centavos; no JSON, em reais. */
+    @Column(name = "total_creditado", nullable = false)
+    @JsonSerialize(using = Centavos.Serializador.class)
+    private long totalCreditado;
+
+    /** Tentativas recusadas com a conta como origem. */
+    @Column(name = "falhas", nullable = false)
+    private long falhas;
+}
@@ -0,0 +1,31 @@
+package com.example.banking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saldo de uma conta consolidado até o lançamento {@code ultimoLancamento}. Cada snapshot
+ * substitui o anterior da mesma conta.
+ */
+@Entity
+@Table(name = "snapshots_saldo")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaldoSnapshot {
+    @Id
+    @Column(name = "numero_conta")
+    private String numeroConta;
+
+    @Column(name = "saldo", nullable = false)
+    private long saldo;
+
+    @Column(name = "ultimo_lancamento", nullable = false)
+    private long ultimoLancamento;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+}
@@ -1,19 +1,30 @@
 package com.example.banking.model;
 
+import com.example.banking.service.LeituraConsistenteListener;
+import com.example.banking.service.ResumoDiarioListener;
+import com.example.banking.utils.Centavos;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transferencias")
+@Table(name = "transferencias", indexes = {
+        @Index(name = "idx_transferencias_origem_data", columnList = "conta_origem, data_transferencia, id"),
+        @Index(name = "idx_transferencias_destino_data", columnList = "conta_destino, data_transferencia, id"),
+        @Index(name = "idx_transferencias_data", columnList = "data_transferencia, id")
+})
+@EntityListeners({ResumoDiarioListener.class, LeituraConsistenteListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Transferencia {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transferencias_seq")
+    @SequenceGenerator(name = "transferencias_seq", sequenceName = "transferencias_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "conta_origem", nullable = false)
@@ -22,8 +33,11 @@ public class Transferencia {
     @Column(name = "conta_destino", nullable = false)
     private String contaDestino;
 
+    /** Em centavos; no JSON, em reais. */
     @Column(name = "valor", nullable = false)
-    private Double valor;
+    @JsonSerialize(using = Centavos.Serializador.class)
+    @JsonDeserialize(using = Centavos.Desserializador.class)
+    private long valor;
 
     @Column(name = "data_transferencia", nullable = false)
     private LocalDateTime dataTransferencia;
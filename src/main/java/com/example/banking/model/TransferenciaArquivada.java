@@ -0,0 +1,45 @@
+package com.example.banking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transferência movida de {@code transferencias} para o arquivo por
+ * {@link com.example.banking.service.ArquivamentoService}, com o mesmo identificador. As
+ * consultas do histórico a devolvem como {@link Transferencia}.
+ */
+@Entity
+@Table(name = "transferencias_arquivo", indexes = {
+        @Index(name = "idx_transferencias_arquivo_origem_data", columnList = "conta_origem, data_transferencia, id"),
+        @Index(name = "idx_transferencias_arquivo_destino_data", columnList = "conta_destino, data_transferencia, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferenciaArquivada {
+    @Id
+    private Long id;
+
+    @Column(name = "conta_origem", nullable = false)
+    private String contaOrigem;
+
+    @Column(name = "conta_destino", nullable = false)
+    private String contaDestino;
+
+    /** Em centavos. */
+    @Column(name = "valor", nullable = false)
+    private long valor;
+
+    @Column(name = "data_transferencia", nullable = false)
+    private LocalDateTime dataTransferencia;
+
+    @Column(name = "sucesso", nullable = false)
+    private Boolean sucesso;
+
+    @Column(name = "mensagem")
+    private String mensagem;
+
+}
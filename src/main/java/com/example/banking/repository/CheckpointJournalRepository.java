@@ -0,0 +1,15 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.CheckpointJournal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CheckpointJournalRepository extends JpaRepository<CheckpointJournal, Integer> {
+
+    @Modifying
+    @Query("update CheckpointJournal c set c.ultimaSequencia = :sequencia " +
+            "where c.id = " + CheckpointJournal.ID + " and c.ultimaSequencia < :sequencia")
+    int avancar(@Param("sequencia") long sequencia);
+}
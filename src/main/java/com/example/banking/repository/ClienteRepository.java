@@ -1,10 +1,48 @@
 package com.example.banking.repository;
 
+import com.example.banking.dto.ClienteDTO;
 import com.example.banking.model.Cliente;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ClienteRepository extends JpaRepository<Cliente, String> {
-    Optional<Cliente> findByNumeroConta(String numeroConta);
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface ClienteRepository extends JpaRepository<Cliente, String>, ClienteRepositoryCustom {
+    boolean existsByNumeroConta(String numeroConta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cliente c where c.numeroConta = :numeroConta")
+    Optional<Cliente> findByNumeroContaParaAtualizacao(@Param("numeroConta") String numeroConta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cliente c where c.numeroConta in :numerosConta order by c.numeroConta")
+    List<Cliente> findByNumeroContaInParaAtualizacao(@Param("numerosConta") Collection<String> numerosConta);
+
+    @Query("select new com.example.banking.dto.ClienteDTO(c.id, c.nome, c.numeroConta, c.saldo) " +
+            "from Cliente c order by c.numeroConta")
+    List<ClienteDTO> listarPagina(Limit limite);
+
+    @Query("select new com.example.banking.dto.ClienteDTO(c.id, c.nome, c.numeroConta, c.saldo) " +
+            "from Cliente c where c.numeroConta > :numeroConta order by c.numeroConta")
+    List<ClienteDTO> listarPaginaApos(@Param("numeroConta") String numeroConta, Limit limite);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.banking.dto.ClienteDTO(c.id, c.nome, c.numeroConta, c.saldo) " +
+            "from Cliente c order by c.numeroConta")
+    Stream<ClienteDTO> exportarTodos();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.numeroConta from Cliente c")
+    Stream<String> streamNumerosConta();
 }
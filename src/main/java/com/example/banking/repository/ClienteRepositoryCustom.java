@@ -0,0 +1,22 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Cliente;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas por número da conta resolvidas pelo {@code @NaturalId} de {@link Cliente}: passam
+ * pelo contexto de persistência e pelo cache de segundo nível antes de ir ao banco. As
+ * atualizações de saldo sem carregar o cliente invalidam no cache só a conta alterada.
+ */
+public interface ClienteRepositoryCustom {
+    Optional<Cliente> findByNumeroConta(String numeroConta);
+
+    List<Cliente> findByNumeroContaIn(Collection<String> numerosConta);
+
+    int atualizarSaldo(String numeroConta, long saldo);
+
+    int ajustarSaldo(String numeroConta, long ajuste);
+}
@@ -0,0 +1,99 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Sem {@code readOnly}: as engines e o limite diário leem por aqui, fora de transação, o saldo e
+ * a categoria sobre os quais vão escrever, e uma transação só de leitura iria para a réplica.
+ * Chamadas dentro de uma transação só de leitura, como as consultas de conta, seguem nela.
+ */
+@Transactional
+class ClienteRepositoryCustomImpl implements ClienteRepositoryCustom {
+
+    private static final String ATUALIZAR_SALDO =
+            "update clientes set saldo = :valor, versao = versao + 1 where numero_conta = :numeroConta";
+    private static final String AJUSTAR_SALDO =
+            "update clientes set saldo = saldo + :valor, versao = versao + 1 where numero_conta = :numeroConta";
+
+    /**
+     * Espaço declarado nas atualizações de saldo. Sem espaço declarado, ou com {@code clientes},
+     * o Hibernate trata o comando como atualização em lote e esvazia a região inteira de
+     * {@link Cliente} a cada gravação; com um espaço que nenhuma entidade usa, só a conta
+     * alterada é invalidada, por {@link #travarNoCache}.
+     */
+    private static final String ESPACO_SALDO = "clientes_saldo";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Cliente> findByNumeroConta(String numeroConta) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Cliente.class)
+                .loadOptional(numeroConta);
+    }
+
+    @Override
+    public List<Cliente> findByNumeroContaIn(Collection<String> numerosConta) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleNaturalId(Cliente.class)
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(numerosConta))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public int atualizarSaldo(String numeroConta, long saldo) {
+        return atualizar(ATUALIZAR_SALDO, numeroConta, saldo);
+    }
+
+    @Override
+    public int ajustarSaldo(String numeroConta, long ajuste) {
+        return atualizar(AJUSTAR_SALDO, numeroConta, ajuste);
+    }
+
+    private int atualizar(String sql, String numeroConta, long valor) {
+        var session = entityManager.unwrap(SessionImplementor.class);
+        var cliente = session.bySimpleNaturalId(Cliente.class).getReference(numeroConta);
+        if (cliente == null) {
+            return 0;
+        }
+        travarNoCache(session, session.getIdentifier(cliente));
+        // O espaço declarado não cobre clientes: a descarga automática não aconteceria.
+        session.flush();
+        return session.createNativeQuery(sql)
+                .addSynchronizedQuerySpace(ESPACO_SALDO)
+                .setParameter("valor", valor)
+                .setParameter("numeroConta", numeroConta)
+                .executeUpdate();
+    }
+
+    /**
+     * Trava a entrada do cliente no cache até o fim da transação, como numa atualização da
+     * entidade: enquanto isso, e logo depois, leituras concorrentes não repõem o saldo antigo.
+     */
+    private static void travarNoCache(SessionImplementor session, Object id) {
+        var persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Cliente.class);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        var acesso = persister.getCacheAccessStrategy();
+        var chave = acesso.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        var trava = acesso.lockItem(session, chave, null);
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (sucesso, sessao) -> acesso.unlockItem(sessao, chave, trava));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Idempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotenciaRepository extends JpaRepository<Idempotencia, String> {
+
+    @Transactional
+    @Modifying
+    // O coalesce preserva o id que o gravador assíncrono da engine memoria possa já ter registrado.
+    @Query("update Idempotencia i set i.concluida = true, i.transferenciaId = coalesce(:transferenciaId, i.transferenciaId), " +
+            "i.dataTransferencia = :dataTransferencia, i.sucesso = :sucesso, i.mensagem = :mensagem " +
+            "where i.chave = :chave")
+    int concluir(@Param("chave") String chave,
+                 @Param("transferenciaId") Long transferenciaId,
+                 @Param("dataTransferencia") LocalDateTime dataTransferencia,
+                 @Param("sucesso") Boolean sucesso,
+                 @Param("mensagem") String mensagem);
+
+    @Transactional
+    @Modifying
+    @Query("update Idempotencia i set i.transferenciaId = :transferenciaId where i.chave = :chave")
+    int registrarTransferencia(@Param("chave") String chave, @Param("transferenciaId") Long transferenciaId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Idempotencia i where i.criadaEm < :limite")
+    int removerCriadasAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,23 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Lancamento;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select l from Lancamento l where l.id > :id order by l.id")
+    Stream<Lancamento> buscarApos(@Param("id") long id);
+
+    @Query("select coalesce(sum(l.valor), 0) from Lancamento l where l.numeroConta = :numeroConta")
+    long somarPorConta(@Param("numeroConta") String numeroConta);
+}
@@ -0,0 +1,23 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.ResumoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ResumoDiarioRepository extends JpaRepository<ResumoDiario, ResumoDiario.Chave> {
+
+    List<ResumoDiario> findByNumeroContaAndDiaBetweenOrderByDia(String numeroConta, LocalDate de, LocalDate ate);
+
+    @Modifying
+    @Query("update ResumoDiario r set r.quantidade = r.quantidade + :quantidade, " +
+            "r.totalDebitado = r.totalDebitado + :debitado, r.totalCreditado = r.totalCreditado + :creditado, " +
+            "r.falhas = r.falhas + :falhas where r.numeroConta = :numeroConta and r.dia = :dia")
+    int acumular(@Param("numeroConta") String numeroConta, @Param("dia") LocalDate dia,
+                 @Param("quantidade") long quantidade, @Param("debitado") long debitado,
+                 @Param("creditado") long creditado, @Param("falhas") long falhas);
+}
@@ -0,0 +1,11 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.SaldoSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface SaldoSnapshotRepository extends JpaRepository<SaldoSnapshot, String> {
+
+    @Query("select coalesce(max(s.ultimoLancamento), 0) from SaldoSnapshot s")
+    long buscarUltimoLancamento();
+}
@@ -0,0 +1,53 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Transferencia;
+import com.example.banking.model.TransferenciaArquivada;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/** Mesmas consultas de histórico de {@link TransferenciaRepository}, sobre o arquivo. */
+public interface TransferenciaArquivadaRepository extends JpaRepository<TransferenciaArquivada, Long> {
+
+    String TRANSFERENCIA = "select new com.example.banking.model.Transferencia(t.id, t.contaOrigem, t.contaDestino, " +
+            "t.valor, t.dataTransferencia, t.sucesso, t.mensagem) from TransferenciaArquivada t ";
+
+    @Query(TRANSFERENCIA + "where t.contaOrigem = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaOrigem(@Param("conta") String conta, Limit limite);
+
+    @Query(TRANSFERENCIA + "where t.contaOrigem = :conta " +
+            "and (t.dataTransferencia < :data or (t.dataTransferencia = :data and t.id < :id)) " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaOrigemAntesDe(@Param("conta") String conta, @Param("data") LocalDateTime data,
+                                                    @Param("id") Long id, Limit limite);
+
+    @Query(TRANSFERENCIA + "where t.contaDestino = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaDestino(@Param("conta") String conta, Limit limite);
+
+    @Query(TRANSFERENCIA + "where t.contaDestino = :conta " +
+            "and (t.dataTransferencia < :data or (t.dataTransferencia = :data and t.id < :id)) " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaDestinoAntesDe(@Param("conta") String conta, @Param("data") LocalDateTime data,
+                                                     @Param("id") Long id, Limit limite);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(TRANSFERENCIA + "where t.contaOrigem = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    Stream<Transferencia> streamPorContaOrigem(@Param("conta") String conta);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(TRANSFERENCIA + "where t.contaDestino = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    Stream<Transferencia> streamPorContaDestino(@Param("conta") String conta);
+}
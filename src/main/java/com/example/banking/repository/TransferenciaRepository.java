@@ -1,10 +1,56 @@
 package com.example.banking.repository;
 
 import com.example.banking.model.Transferencia;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TransferenciaRepository extends JpaRepository<Transferencia, Long> {
-    List<Transferencia> findByContaOrigemOrContaDestinoOrderByDataTransferenciaDesc(String contaOrigem, String contaDestino);
+
+    @Query("select t from Transferencia t where t.contaOrigem = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaOrigem(@Param("conta") String conta, Limit limite);
+
+    @Query("select t from Transferencia t where t.contaOrigem = :conta " +
+            "and (t.dataTransferencia < :data or (t.dataTransferencia = :data and t.id < :id)) " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaOrigemAntesDe(@Param("conta") String conta, @Param("data") LocalDateTime data,
+                                                    @Param("id") Long id, Limit limite);
+
+    @Query("select t from Transferencia t where t.contaDestino = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaDestino(@Param("conta") String conta, Limit limite);
+
+    @Query("select t from Transferencia t where t.contaDestino = :conta " +
+            "and (t.dataTransferencia < :data or (t.dataTransferencia = :data and t.id < :id)) " +
+            "order by t.dataTransferencia desc, t.id desc")
+    List<Transferencia> buscarPorContaDestinoAntesDe(@Param("conta") String conta, @Param("data") LocalDateTime data,
+                                                     @Param("id") Long id, Limit limite);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select t from Transferencia t where t.contaOrigem = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    Stream<Transferencia> streamPorContaOrigem(@Param("conta") String conta);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select t from Transferencia t where t.contaDestino = :conta " +
+            "order by t.dataTransferencia desc, t.id desc")
+    Stream<Transferencia> streamPorContaDestino(@Param("conta") String conta);
+
+    /** Transferências concluídas a partir de {@code desde}, fora do contexto de persistência. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.banking.model.Transferencia(t.id, t.contaOrigem, t.contaDestino, t.valor, " +
+            "t.dataTransferencia, t.sucesso, t.mensagem) from Transferencia t " +
+            "where t.sucesso = true and t.dataTransferencia >= :desde order by t.id")
+    Stream<Transferencia> streamConcluidasDesde(@Param("desde") LocalDateTime desde);
 }
@@ -0,0 +1,91 @@
+package com.example.banking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Move para {@code transferencias_arquivo} as transferências mais antigas que
+ * {@code banking.arquivamento.retencao}, em lotes de {@code banking.arquivamento.tamanho-lote}
+ * linhas, cada lote numa transação curta: copia e remove as mesmas linhas pelo identificador.
+ * Transferências não mudam depois de gravadas e as novas entram com a data corrente, então o
+ * arquivamento nunca disputa linhas com as inserções.
+ * <p>
+ * Os lotes seguem a ordem (data, id) crescente, de modo que as linhas do arquivo costumam ser
+ * anteriores às de {@code transferencias}. Não há garantia: durante um arquivamento, ou com
+ * transferências de data retroativa, as tabelas se sobrepõem. Por isso o histórico compara a
+ * página com a linha arquivada mais nova da conta antes de dispensar o arquivo.
+ */
+@Slf4j
+@Service
+public class ArquivamentoService {
+
+    private static final String SELECIONAR = "select id from transferencias where data_transferencia < ? " +
+            "order by data_transferencia, id limit ?";
+    private static final String COPIAR = "insert into transferencias_arquivo " +
+            "(id, conta_origem, conta_destino, valor, data_transferencia, sucesso, mensagem) " +
+            "select id, conta_origem, conta_destino, valor, data_transferencia, sucesso, mensagem " +
+            "from transferencias where id in (:ids)";
+    private static final String REMOVER = "delete from transferencias where id in (:ids)";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.arquivamento.habilitado:true}")
+    private boolean habilitado = true;
+    @Value("${banking.arquivamento.retencao:90d}")
+    private Duration retencao = Duration.ofDays(90);
+    @Value("${banking.arquivamento.tamanho-lote:1000}")
+    private int tamanhoLote = 1000;
+
+    private Clock relogio = Clock.systemDefaultZone();
+
+    @Scheduled(fixedDelayString = "${banking.arquivamento.intervalo:PT1H}",
+            initialDelayString = "${banking.arquivamento.intervalo:PT1H}")
+    public void arquivarAgendado() {
+        if (habilitado) {
+            arquivar();
+        }
+    }
+
+    /** Arquiva tudo o que passou da retenção e devolve a quantidade de transferências movidas. */
+    public synchronized long arquivar() {
+        var corte = LocalDateTime.now(relogio).minus(retencao);
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        var namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        var transacao = new TransactionTemplate(transactionManager);
+        long movidas = 0;
+        int lote;
+        do {
+            lote = transacao.execute(status -> {
+                var ids = jdbcTemplate.queryForList(SELECIONAR, Long.class, corte, tamanhoLote);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                var parametros = new MapSqlParameterSource("ids", ids);
+                namedJdbcTemplate.update(COPIAR, parametros);
+                namedJdbcTemplate.update(REMOVER, parametros);
+                return ids.size();
+            });
+            movidas += lote;
+        } while (lote == tamanhoLote);
+        if (movidas > 0) {
+            log.info("{} transferências anteriores a {} arquivadas", movidas, corte);
+        }
+        return movidas;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.ClienteDTO;
+import com.example.banking.dto.EstatisticasCacheDTO;
+import com.example.banking.model.Cliente;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura de clientes por número da conta. Alterações de saldo só chegam ao cache
+ * depois do commit e uma entrada nunca é substituída por outra de versão anterior, de modo que
+ * uma leitura feita antes do commit não sobrescreve o saldo confirmado. A carga do banco roda
+ * fora do {@code compute} do mapa: bloquear em I/O dentro do monitor fixaria a thread virtual
+ * na portadora.
+ */
+@Component
+public class ClienteCache {
+
+    private final Cache<String, Entrada> cache;
+    private volatile boolean habilitado;
+
+    public ClienteCache(@Value("${banking.cache.clientes.tamanho-maximo:100000}") long tamanhoMaximo,
+                        @Value("${banking.cache.clientes.ttl:5m}") Duration ttl,
+                        @Value("${banking.cache.clientes.habilitado:true}") boolean habilitado) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.habilitado = habilitado;
+    }
+
+    public ClienteDTO obter(String numeroConta, Function<String, Cliente> carregar) {
+        if (!habilitado) {
+            return ClienteService.mapToDTO(carregar.apply(numeroConta));
+        }
+        var atual = cache.getIfPresent(numeroConta);
+        if (atual != null) {
+            return atual.cliente();
+        }
+        return cache.asMap().merge(numeroConta, entrada(carregar.apply(numeroConta)),
+                (existente, carregada) -> carregada.versao() > existente.versao() ? carregada : existente).cliente();
+    }
+
+    /**
+     * Publica o estado do cliente quando a transação corrente confirmar; sem transação ativa,
+     * publica imediatamente. Em caso de rollback o cache permanece como estava.
+     */
+    public void atualizarAposCommit(Cliente cliente) {
+        if (!habilitado) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicar(cliente);
+                }
+            });
+        } else {
+            publicar(cliente);
+        }
+    }
+
+    /** Atualiza apenas o saldo de uma entrada já presente, usado pelo motor em memória. */
+    public void atualizarSaldo(String numeroConta, long saldo) {
+        if (habilitado) {
+            cache.asMap().computeIfPresent(numeroConta, (conta, atual) -> new Entrada(ClienteDTO.builder()
+                    .id(atual.cliente().getId())
+                    .nome(atual.cliente().getNome())
+                    .numeroConta(conta)
+                    .saldo(saldo)
+                    .build(), atual.versao()));
+        }
+    }
+
+    public void invalidar(String numeroConta) {
+        cache.invalidate(numeroConta);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+        if (!habilitado) {
+            cache.invalidateAll();
+        }
+    }
+
+    public EstatisticasCacheDTO estatisticas() {
+        var estatisticas = cache.stats();
+        return EstatisticasCacheDTO.builder()
+                .acertos(estatisticas.hitCount())
+                .falhas(estatisticas.missCount())
+                .remocoes(estatisticas.evictionCount())
+                .taxaAcerto(estatisticas.hitRate())
+                .tamanho(cache.estimatedSize())
+                .build();
+    }
+
+    private void publicar(Cliente cliente) {
+        cache.asMap().merge(cliente.getNumeroConta(), entrada(cliente),
+                (atual, candidata) -> candidata.versao() >= atual.versao() ? candidata : atual);
+    }
+
+    private static Entrada entrada(Cliente cliente) {
+        return new Entrada(ClienteService.mapToDTO(cliente), cliente.getVersao() == null ? -1 : cliente.getVersao());
+    }
+
+    private record Entrada(ClienteDTO cliente, long versao) {
+    }
+}
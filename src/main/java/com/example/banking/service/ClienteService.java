@@ -1,14 +1,22 @@
 package com.example.banking.service;
 
 import com.example.banking.dto.ClienteDTO;
+import com.example.banking.dto.Pagina;
 import com.example.banking.exception.ResourceNotFoundException;
 import com.example.banking.model.Cliente;
 import com.example.banking.repository.ClienteRepository;
+import com.example.banking.utils.Cursores;
+import com.example.banking.utils.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,6 +25,24 @@ public class ClienteService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private ClienteCache clienteCache;
+
+    @Autowired
+    private LeituraConsistente leituraConsistente;
+
+    /** Presente só com a engine ledger, quando o saldo vem do livro razão. */
+    @Autowired(required = false)
+    private LivroRazao livroRazao;
+
+    @Value("${banking.concorrencia.modo:otimista}")
+    private ModoConcorrencia modoConcorrencia = ModoConcorrencia.OTIMISTA;
+
+    @Value("${banking.paginacao.limite-padrao:100}")
+    private int limitePadrao = 100;
+    @Value("${banking.paginacao.limite-maximo:1000}")
+    private int limiteMaximo = 1000;
+
     public ClienteDTO cadastrarCliente(ClienteDTO clienteDTO) {
         var cliente = Cliente.builder()
                 .nome(clienteDTO.getNome())
@@ -24,33 +50,75 @@ public class ClienteService {
                 .saldo(clienteDTO.getSaldo())
                 .build();
         var salvo = clienteRepository.save(cliente);
+        leituraConsistente.registrarEscrita(salvo.getNumeroConta());
         return mapToDTO(salvo);
     }
 
-    public List<ClienteDTO> listarClientes() {
-        return clienteRepository.findAll()
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Pagina<ClienteDTO> listarClientes(String cursor, Integer limite) {
+        var tamanho = Paginacao.tamanhoPagina(limite, limitePadrao, limiteMaximo);
+        var limiteConsulta = Limit.of(tamanho + 1);
+        var clientes = cursor == null
+                ? clienteRepository.listarPagina(limiteConsulta)
+                : clienteRepository.listarPaginaApos(Cursores.decodificar(cursor, 1)[0], limiteConsulta);
+        if (clientes.size() <= tamanho) {
+            return new Pagina<>(clientes, null);
+        }
+        var itens = clientes.subList(0, tamanho);
+        return new Pagina<>(itens, Cursores.codificar(itens.get(tamanho - 1).getNumeroConta()));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarClientes(Consumer<ClienteDTO> consumidor) {
+        try (var clientes = clienteRepository.exportarTodos()) {
+            clientes.forEach(consumidor);
+        }
     }
 
+    @Transactional(readOnly = true)
     public ClienteDTO buscarPorNumeroConta(String numeroConta) {
-        var cliente = clienteRepository.findByNumeroConta(numeroConta)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado para a conta: " + numeroConta));
-        return mapToDTO(cliente);
+        leituraConsistente.lerConta(numeroConta);
+        var cliente = clienteCache.obter(numeroConta, conta -> clienteRepository.findByNumeroConta(conta)
+                .orElseThrow(() -> new ResourceNotFoundException(RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + conta)));
+        var saldo = livroRazao != null ? livroRazao.saldo(numeroConta) : null;
+        if (saldo == null) {
+            return cliente;
+        }
+        return ClienteDTO.builder()
+                .id(cliente.getId())
+                .nome(cliente.getNome())
+                .numeroConta(cliente.getNumeroConta())
+                .saldo(saldo)
+                .build();
     }
 
+    /**
+     * Nunca usa o {@link ClienteCache}: o caminho de transferência depende da versão e do
+     * bloqueio da linha. No modo otimista a leitura pode vir do cache de segundo nível, cuja
+     * versão é conferida no update; no pessimista sempre vai ao banco com bloqueio.
+     */
     public Cliente getClienteEntityByNumeroConta(String numeroConta) {
-        return clienteRepository.findByNumeroConta(numeroConta)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado para a conta: " + numeroConta));
+        var cliente = modoConcorrencia == ModoConcorrencia.PESSIMISTA
+                ? clienteRepository.findByNumeroContaParaAtualizacao(numeroConta)
+                : clienteRepository.findByNumeroConta(numeroConta);
+        return cliente
+                .orElseThrow(() -> new ResourceNotFoundException(RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + numeroConta));
+    }
+
+    public Map<String, Cliente> getClientesEntityByNumerosConta(Collection<String> numerosConta) {
+        var clientes = modoConcorrencia == ModoConcorrencia.PESSIMISTA
+                ? clienteRepository.findByNumeroContaInParaAtualizacao(numerosConta)
+                : clienteRepository.findByNumeroContaIn(numerosConta);
+        return clientes.stream().collect(Collectors.toMap(Cliente::getNumeroConta, Function.identity()));
     }
 
     @Transactional
     public void atualizarSaldo(Cliente cliente) {
         clienteRepository.save(cliente);
+        clienteCache.atualizarAposCommit(cliente);
     }
 
-    private ClienteDTO mapToDTO(Cliente cliente) {
+    static ClienteDTO mapToDTO(Cliente cliente) {
         return ClienteDTO.builder()
                 .id(cliente.getId())
                 .nome(cliente.getNome())
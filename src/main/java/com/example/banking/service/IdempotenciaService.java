@@ -0,0 +1,177 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.exception.IdempotencyConflictException;
+import com.example.banking.exception.IdempotencyKeyMismatchException;
+import com.example.banking.model.Idempotencia;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.IdempotenciaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicação de transferências pelo cabeçalho {@code Idempotency-Key}.
+ * <p>
+ * Resultados concluídos ficam num cache limitado com expiração e na tabela {@code idempotencias};
+ * uma repetição é respondida pelo cache, ou por uma leitura da tabela, sem tocar nos clientes.
+ * A chave é reservada com um INSERT antes da transferência: se o processo cair entre a
+ * transferência e a gravação do resultado, a chave continua reservada e as repetições recebem
+ * conflito em vez de debitar de novo. Repetições concorrentes na mesma instância aguardam a
+ * primeira em vez de disputar a reserva no banco.
+ * <p>
+ * Na engine {@code memoria} a transferência só ganha id quando o gravador assíncrono a grava, e é
+ * ele que registra o id na chave. Até lá o resultado não entra no cache e as repetições o leem
+ * da tabela; as que chegam antes da gravação saem, como a primeira resposta, sem id.
+ */
+@Slf4j
+@Service
+public class IdempotenciaService {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+    public static final String MENSAGEM_CHAVE_INVALIDA = "Chave de idempotência inválida: informe até 255 caracteres";
+    public static final String MENSAGEM_EM_ANDAMENTO = "Transferência com esta chave de idempotência ainda em processamento";
+    public static final String MENSAGEM_CHAVE_REUTILIZADA = "Chave de idempotência já utilizada em outra transferência";
+
+    @Autowired
+    private IdempotenciaRepository idempotenciaRepository;
+
+    private final Cache<String, Idempotencia> concluidas;
+    private final ConcurrentHashMap<String, CompletableFuture<Idempotencia>> emAndamento = new ConcurrentHashMap<>();
+    private final Duration ttl;
+
+    public IdempotenciaService(@Value("${banking.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                               @Value("${banking.idempotencia.ttl:24h}") Duration ttl) {
+        this.concluidas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .build();
+        this.ttl = ttl;
+    }
+
+    public Transferencia executar(String chave, TransferenciaDTO transferenciaDTO, Supplier<Transferencia> transferir) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException(MENSAGEM_CHAVE_INVALIDA);
+        }
+        // Sem contas a reserva violaria as colunas obrigatórias; a resposta é a mesma de sem chave.
+        if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+            return RegrasTransferencia.transferenciaInvalida(transferenciaDTO);
+        }
+        var registro = concluidas.getIfPresent(chave);
+        if (registro == null) {
+            registro = aguardarOuProcessar(chave, transferenciaDTO, transferir);
+        }
+        return resultado(registro, transferenciaDTO);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotencia.intervalo-limpeza:PT10M}")
+    public void removerExpiradas() {
+        var removidas = idempotenciaRepository.removerCriadasAntesDe(LocalDateTime.now().minus(ttl));
+        if (removidas > 0) {
+            log.debug("{} chaves de idempotência expiradas removidas", removidas);
+        }
+    }
+
+    private Idempotencia aguardarOuProcessar(String chave, TransferenciaDTO transferenciaDTO, Supplier<Transferencia> transferir) {
+        var processamento = new CompletableFuture<Idempotencia>();
+        var existente = emAndamento.putIfAbsent(chave, processamento);
+        if (existente != null) {
+            try {
+                return existente.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException causa ? causa : e;
+            }
+        }
+        try {
+            var registro = processar(chave, transferenciaDTO, transferir);
+            if (registro.isConcluida() && registro.getTransferenciaId() != null) {
+                concluidas.put(chave, registro);
+            }
+            processamento.complete(registro);
+            return registro;
+        } catch (RuntimeException e) {
+            processamento.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, processamento);
+        }
+    }
+
+    private Idempotencia processar(String chave, TransferenciaDTO transferenciaDTO, Supplier<Transferencia> transferir) {
+        var gravado = idempotenciaRepository.findById(chave).orElse(null);
+        if (gravado != null && !expirado(gravado)) {
+            return gravado;
+        }
+        if (gravado != null) {
+            idempotenciaRepository.delete(gravado);
+        }
+
+        var reserva = Idempotencia.builder()
+                .chave(chave)
+                .contaOrigem(transferenciaDTO.getContaOrigem())
+                .contaDestino(transferenciaDTO.getContaDestino())
+                .valor(transferenciaDTO.getValor())
+                .criadaEm(LocalDateTime.now())
+                .build();
+        try {
+            idempotenciaRepository.saveAndFlush(reserva);
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância reservou a chave primeiro.
+            return idempotenciaRepository.findById(chave).orElseThrow(() -> e);
+        }
+
+        Transferencia transferencia;
+        try {
+            transferencia = transferir.get();
+        } catch (RuntimeException e) {
+            idempotenciaRepository.deleteById(chave);
+            throw e;
+        }
+        idempotenciaRepository.concluir(chave, transferencia.getId(), transferencia.getDataTransferencia(),
+                transferencia.getSucesso(), transferencia.getMensagem());
+        reserva.setConcluida(true);
+        reserva.setTransferenciaId(transferencia.getId());
+        reserva.setDataTransferencia(transferencia.getDataTransferencia());
+        reserva.setSucesso(transferencia.getSucesso());
+        reserva.setMensagem(transferencia.getMensagem());
+        return reserva;
+    }
+
+    private boolean expirado(Idempotencia registro) {
+        return registro.getCriadaEm().isBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private static Transferencia resultado(Idempotencia registro, TransferenciaDTO transferenciaDTO) {
+        if (!Objects.equals(registro.getContaOrigem(), transferenciaDTO.getContaOrigem())
+                || !Objects.equals(registro.getContaDestino(), transferenciaDTO.getContaDestino())
+                || registro.getValor() != transferenciaDTO.getValor()) {
+            throw new IdempotencyKeyMismatchException(MENSAGEM_CHAVE_REUTILIZADA);
+        }
+        if (!registro.isConcluida()) {
+            throw new IdempotencyConflictException(MENSAGEM_EM_ANDAMENTO);
+        }
+        return Transferencia.builder()
+                .id(registro.getTransferenciaId())
+                .contaOrigem(registro.getContaOrigem())
+                .contaDestino(registro.getContaDestino())
+                .valor(registro.getValor())
+                .dataTransferencia(registro.getDataTransferencia())
+                .sucesso(registro.getSucesso())
+                .mensagem(registro.getMensagem())
+                .build();
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.ClienteDTO;
+import com.example.banking.dto.ResultadoImportacaoDTO;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.utils.Centavos;
+import com.example.banking.utils.Csv;
+import com.example.banking.utils.FiltroBloom;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Importação de clientes a partir de um corpo CSV ou NDJSON lido linha a linha.
+ * <p>
+ * Antes de ler o corpo, os números de conta já cadastrados são carregados num
+ * {@link FiltroBloom} de tamanho fixo; só as contas que o filtro aponta como possivelmente
+ * existentes são conferidas no banco. As linhas válidas são inseridas em batch JDBC, uma
+ * transação por lote. A memória usada não depende do tamanho do arquivo: o filtro, um lote e
+ * no máximo {@code banking.importacao.erros-maximo} erros detalhados.
+ */
+@Slf4j
+@Service
+public class ImportacaoClientesService {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static final String MENSAGEM_CONTA_DUPLICADA = "Número da conta já cadastrado";
+    public static final String MENSAGEM_NOME_OBRIGATORIO = "Nome obrigatório";
+    public static final String MENSAGEM_CONTA_OBRIGATORIA = "Número da conta obrigatório";
+    public static final String MENSAGEM_SALDO_NEGATIVO = "Saldo não pode ser negativo";
+
+    private static final String INSERIR = "insert into clientes (id, nome, numero_conta, saldo, versao) values (?, ?, ?, ?, 0)";
+
+    public enum Formato {CSV, NDJSON}
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${banking.importacao.tamanho-lote:1000}")
+    private int tamanhoLote = 1000;
+    @Value("${banking.importacao.filtro.capacidade:10000000}")
+    private long capacidadeFiltro = 10_000_000L;
+    @Value("${banking.importacao.filtro.taxa-falsos-positivos:0.01}")
+    private double taxaFalsosPositivos = 0.01;
+    @Value("${banking.importacao.erros-maximo:1000}")
+    private int errosMaximo = 1000;
+
+    private record Linha(long numero, ClienteDTO cliente) {
+    }
+
+    public ResultadoImportacaoDTO importar(InputStream corpo, Formato formato) throws IOException {
+        var importacao = new Importacao(carregarContasExistentes());
+        var reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        List<String> colunas = null;
+        long numero = 0;
+        String texto;
+        while ((texto = reader.readLine()) != null) {
+            numero++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            if (formato == Formato.CSV && colunas == null) {
+                colunas = Csv.campos(texto.toLowerCase(Locale.ROOT));
+                continue;
+            }
+            importacao.resultado.setLinhas(importacao.resultado.getLinhas() + 1);
+            try {
+                var cliente = formato == Formato.CSV ? lerCsv(colunas, texto) : lerNdjson(texto);
+                importacao.adicionar(new Linha(numero, cliente));
+            } catch (IllegalArgumentException e) {
+                importacao.rejeitar(numero, null, e.getMessage());
+            }
+        }
+        importacao.gravar();
+        log.info("Importação de clientes: {} linhas, {} importadas, {} rejeitadas", importacao.resultado.getLinhas(),
+                importacao.resultado.getImportadas(), importacao.resultado.getRejeitadas());
+        return importacao.resultado;
+    }
+
+    private FiltroBloom carregarContasExistentes() {
+        var filtro = new FiltroBloom(capacidadeFiltro, taxaFalsosPositivos);
+        var leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        leitura.executeWithoutResult(status -> {
+            try (var contas = clienteRepository.streamNumerosConta()) {
+                contas.forEach(filtro::adicionar);
+            }
+        });
+        return filtro;
+    }
+
+    private static ClienteDTO lerCsv(List<String> colunas, String texto) {
+        var campos = Csv.campos(texto);
+        var cliente = new ClienteDTO();
+        for (int i = 0; i < Math.min(colunas.size(), campos.size()); i++) {
+            var valor = campos.get(i);
+            switch (colunas.get(i)) {
+                case "nome" -> cliente.setNome(valor);
+                case "numeroconta", "numero_conta" -> cliente.setNumeroConta(valor);
+                case "saldo" -> cliente.setSaldo(valor.isEmpty() ? 0 : saldo(valor));
+                default -> {
+                }
+            }
+        }
+        return cliente;
+    }
+
+    private static long saldo(String reais) {
+        try {
+            return Centavos.deReais(new BigDecimal(reais));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Saldo inválido: " + reais);
+        }
+    }
+
+    private ClienteDTO lerNdjson(String texto) {
+        try {
+            return objectMapper.readValue(texto, ClienteDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String validar(ClienteDTO cliente) {
+        if (cliente.getNome() == null || cliente.getNome().isBlank()) {
+            return MENSAGEM_NOME_OBRIGATORIO;
+        }
+        if (cliente.getNumeroConta() == null || cliente.getNumeroConta().isBlank()) {
+            return MENSAGEM_CONTA_OBRIGATORIA;
+        }
+        if (cliente.getSaldo() < 0) {
+            return MENSAGEM_SALDO_NEGATIVO;
+        }
+        return null;
+    }
+
+    private static void preencher(PreparedStatement comando, ClienteDTO cliente) throws SQLException {
+        comando.setString(1, UUID.randomUUID().toString());
+        comando.setString(2, cliente.getNome());
+        comando.setString(3, cliente.getNumeroConta());
+        comando.setLong(4, cliente.getSaldo());
+    }
+
+    /** Estado de uma importação: o filtro de contas, o lote pendente e o resultado parcial. */
+    private class Importacao {
+        final FiltroBloom contas;
+        final List<Linha> lote = new ArrayList<>(tamanhoLote);
+        final HashSet<String> contasDoLote = new HashSet<>();
+        final ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Importacao(FiltroBloom contas) {
+            this.contas = contas;
+        }
+
+        void adicionar(Linha linha) {
+            var cliente = linha.cliente();
+            var erro = validar(cliente);
+            if (erro == null && duplicada(cliente.getNumeroConta())) {
+                erro = MENSAGEM_CONTA_DUPLICADA;
+            }
+            if (erro != null) {
+                rejeitar(linha.numero(), cliente.getNumeroConta(), erro);
+                return;
+            }
+            contas.adicionar(cliente.getNumeroConta());
+            contasDoLote.add(cliente.getNumeroConta());
+            lote.add(linha);
+            if (lote.size() == tamanhoLote) {
+                gravar();
+            }
+        }
+
+        /** Só vai ao banco quando o filtro não descarta a conta e ela não está no lote pendente. */
+        boolean duplicada(String numeroConta) {
+            if (!contas.talvezContenha(numeroConta)) {
+                return false;
+            }
+            return contasDoLote.contains(numeroConta) || clienteRepository.existsByNumeroConta(numeroConta);
+        }
+
+        void gravar() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            var transacao = new TransactionTemplate(transactionManager);
+            try {
+                transacao.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERIR, lote, lote.size(),
+                        (comando, linha) -> preencher(comando, linha.cliente())));
+                resultado.setImportadas(resultado.getImportadas() + lote.size());
+            } catch (DataIntegrityViolationException e) {
+                // Uma conta cadastrada por outra requisição depois da carga do filtro derruba o
+                // batch inteiro; refaz o lote linha a linha para apontar qual foi.
+                for (var linha : lote) {
+                    try {
+                        transacao.executeWithoutResult(status -> jdbcTemplate.update(INSERIR,
+                                comando -> preencher(comando, linha.cliente())));
+                        resultado.setImportadas(resultado.getImportadas() + 1);
+                    } catch (DataIntegrityViolationException duplicada) {
+                        rejeitar(linha.numero(), linha.cliente().getNumeroConta(), MENSAGEM_CONTA_DUPLICADA);
+                    }
+                }
+            }
+            lote.clear();
+            contasDoLote.clear();
+        }
+
+        void rejeitar(long numero, String numeroConta, String mensagem) {
+            resultado.setRejeitadas(resultado.getRejeitadas() + 1);
+            if (resultado.getErros().size() < errosMaximo) {
+                resultado.getErros().add(new ResultadoImportacaoDTO.Erro(numero, numeroConta, mensagem));
+            }
+        }
+    }
+}
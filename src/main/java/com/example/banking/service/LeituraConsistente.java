@@ -0,0 +1,81 @@
+package com.example.banking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas quando as transações somente-leitura vão para a réplica
+ * ({@code banking.replica.habilitado}). Uma conta escrita há menos de
+ * {@code banking.replica.janela-consistencia} é lida do primário; a janela deve cobrir o atraso
+ * de replicação.
+ */
+@Component
+public class LeituraConsistente {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private final boolean habilitado;
+    private final Cache<String, Boolean> escritasRecentes;
+
+    public LeituraConsistente(@Value("${banking.replica.habilitado:false}") boolean habilitado,
+                              @Value("${banking.replica.janela-consistencia:5s}") Duration janela,
+                              @Value("${banking.replica.contas-maximo:100000}") long contasMaximo) {
+        this.habilitado = habilitado;
+        this.escritasRecentes = Caffeine.newBuilder()
+                .maximumSize(contasMaximo)
+                .expireAfterWrite(janela)
+                .build();
+    }
+
+    /** Marca as contas no commit da transação corrente; sem transação, na hora. */
+    public void registrarEscrita(String... contas) {
+        if (!habilitado) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    marcar(contas);
+                }
+            });
+        } else {
+            marcar(contas);
+        }
+    }
+
+    /**
+     * Chamado no início de uma transação somente-leitura sobre a conta, antes da primeira
+     * consulta: se a conta foi escrita há pouco, a transação usa o primário.
+     */
+    public void lerConta(String numeroConta) {
+        if (!habilitado || escritasRecentes.getIfPresent(numeroConta) == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PRIMARIO.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARIO.remove();
+            }
+        });
+    }
+
+    /** Consultado pelo roteamento do DataSource ao abrir a conexão da transação. */
+    public static boolean primarioExigido() {
+        return PRIMARIO.get() != null;
+    }
+
+    private void marcar(String... contas) {
+        for (var conta : contas) {
+            escritasRecentes.put(conta, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Transferencia;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Listener JPA de {@link Transferencia} que marca as duas contas em {@link LeituraConsistente},
+ * em todas as engines. Injeção preguiçosa pelo mesmo motivo de {@link ResumoDiarioListener}.
+ */
+public class LeituraConsistenteListener {
+
+    @Lazy
+    @Autowired
+    private LeituraConsistente leituraConsistente;
+
+    @PrePersist
+    public void registrar(Transferencia transferencia) {
+        leituraConsistente.registrarEscrita(transferencia.getContaOrigem(), transferencia.getContaDestino());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Valor enviado por conta na janela deslizante de {@code banking.limite-diario.janela}.
+ * <p>
+ * Cada conta tem um anel de baldes com os totais por fatia de tempo; a consulta e a reserva
+ * somam um número fixo de baldes, sem ir ao banco. A categoria da conta é lida uma vez, na
+ * primeira transferência. Na subida, os baldes são reconstruídos com as transferências
+ * concluídas dentro da janela. Dentro de uma transação, a reserva é desfeita no rollback.
+ * Fora dela, quem reservou devolve a {@link Reserva} com {@link #liberar}.
+ */
+@Slf4j
+@Component
+public class LimiteDiario {
+
+    @Autowired
+    private LimiteDiarioProperties propriedades;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<String, Janela> janelas = new ConcurrentHashMap<>();
+    private Clock relogio = Clock.systemDefaultZone();
+    private long duracaoBalde;
+
+    /** Valor reservado e o balde em que entrou; a devolução sai do mesmo balde. */
+    public record Reserva(String numeroConta, long valor, long balde) {
+    }
+
+    /** Totais enviados por balde; {@code indices[i]} é o índice absoluto do balde guardado na posição i. */
+    private static final class Janela {
+        final long limite;
+        final long[] indices;
+        final long[] valores;
+
+        Janela(long limite, int baldes) {
+            this.limite = limite;
+            this.indices = new long[baldes];
+            this.valores = new long[baldes];
+        }
+
+        synchronized boolean reservar(long valor, long balde) {
+            if (limite > 0 && total(balde) + valor > limite) {
+                return false;
+            }
+            somar(valor, balde);
+            return true;
+        }
+
+        synchronized void somar(long valor, long balde) {
+            var posicao = (int) (balde % indices.length);
+            if (indices[posicao] != balde) {
+                indices[posicao] = balde;
+                valores[posicao] = 0;
+            }
+            valores[posicao] += valor;
+        }
+
+        /** Desconta do balde de origem; se ele já saiu da janela, não há o que devolver. */
+        synchronized void descontar(long valor, long balde) {
+            var posicao = (int) (balde % indices.length);
+            if (indices[posicao] == balde) {
+                valores[posicao] = Math.max(0, valores[posicao] - valor);
+            }
+        }
+
+        synchronized long total(long balde) {
+            long total = 0;
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] > balde - indices.length && indices[i] <= balde) {
+                    total += valores[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    @PostConstruct
+    public void reconstruir() {
+        janelas.clear();
+        duracaoBalde = Math.max(1, propriedades.getJanela().toMillis() / propriedades.getBaldes());
+        var desde = LocalDateTime.now(relogio).minus(propriedades.getJanela());
+        var leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        leitura.executeWithoutResult(status -> {
+            try (var enviadas = transferenciaRepository.streamConcluidasDesde(desde)) {
+                enviadas.forEach(transferencia -> janela(transferencia.getContaOrigem())
+                        .somar(transferencia.getValor(), balde(epochMillis(transferencia.getDataTransferencia()))));
+            }
+        });
+        log.info("Limites diários reconstruídos para {} contas", janelas.size());
+    }
+
+    /**
+     * Soma {@code valor} ao total enviado pela conta na janela, ou lança
+     * {@link IllegalArgumentException} se o limite da categoria for ultrapassado.
+     */
+    public Reserva reservar(String numeroConta, long valor) {
+        var janela = janela(numeroConta);
+        var reserva = new Reserva(numeroConta, valor, balde(relogio.millis()));
+        if (!janela.reservar(valor, reserva.balde())) {
+            throw new IllegalArgumentException(RegrasTransferencia.MENSAGEM_LIMITE_DIARIO_EXCEDIDO);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        liberar(reserva);
+                    }
+                }
+            });
+        }
+        return reserva;
+    }
+
+    /** Devolve uma reserva de transferência que não chegou a ser gravada. */
+    public void liberar(Reserva reserva) {
+        janela(reserva.numeroConta()).descontar(reserva.valor(), reserva.balde());
+    }
+
+    public long enviadoNaJanela(String numeroConta) {
+        return janela(numeroConta).total(balde(relogio.millis()));
+    }
+
+    private Janela janela(String numeroConta) {
+        var janela = janelas.get(numeroConta);
+        if (janela != null) {
+            return janela;
+        }
+        var categoria = clienteRepository.findByNumeroConta(numeroConta).map(Cliente::getCategoria).orElse(null);
+        return janelas.computeIfAbsent(numeroConta,
+                conta -> new Janela(propriedades.limite(categoria), propriedades.getBaldes()));
+    }
+
+    private long balde(long epochMillis) {
+        return epochMillis / duracaoBalde;
+    }
+
+    private long epochMillis(LocalDateTime instante) {
+        return instante.atZone(relogio.getZone()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.banking.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limites de valor enviado por conta numa janela deslizante, por categoria de cliente.
+ * Valores em centavos; zero desativa o limite da categoria.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "banking.limite-diario")
+public class LimiteDiarioProperties {
+    private Duration janela = Duration.ofHours(24);
+    /** Subdivisões da janela; a janela avança de um balde por vez. */
+    private int baldes = 24;
+    /** Limite de clientes sem categoria ou com categoria não configurada. */
+    private long padrao = 5_000_000L;
+    private Map<String, Long> categorias = new HashMap<>();
+
+    public long limite(String categoria) {
+        return categoria == null ? padrao : categorias.getOrDefault(categoria.toLowerCase(), padrao);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Lancamento;
+import com.example.banking.model.SaldoSnapshot;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.LancamentoRepository;
+import com.example.banking.repository.SaldoSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saldos materializados a partir do livro razão ({@link Lancamento}). Na subida, carrega o
+ * último snapshot de cada conta e reaplica só os lançamentos posteriores a ele. A cada
+ * {@code intervaloSnapshot} lançamentos grava o saldo das contas alteradas desde o snapshot
+ * anterior, que também é copiado para {@code clientes.saldo}; listagens e exportações, que
+ * leem a tabela de clientes, ficam defasadas no máximo até o próximo snapshot.
+ * <p>
+ * {@link #publicar} e {@link #registrarSnapshot} só podem ser chamados pela thread gravadora do
+ * livro: como os lançamentos são gravados em ordem de identificador por ela, o snapshot marca um
+ * corte consistente.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.transferencia.engine", havingValue = "ledger")
+public class LivroRazao {
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+    @Autowired
+    private SaldoSnapshotRepository saldoSnapshotRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.ledger.intervalo-snapshot:10000}")
+    private int intervaloSnapshot = 10000;
+
+    private final ConcurrentHashMap<String, Long> saldos = new ConcurrentHashMap<>();
+    private final Set<String> alteradasDesdeSnapshot = new HashSet<>();
+    private long lancamentosDesdeSnapshot;
+    private long ultimoLancamento;
+
+    @PostConstruct
+    public void recuperar() {
+        saldos.clear();
+        alteradasDesdeSnapshot.clear();
+        lancamentosDesdeSnapshot = 0;
+        saldoSnapshotRepository.findAll().forEach(snapshot -> saldos.put(snapshot.getNumeroConta(), snapshot.getSaldo()));
+        var marca = saldoSnapshotRepository.buscarUltimoLancamento();
+        ultimoLancamento = marca;
+
+        var leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        leitura.executeWithoutResult(status -> {
+            try (var lancamentos = lancamentoRepository.buscarApos(marca)) {
+                lancamentos.forEach(lancamento -> {
+                    saldos.merge(lancamento.getNumeroConta(), lancamento.getValor(), Long::sum);
+                    alteradasDesdeSnapshot.add(lancamento.getNumeroConta());
+                    ultimoLancamento = lancamento.getId();
+                    lancamentosDesdeSnapshot++;
+                });
+            }
+        });
+        log.info("Livro razão recuperado: {} contas, {} lançamentos reaplicados após o lançamento {}",
+                saldos.size(), lancamentosDesdeSnapshot, marca);
+    }
+
+    /** Saldo materializado da conta, ou {@code null} se ela ainda não entrou no livro. */
+    public Long saldo(String numeroConta) {
+        return saldos.get(numeroConta);
+    }
+
+    /** Publica os saldos de um ciclo depois do commit dos seus lançamentos. */
+    public void publicar(Map<String, Long> alterados, List<Lancamento> lancamentos) {
+        saldos.putAll(alterados);
+        alteradasDesdeSnapshot.addAll(alterados.keySet());
+        for (var lancamento : lancamentos) {
+            ultimoLancamento = Math.max(ultimoLancamento, lancamento.getId());
+        }
+        lancamentosDesdeSnapshot += lancamentos.size();
+        if (lancamentosDesdeSnapshot >= intervaloSnapshot) {
+            registrarSnapshot();
+        }
+    }
+
+    public void registrarSnapshot() {
+        if (alteradasDesdeSnapshot.isEmpty()) {
+            return;
+        }
+        var agora = LocalDateTime.now();
+        var snapshots = alteradasDesdeSnapshot.stream()
+                .map(numeroConta -> SaldoSnapshot.builder()
+                        .numeroConta(numeroConta)
+                        .saldo(saldos.get(numeroConta))
+                        .ultimoLancamento(ultimoLancamento)
+                        .criadoEm(agora)
+                        .build())
+                .toList();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                saldoSnapshotRepository.saveAll(snapshots);
+                snapshots.forEach(snapshot -> clienteRepository.atualizarSaldo(snapshot.getNumeroConta(), snapshot.getSaldo()));
+            });
+        } catch (RuntimeException e) {
+            // Os lançamentos já estão gravados; o snapshot é refeito no próximo ciclo.
+            log.warn("Falha ao gravar snapshot de {} contas", snapshots.size(), e);
+            return;
+        }
+        snapshots.forEach(snapshot -> clienteCache.invalidar(snapshot.getNumeroConta()));
+        alteradasDesdeSnapshot.clear();
+        lancamentosDesdeSnapshot = 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.banking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a duração das transações físicas, do begin ao commit ou rollback, por desfecho e por
+ * transação só de leitura ou não. Os medidores são criados uma única vez, para que o fim de cada
+ * transação não consulte o registry. O Spring Boot registra este listener no gerenciador de
+ * transações.
+ */
+@Component
+public class MetricasTransacao implements TransactionExecutionListener {
+
+    public static final String TRANSACOES = "banking.transacoes";
+    public static final String TAG_DESFECHO = "desfecho";
+    public static final String TAG_SOMENTE_LEITURA = "somente_leitura";
+
+    private enum Desfecho {
+        COMMIT("commit"), FALHA_COMMIT("falha_commit"), ROLLBACK("rollback");
+
+        private final String tag;
+
+        Desfecho(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<TransactionExecution, Long> inicios = new ConcurrentHashMap<>();
+    private final Map<Desfecho, Timer> escrita = new EnumMap<>(Desfecho.class);
+    private final Map<Desfecho, Timer> leitura = new EnumMap<>(Desfecho.class);
+
+    @PostConstruct
+    public void iniciar() {
+        for (var desfecho : Desfecho.values()) {
+            escrita.put(desfecho, timer(desfecho, false));
+            leitura.put(desfecho, timer(desfecho, true));
+        }
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transacao, Throwable falha) {
+        if (falha == null && transacao.isNewTransaction()) {
+            inicios.put(transacao, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transacao, Throwable falha) {
+        registrar(transacao, falha == null ? Desfecho.COMMIT : Desfecho.FALHA_COMMIT);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transacao, Throwable falha) {
+        registrar(transacao, Desfecho.ROLLBACK);
+    }
+
+    private void registrar(TransactionExecution transacao, Desfecho desfecho) {
+        var inicio = inicios.remove(transacao);
+        if (inicio == null) {
+            return;
+        }
+        (transacao.isReadOnly() ? leitura : escrita).get(desfecho)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(Desfecho desfecho, boolean somenteLeitura) {
+        return Timer.builder(TRANSACOES)
+                .description("Duração das transações")
+                .tag(TAG_DESFECHO, desfecho.tag)
+                .tag(TAG_SOMENTE_LEITURA, String.valueOf(somenteLeitura))
+                .register(meterRegistry);
+    }
+}
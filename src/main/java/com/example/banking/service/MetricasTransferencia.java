@@ -0,0 +1,77 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Transferencia;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de transferências por resultado. Os medidores são criados uma única vez, para que
+ * o registro no caminho da transferência não consulte o registry.
+ */
+@Component
+public class MetricasTransferencia {
+
+    public static final String TRANSFERENCIAS = "banking.transferencias";
+    public static final String VALOR_TRANSFERIDO = "banking.transferencias.valor";
+    public static final String BLOCOS_LOTE = "banking.transferencias.lote.blocos";
+    public static final String ITENS_LOTE = "banking.transferencias.lote.itens";
+    public static final String TAG_RESULTADO = "resultado";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<ResultadoTransferencia, Timer> duracoes = new EnumMap<>(ResultadoTransferencia.class);
+    private final Map<ResultadoTransferencia, Counter> itensLote = new EnumMap<>(ResultadoTransferencia.class);
+    private DistributionSummary valorTransferido;
+    private Timer blocosLote;
+
+    @PostConstruct
+    public void iniciar() {
+        for (var resultado : ResultadoTransferencia.values()) {
+            duracoes.put(resultado, Timer.builder(TRANSFERENCIAS)
+                    .description("Duração de transferências individuais")
+                    .tag(TAG_RESULTADO, resultado.tag())
+                    .register(meterRegistry));
+            itensLote.put(resultado, Counter.builder(ITENS_LOTE)
+                    .description("Transferências processadas em lote")
+                    .tag(TAG_RESULTADO, resultado.tag())
+                    .register(meterRegistry));
+        }
+        valorTransferido = DistributionSummary.builder(VALOR_TRANSFERIDO)
+                .description("Valor das transferências concluídas")
+                .baseUnit("centavos")
+                .register(meterRegistry);
+        blocosLote = Timer.builder(BLOCOS_LOTE)
+                .description("Duração da gravação de cada bloco de um lote")
+                .register(meterRegistry);
+    }
+
+    public void registrar(Transferencia transferencia, long inicioNanos) {
+        var resultado = ResultadoTransferencia.de(transferencia);
+        duracoes.get(resultado).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+        if (resultado == ResultadoTransferencia.SUCESSO) {
+            valorTransferido.record(transferencia.getValor());
+        }
+    }
+
+    public void registrarBloco(List<Transferencia> bloco, long inicioNanos) {
+        blocosLote.record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+        for (var transferencia : bloco) {
+            var resultado = ResultadoTransferencia.de(transferencia);
+            itensLote.get(resultado).increment();
+            if (resultado == ResultadoTransferencia.SUCESSO) {
+                valorTransferido.record(transferencia.getValor());
+            }
+        }
+    }
+}
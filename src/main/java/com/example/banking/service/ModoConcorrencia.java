@@ -0,0 +1,12 @@
+package com.example.banking.service;
+
+public enum ModoConcorrencia {
+    /**
+     * Detecta conflitos pela coluna de versão de {@code Cliente}; a transação em conflito é repetida.
+     */
+    OTIMISTA,
+    /**
+     * Bloqueia as contas com {@code SELECT ... FOR UPDATE}, sempre na ordem do número da conta.
+     */
+    PESSIMISTA
+}
@@ -0,0 +1,50 @@
+package com.example.banking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Repete uma transação que falhou por conflito de concorrência (versão ou bloqueio),
+ * com backoff exponencial e jitter, até {@code banking.concorrencia.tentativas} vezes.
+ */
+@Slf4j
+@Component
+public class PoliticaRepeticao {
+
+    @Value("${banking.concorrencia.tentativas:5}")
+    private int tentativas = 5;
+    @Value("${banking.concorrencia.backoff-inicial-ms:2}")
+    private long backoffInicialMs = 2;
+    @Value("${banking.concorrencia.backoff-maximo-ms:100}")
+    private long backoffMaximoMs = 100;
+
+    public <T> T executar(Supplier<T> operacao, Supplier<T> aoEsgotarTentativas) {
+        var backoff = backoffInicialMs;
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return operacao.get();
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= tentativas) {
+                    log.warn("Operação abandonada após {} conflitos de concorrência", tentativa);
+                    return aoEsgotarTentativas.get();
+                }
+                aguardar(backoff);
+                backoff = Math.min(backoff * 2, backoffMaximoMs);
+            }
+        }
+    }
+
+    private static void aguardar(long backoffMs) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando nova tentativa", e);
+        }
+    }
+}
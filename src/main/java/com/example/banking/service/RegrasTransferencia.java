@@ -0,0 +1,60 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Transferencia;
+
+import java.time.LocalDateTime;
+
+public final class RegrasTransferencia {
+
+    /** Em centavos. */
+    public static final long LIMITE_TRANSFERENCIA = 1_000_000L;
+    public static final String MENSAGEM_LIMITE_EXCEDIDO = "Valor da transferência excede o limite de R$ 10.000,00";
+    public static final String MENSAGEM_LIMITE_DIARIO_EXCEDIDO = "Transferência excede o limite diário da conta";
+    public static final String MENSAGEM_TRANSFERENCIA_SUSPEITA = "Transferência recusada pela análise de risco";
+    public static final String MENSAGEM_SALDO_INSUFICIENTE = "Saldo insuficiente para a transferência";
+    public static final String MENSAGEM_SUCESSO = "Transferência realizada com sucesso";
+    public static final String MENSAGEM_TRANSFERENCIA_INVALIDA = "Transferência inválida: informe conta de origem, conta de destino e valor positivo";
+    public static final String MENSAGEM_CONTA_INEXISTENTE = "Cliente não encontrado para a conta: ";
+    public static final String MENSAGEM_CONFLITO_CONCORRENCIA = "Transferência não concluída por concorrência na conta, tente novamente";
+
+    private RegrasTransferencia() {
+    }
+
+    public static Transferencia novaTransferencia(TransferenciaDTO transferenciaDTO) {
+        return Transferencia.builder()
+                .contaOrigem(transferenciaDTO.getContaOrigem())
+                .contaDestino(transferenciaDTO.getContaDestino())
+                .valor(transferenciaDTO.getValor())
+                .dataTransferencia(LocalDateTime.now())
+                .sucesso(false)
+                .build();
+    }
+
+    /**
+     * Resultado de uma transferência sem contas ou sem valor positivo. Não pode ser gravado
+     * (colunas obrigatórias), mas é devolvido a quem pediu com a mensagem de transferência inválida.
+     */
+    public static Transferencia transferenciaInvalida(TransferenciaDTO transferenciaDTO) {
+        var transferencia = transferenciaDTO == null
+                ? Transferencia.builder().dataTransferencia(LocalDateTime.now()).sucesso(false).build()
+                : novaTransferencia(transferenciaDTO);
+        transferencia.setMensagem(MENSAGEM_TRANSFERENCIA_INVALIDA);
+        return transferencia;
+    }
+
+    public static boolean isTransferenciaInvalida(TransferenciaDTO transferenciaDTO) {
+        return transferenciaDTO == null
+                || transferenciaDTO.getContaOrigem() == null
+                || transferenciaDTO.getContaDestino() == null
+                || transferenciaDTO.getValor() <= 0;
+    }
+
+    public static boolean isSaldoInsuficiente(long saldo, TransferenciaDTO transferenciaDTO) {
+        return saldo < transferenciaDTO.getValor();
+    }
+
+    public static boolean isLimiteExcedido(TransferenciaDTO transferenciaDTO) {
+        return transferenciaDTO.getValor() > LIMITE_TRANSFERENCIA;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Transferencia;
+
+/**
+ * Desfecho de uma transferência, derivado da mensagem gravada, usado como tag nas métricas.
+ */
+public enum ResultadoTransferencia {
+    SUCESSO,
+    SALDO_INSUFICIENTE,
+    LIMITE_EXCEDIDO,
+    LIMITE_DIARIO_EXCEDIDO,
+    SUSPEITA,
+    CONTA_INEXISTENTE,
+    CONFLITO_CONCORRENCIA,
+    INVALIDA,
+    ERRO;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    public static ResultadoTransferencia de(Transferencia transferencia) {
+        if (Boolean.TRUE.equals(transferencia.getSucesso())) {
+            return SUCESSO;
+        }
+        var mensagem = transferencia.getMensagem();
+        if (mensagem == null) {
+            return ERRO;
+        }
+        return switch (mensagem) {
+            case RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE -> SALDO_INSUFICIENTE;
+            case RegrasTransferencia.MENSAGEM_LIMITE_EXCEDIDO -> LIMITE_EXCEDIDO;
+            case RegrasTransferencia.MENSAGEM_LIMITE_DIARIO_EXCEDIDO -> LIMITE_DIARIO_EXCEDIDO;
+            case RegrasTransferencia.MENSAGEM_TRANSFERENCIA_SUSPEITA -> SUSPEITA;
+            case RegrasTransferencia.MENSAGEM_CONFLITO_CONCORRENCIA -> CONFLITO_CONCORRENCIA;
+            case RegrasTransferencia.MENSAGEM_TRANSFERENCIA_INVALIDA -> INVALIDA;
+            default -> mensagem.startsWith(RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE) ? CONTA_INEXISTENTE : ERRO;
+        };
+    }
+}
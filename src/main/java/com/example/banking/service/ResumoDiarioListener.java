@@ -0,0 +1,23 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Transferencia;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Listener JPA de {@link Transferencia}. Usa {@code @PrePersist} porque, com ids por sequência,
+ * o INSERT só acontece no flush do commit, tarde demais para entrar na transação. O Hibernate o
+ * instancia ao montar a fábrica de sessões, antes dos repositórios; por isso a injeção preguiçosa.
+ */
+public class ResumoDiarioListener {
+
+    @Lazy
+    @Autowired
+    private ResumoDiarioService resumoDiarioService;
+
+    @PrePersist
+    public void registrar(Transferencia transferencia) {
+        resumoDiarioService.registrar(transferencia);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.ResumoContaDTO;
+import com.example.banking.model.ResumoDiario;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ResumoDiarioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumo diário por conta, mantido de forma incremental.
+ * <p>
+ * Cada transferência persistida (via {@link ResumoDiarioListener}) soma seu efeito num
+ * acumulador da transação, aplicado com um UPDATE por conta e dia antes do commit. Assim o
+ * resumo entra na mesma unidade de trabalho em todas as engines, e cada transação grava uma
+ * linha por conta e dia mesmo em lotes.
+ */
+@Slf4j
+@Service
+public class ResumoDiarioService {
+
+    private static final String INSERIR = "insert into resumos_diarios " +
+            "(numero_conta, dia, quantidade, total_debitado, total_creditado, falhas) values (?, ?, ?, ?, ?, ?)";
+    /** Transferências correntes e arquivadas. */
+    private static final String TODAS = "(select conta_origem, conta_destino, valor, data_transferencia, sucesso " +
+            "from transferencias union all select conta_origem, conta_destino, valor, data_transferencia, sucesso " +
+            "from transferencias_arquivo) todas";
+    private static final String PREENCHER = "insert into resumos_diarios " +
+            "(numero_conta, dia, quantidade, total_debitado, total_creditado, falhas) " +
+            "select conta, dia, sum(quantidade), sum(debitado), sum(creditado), sum(falhas) from (" +
+            "select conta_origem conta, cast(data_transferencia as date) dia, " +
+            "case when sucesso then 1 else 0 end quantidade, case when sucesso then valor else 0 end debitado, " +
+            "0 creditado, case when sucesso then 0 else 1 end falhas from " + TODAS + " " +
+            "union all " +
+            "select conta_destino, cast(data_transferencia as date), 1, 0, valor, 0 from " + TODAS + " where sucesso" +
+            ") movimentos group by conta, dia";
+
+    @Autowired
+    private ResumoDiarioRepository resumoDiarioRepository;
+    @Autowired
+    private DataSource dataSource;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banking.resumo.dias-maximo:366}")
+    private int diasMaximo = 366;
+
+    /** Na primeira subida com a tabela vazia, consolida o histórico já gravado. */
+    @PostConstruct
+    public void preencher() {
+        if (resumoDiarioRepository.count() == 0) {
+            var linhas = new JdbcTemplate(dataSource).update(PREENCHER);
+            if (linhas > 0) {
+                log.info("Resumos diários preenchidos a partir do histórico: {} linhas", linhas);
+            }
+        }
+    }
+
+    /** Chamado por {@link ResumoDiarioListener} a cada transferência persistida. */
+    public void registrar(Transferencia transferencia) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        var acumulador = (Acumulador) TransactionSynchronizationManager.getResource(this);
+        if (acumulador == null) {
+            acumulador = new Acumulador();
+            TransactionSynchronizationManager.bindResource(this, acumulador);
+            TransactionSynchronizationManager.registerSynchronization(acumulador);
+        }
+        acumulador.somar(transferencia);
+    }
+
+    @Transactional(readOnly = true)
+    public ResumoContaDTO buscarResumo(String numeroConta, LocalDate de, LocalDate ate) {
+        var fim = ate == null ? LocalDate.now() : ate;
+        var inicio = de == null ? fim.minusDays(30) : de;
+        if (inicio.isAfter(fim) || ChronoUnit.DAYS.between(inicio, fim) >= diasMaximo) {
+            throw new IllegalArgumentException("Período inválido: informe 'de' até 'ate' com no máximo " + diasMaximo + " dias");
+        }
+        var dias = resumoDiarioRepository.findByNumeroContaAndDiaBetweenOrderByDia(numeroConta, inicio, fim);
+        var resumo = ResumoContaDTO.builder().numeroConta(numeroConta).de(inicio).ate(fim).dias(dias);
+        return resumo
+                .quantidade(dias.stream().mapToLong(ResumoDiario::getQuantidade).sum())
+                .totalDebitado(dias.stream().mapToLong(ResumoDiario::getTotalDebitado).sum())
+                .totalCreditado(dias.stream().mapToLong(ResumoDiario::getTotalCreditado).sum())
+                .falhas(dias.stream().mapToLong(ResumoDiario::getFalhas).sum())
+                .build();
+    }
+
+    private void aplicar(ResumoDiario.Chave chave, long[] movimento) {
+        if (acumular(chave, movimento) > 0) {
+            return;
+        }
+        // Primeiro movimento da conta no dia: o INSERT roda num savepoint na conexão da
+        // transação; se outra transação criou a linha antes, volta ao savepoint e soma.
+        var conexao = DataSourceUtils.getConnection(dataSource);
+        try {
+            var savepoint = conexao.setSavepoint();
+            try (var insercao = conexao.prepareStatement(INSERIR)) {
+                insercao.setString(1, chave.getNumeroConta());
+                insercao.setObject(2, chave.getDia());
+                for (int i = 0; i < movimento.length; i++) {
+                    insercao.setLong(i + 3, movimento[i]);
+                }
+                insercao.executeUpdate();
+                conexao.releaseSavepoint(savepoint);
+                return;
+            } catch (SQLException e) {
+                if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                    throw e;
+                }
+                conexao.rollback(savepoint);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Falha ao gravar resumo diário de " + chave, e);
+        } finally {
+            DataSourceUtils.releaseConnection(conexao, dataSource);
+        }
+        acumular(chave, movimento);
+    }
+
+    private int acumular(ResumoDiario.Chave chave, long[] movimento) {
+        return resumoDiarioRepository.acumular(chave.getNumeroConta(), chave.getDia(),
+                movimento[0], movimento[1], movimento[2], movimento[3]);
+    }
+
+    /** Efeito acumulado das transferências de uma transação, ordenado para travar as linhas sempre na mesma ordem. */
+    private class Acumulador implements TransactionSynchronization {
+        private final Map<ResumoDiario.Chave, long[]> movimentos = new TreeMap<>();
+
+        void somar(Transferencia transferencia) {
+            var dia = transferencia.getDataTransferencia().toLocalDate();
+            var origem = movimento(transferencia.getContaOrigem(), dia);
+            if (Boolean.TRUE.equals(transferencia.getSucesso())) {
+                var destino = movimento(transferencia.getContaDestino(), dia);
+                origem[0]++;
+                origem[1] += transferencia.getValor();
+                destino[0]++;
+                destino[2] += transferencia.getValor();
+            } else {
+                origem[3]++;
+            }
+        }
+
+        private long[] movimento(String numeroConta, LocalDate dia) {
+            return movimentos.computeIfAbsent(new ResumoDiario.Chave(numeroConta, dia), chave -> new long[4]);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Grava antes os saldos: conflitos de versão falham já, e as linhas de resumo só
+            // são travadas por quem já detém as linhas das contas envolvidas.
+            try {
+                entityManager.flush();
+            } catch (RuntimeException e) {
+                var traduzida = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+                throw traduzida != null ? traduzida : e;
+            }
+            movimentos.forEach(ResumoDiarioService.this::aplicar);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ResumoDiarioService.this);
+        }
+    }
+}
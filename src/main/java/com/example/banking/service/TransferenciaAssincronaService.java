@@ -0,0 +1,134 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.SubmissaoTransferenciaDTO;
+import com.example.banking.dto.SubmissaoTransferenciaDTO.Status;
+import com.example.banking.exception.ResourceNotFoundException;
+import com.example.banking.exception.TooManyRequestsException;
+import com.example.banking.model.Transferencia;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Submissão de transferências para processamento fora da thread da requisição.
+ * <p>
+ * As transferências entram numa fila limitada atendida por um número fixo de threads; com a
+ * fila cheia a submissão é recusada na hora, em vez de acumular requisições sem limite. O
+ * status de cada submissão fica num cache com expiração, consultado por id.
+ */
+@Slf4j
+@Service
+public class TransferenciaAssincronaService {
+
+    public static final String FILA = "banking.transferencias.assincronas.fila";
+    public static final String MENSAGEM_FILA_CHEIA = "Fila de transferências assíncronas cheia, tente novamente";
+    public static final String MENSAGEM_NAO_ENCONTRADA = "Transferência assíncrona não encontrada: ";
+
+    private record Submissao(String id, CompletableFuture<Transferencia> resultado) {
+
+        SubmissaoTransferenciaDTO dto() {
+            var status = SubmissaoTransferenciaDTO.builder().id(id);
+            if (!resultado.isDone()) {
+                return status.status(Status.PENDENTE).build();
+            }
+            try {
+                return status.status(Status.CONCLUIDA).transferencia(resultado.join()).build();
+            } catch (CompletionException e) {
+                return status.status(Status.FALHA).mensagem(e.getCause().getMessage()).build();
+            }
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, Submissao> submissoes;
+    private final Duration esperaMaxima;
+
+    public TransferenciaAssincronaService(@Value("${banking.transferencia.assincrona.threads:16}") int threads,
+                                          @Value("${banking.transferencia.assincrona.capacidade-fila:10000}") int capacidadeFila,
+                                          @Value("${banking.transferencia.assincrona.ttl:PT1H}") Duration ttl,
+                                          @Value("${banking.transferencia.assincrona.espera-maxima:PT20S}") Duration esperaMaxima) {
+        var contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> new Thread(tarefa, "transferencia-assincrona-" + contador.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.submissoes = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        Gauge.builder(FILA, executor, e -> e.getQueue().size())
+                .description("Transferências assíncronas aguardando processamento")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} transferências assíncronas não processadas no encerramento", executor.shutdownNow().size());
+        }
+    }
+
+    public SubmissaoTransferenciaDTO submeter(Supplier<Transferencia> transferir) {
+        var submissao = new Submissao(UUID.randomUUID().toString(), new CompletableFuture<>());
+        submissoes.put(submissao.id(), submissao);
+        try {
+            executor.execute(() -> {
+                try {
+                    submissao.resultado().complete(transferir.get());
+                } catch (RuntimeException e) {
+                    log.warn("Falha na transferência assíncrona {}", submissao.id(), e);
+                    submissao.resultado().completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            submissoes.invalidate(submissao.id());
+            throw new TooManyRequestsException(MENSAGEM_FILA_CHEIA);
+        }
+        return submissao.dto();
+    }
+
+    /**
+     * Status da submissão; com {@code espera} positiva, aguarda a conclusão até esse limite
+     * (e até {@code espera-maxima}) antes de responder.
+     */
+    public CompletableFuture<SubmissaoTransferenciaDTO> buscar(String id, Duration espera) {
+        var submissao = submissoes.getIfPresent(id);
+        if (submissao == null) {
+            throw new ResourceNotFoundException(MENSAGEM_NAO_ENCONTRADA + id);
+        }
+        if (submissao.resultado().isDone() || espera.isNegative() || espera.isZero()) {
+            return CompletableFuture.completedFuture(submissao.dto());
+        }
+        var limite = espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera;
+        return submissao.resultado()
+                .handle((transferencia, erro) -> submissao)
+                .completeOnTimeout(submissao, limite.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(Submissao::dto);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.ResourceNotFoundException;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.antifraude.Antifraude;
+import com.example.banking.service.engine.JpaTransferenciaEngine;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Processa lotes de transferências em blocos. Cada bloco é validado e compensado por conta
+ * em memória e gravado em uma única transação: uma atualização por conta e inserções de
+ * {@link Transferencia} em batch JDBC. Os itens são avaliados pelo {@link Antifraude} como
+ * itens de um mesmo lote, em todos os blocos.
+ */
+@Service
+public class TransferenciaLoteService {
+
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private LimiteDiario limiteDiario;
+    @Autowired
+    private Antifraude antifraude;
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private PoliticaRepeticao politicaRepeticao;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MetricasTransferencia metricasTransferencia;
+
+    @Value("${banking.transferencia.lote.tamanho-bloco:1000}")
+    private int tamanhoBloco = 1000;
+
+    public List<Transferencia> realizarLote(List<TransferenciaDTO> transferencias) {
+        var resultados = new ArrayList<Transferencia>(transferencias.size());
+        realizarLote(transferencias.iterator(), resultados::addAll);
+        return resultados;
+    }
+
+    public void realizarLote(Iterator<TransferenciaDTO> transferencias, Consumer<List<Transferencia>> aoConcluirBloco) {
+        Antifraude.emLote(() -> {
+            var bloco = new ArrayList<TransferenciaDTO>(tamanhoBloco);
+            while (transferencias.hasNext()) {
+                bloco.add(transferencias.next());
+                if (bloco.size() == tamanhoBloco) {
+                    aoConcluirBloco.accept(processarBloco(bloco));
+                    bloco.clear();
+                }
+            }
+            if (!bloco.isEmpty()) {
+                aoConcluirBloco.accept(processarBloco(bloco));
+            }
+        });
+    }
+
+    private List<Transferencia> processarBloco(List<TransferenciaDTO> bloco) {
+        var inicio = System.nanoTime();
+        var resultados = executarBloco(bloco);
+        metricasTransferencia.registrarBloco(resultados, inicio);
+        return resultados;
+    }
+
+    private List<Transferencia> executarBloco(List<TransferenciaDTO> bloco) {
+        if (!(transferenciaEngine instanceof JpaTransferenciaEngine)) {
+            // Engines que mantêm saldos fora do banco precisam ver cada transferência.
+            return bloco.stream().map(this::realizarPelaEngine).toList();
+        }
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        return politicaRepeticao.executar(
+                () -> transactionTemplate.execute(status -> gravarBloco(bloco)),
+                () -> transactionTemplate.execute(status -> registrarConflito(bloco)));
+    }
+
+    private Transferencia realizarPelaEngine(TransferenciaDTO transferenciaDTO) {
+        if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+            return RegrasTransferencia.transferenciaInvalida(transferenciaDTO);
+        }
+        return transferenciaEngine.realizarTransferencia(transferenciaDTO);
+    }
+
+    private List<Transferencia> gravarBloco(List<TransferenciaDTO> bloco) {
+        var numerosConta = new HashSet<String>();
+        for (var transferenciaDTO : bloco) {
+            if (!RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+                numerosConta.add(transferenciaDTO.getContaOrigem());
+                numerosConta.add(transferenciaDTO.getContaDestino());
+            }
+        }
+        // Os saldos são compensados direto nas entidades gerenciadas; o dirty checking só
+        // emite UPDATE para as contas cujo saldo final mudou.
+        var clientes = clienteService.getClientesEntityByNumerosConta(numerosConta);
+
+        var resultados = new ArrayList<Transferencia>(bloco.size());
+        for (var transferenciaDTO : bloco) {
+            resultados.add(aplicar(transferenciaDTO, clientes));
+        }
+
+        clientes.values().forEach(clienteCache::atualizarAposCommit);
+        return gravar(resultados);
+    }
+
+    private Transferencia aplicar(TransferenciaDTO transferenciaDTO, Map<String, Cliente> clientes) {
+        if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+            return RegrasTransferencia.transferenciaInvalida(transferenciaDTO);
+        }
+        var transferencia = RegrasTransferencia.novaTransferencia(transferenciaDTO);
+        try {
+            if (RegrasTransferencia.isLimiteExcedido(transferenciaDTO)) {
+                throw new IllegalArgumentException(RegrasTransferencia.MENSAGEM_LIMITE_EXCEDIDO);
+            }
+            var origem = cliente(clientes, transferenciaDTO.getContaOrigem());
+            var destino = cliente(clientes, transferenciaDTO.getContaDestino());
+            if (RegrasTransferencia.isSaldoInsuficiente(origem.getSaldo(), transferenciaDTO)) {
+                throw new InsufficientFundsException(RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE);
+            }
+            var aceita = antifraude.avaliar(transferenciaDTO.getContaOrigem(), transferenciaDTO.getContaDestino(),
+                    transferenciaDTO.getValor());
+            limiteDiario.reservar(transferenciaDTO.getContaOrigem(), transferenciaDTO.getValor());
+
+            origem.setSaldo(origem.getSaldo() - transferenciaDTO.getValor());
+            destino.setSaldo(destino.getSaldo() + transferenciaDTO.getValor());
+
+            transferencia.setSucesso(true);
+            transferencia.setMensagem(RegrasTransferencia.MENSAGEM_SUCESSO);
+            antifraude.confirmar(aceita);
+        } catch (RuntimeException e) {
+            transferencia.setMensagem(e.getMessage());
+        }
+        return transferencia;
+    }
+
+    private static Cliente cliente(Map<String, Cliente> clientes, String numeroConta) {
+        var cliente = clientes.get(numeroConta);
+        if (cliente == null) {
+            throw new ResourceNotFoundException(RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + numeroConta);
+        }
+        return cliente;
+    }
+
+    private List<Transferencia> registrarConflito(List<TransferenciaDTO> bloco) {
+        var resultados = new ArrayList<Transferencia>(bloco.size());
+        for (var transferenciaDTO : bloco) {
+            if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+                resultados.add(RegrasTransferencia.transferenciaInvalida(transferenciaDTO));
+            } else {
+                var transferencia = RegrasTransferencia.novaTransferencia(transferenciaDTO);
+                transferencia.setMensagem(RegrasTransferencia.MENSAGEM_CONFLITO_CONCORRENCIA);
+                resultados.add(transferencia);
+            }
+        }
+        return gravar(resultados);
+    }
+
+    private List<Transferencia> gravar(List<Transferencia> resultados) {
+        transferenciaRepository.saveAll(resultados.stream()
+                .filter(transferencia -> transferencia.getContaOrigem() != null
+                        && transferencia.getContaDestino() != null)
+                .toList());
+        return resultados;
+    }
+}
@@ -1,59 +1,91 @@
 package com.example.banking.service;
 
+import com.example.banking.dto.Pagina;
 import com.example.banking.dto.TransferenciaDTO;
 import com.example.banking.exception.InsufficientFundsException;
 import com.example.banking.model.Cliente;
 import com.example.banking.model.Transferencia;
+import com.example.banking.repository.TransferenciaArquivadaRepository;
 import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.antifraude.Antifraude;
+import com.example.banking.utils.Cursores;
+import com.example.banking.utils.MescladorOrdenado;
+import com.example.banking.utils.Paginacao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TransferenciaService {
 
-    private static final Double LIMITE_TRANSFERENCIA = 10000.0;
+    private static final Comparator<Transferencia> ORDEM_HISTORICO = Comparator
+            .comparing(Transferencia::getDataTransferencia)
+            .thenComparing(Transferencia::getId)
+            .reversed();
+
     @Autowired
     private ClienteService clienteService;
     @Autowired
     private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private TransferenciaArquivadaRepository transferenciaArquivadaRepository;
+    @Autowired
+    private LimiteDiario limiteDiario;
+    @Autowired
+    private Antifraude antifraude;
+    @Autowired
+    private LeituraConsistente leituraConsistente;
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    private static Transferencia getTransferencia(TransferenciaDTO transferenciaDTO) {
-        return Transferencia.builder()
-                .contaOrigem(transferenciaDTO.getContaOrigem())
-                .contaDestino(transferenciaDTO.getContaDestino())
-                .valor(transferenciaDTO.getValor())
-                .dataTransferencia(LocalDateTime.now())
-                .sucesso(false)
-                .build();
-    }
-
-    private static boolean isVerificarSaldo(TransferenciaDTO transferenciaDTO, Cliente origem) {
-        return origem.getSaldo() < transferenciaDTO.getValor();
-    }
-
-    private static boolean isaVerificarLimiteTransferencia(TransferenciaDTO transferenciaDTO) {
-        return transferenciaDTO.getValor() > LIMITE_TRANSFERENCIA;
-    }
+    @Value("${banking.paginacao.limite-padrao:100}")
+    private int limitePadrao = 100;
+    @Value("${banking.paginacao.limite-maximo:1000}")
+    private int limiteMaximo = 1000;
 
     @Transactional
     public Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO) {
-        var transferencia = getTransferencia(transferenciaDTO);
+        if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+            return RegrasTransferencia.transferenciaInvalida(transferenciaDTO);
+        }
+        var transferencia = RegrasTransferencia.novaTransferencia(transferenciaDTO);
 
         try {
-            if (isaVerificarLimiteTransferencia(transferenciaDTO)) {
-                throw new IllegalArgumentException("Valor da transferência excede o limite de R$ 10.000,00");
+            if (RegrasTransferencia.isLimiteExcedido(transferenciaDTO)) {
+                throw new IllegalArgumentException(RegrasTransferencia.MENSAGEM_LIMITE_EXCEDIDO);
             }
 
-            var origem = clienteService.getClienteEntityByNumeroConta(transferenciaDTO.getContaOrigem());
-            var destino = clienteService.getClienteEntityByNumeroConta(transferenciaDTO.getContaDestino());
+            // As contas são sempre lidas na ordem do número da conta para que os bloqueios
+            // do modo pessimista sejam adquiridos na mesma sequência por todas as transações.
+            Cliente origem;
+            Cliente destino;
+            if (transferenciaDTO.getContaOrigem().compareTo(transferenciaDTO.getContaDestino()) <= 0) {
+                origem = clienteService.getClienteEntityByNumeroConta(transferenciaDTO.getContaOrigem());
+                destino = clienteService.getClienteEntityByNumeroConta(transferenciaDTO.getContaDestino());
+            } else {
+                destino = clienteService.getClienteEntityByNumeroConta(transferenciaDTO.getContaDestino());
+                origem = clienteService.getClienteEntityByNumeroConta(transferenciaDTO.getContaOrigem());
+            }
 
-            if (isVerificarSaldo(transferenciaDTO, origem)) {
-                throw new InsufficientFundsException("Saldo insuficiente para a transferência");
+            if (RegrasTransferencia.isSaldoInsuficiente(origem.getSaldo(), transferenciaDTO)) {
+                throw new InsufficientFundsException(RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE);
             }
+            var aceita = antifraude.avaliar(transferenciaDTO.getContaOrigem(), transferenciaDTO.getContaDestino(),
+                    transferenciaDTO.getValor());
+            limiteDiario.reservar(transferenciaDTO.getContaOrigem(), transferenciaDTO.getValor());
 
             origem.setSaldo(origem.getSaldo() - transferenciaDTO.getValor());
             destino.setSaldo(destino.getSaldo() + transferenciaDTO.getValor());
@@ -62,8 +94,11 @@ public class TransferenciaService {
             clienteService.atualizarSaldo(destino);
 
             transferencia.setSucesso(true);
-            transferencia.setMensagem("Transferência realizada com sucesso");
+            transferencia.setMensagem(RegrasTransferencia.MENSAGEM_SUCESSO);
+            antifraude.confirmar(aceita);
 
+        } catch (ConcurrencyFailureException e) {
+            throw e;
         } catch (Exception e) {
             transferencia.setMensagem(e.getMessage());
         } finally {
@@ -73,7 +108,113 @@ public class TransferenciaService {
         return transferencia;
     }
 
-    public List<Transferencia> buscarHistoricoTransferencias(String numeroConta) {
-        return transferenciaRepository.findByContaOrigemOrContaDestinoOrderByDataTransferenciaDesc(numeroConta, numeroConta);
+    @Transactional
+    public Transferencia registrarFalha(TransferenciaDTO transferenciaDTO, String mensagem) {
+        var transferencia = RegrasTransferencia.novaTransferencia(transferenciaDTO);
+        transferencia.setMensagem(mensagem);
+        return transferenciaRepository.save(transferencia);
+    }
+
+    @Transactional(readOnly = true)
+    public Pagina<Transferencia> buscarHistoricoTransferencias(String numeroConta, String cursor, Integer limite) {
+        leituraConsistente.lerConta(numeroConta);
+        var tamanho = Paginacao.tamanhoPagina(limite, limitePadrao, limiteMaximo);
+        // Cada lado da consulta usa seu próprio índice (conta, data, id); a mesclagem em memória
+        // fica limitada a tamanho + 1 linhas por lado.
+        var limiteConsulta = Limit.of(tamanho + 1);
+        LocalDateTime data = null;
+        Long id = null;
+        if (cursor != null) {
+            var chaves = Cursores.decodificar(cursor, 2);
+            data = lerData(chaves[0], cursor);
+            id = lerId(chaves[1], cursor);
+        }
+        var enviadas = cursor == null
+                ? transferenciaRepository.buscarPorContaOrigem(numeroConta, limiteConsulta)
+                : transferenciaRepository.buscarPorContaOrigemAntesDe(numeroConta, data, id, limiteConsulta);
+        var recebidas = cursor == null
+                ? transferenciaRepository.buscarPorContaDestino(numeroConta, limiteConsulta)
+                : transferenciaRepository.buscarPorContaDestinoAntesDe(numeroConta, data, id, limiteConsulta);
+        var lados = new ArrayList<>(List.of(enviadas.iterator(), recebidas.iterator()));
+        if (enviadas.size() + recebidas.size() <= tamanho || arquivoAlcancaPagina(numeroConta, enviadas, recebidas, tamanho)) {
+            lados.add((cursor == null
+                    ? transferenciaArquivadaRepository.buscarPorContaOrigem(numeroConta, limiteConsulta)
+                    : transferenciaArquivadaRepository.buscarPorContaOrigemAntesDe(numeroConta, data, id, limiteConsulta))
+                    .iterator());
+            lados.add((cursor == null
+                    ? transferenciaArquivadaRepository.buscarPorContaDestino(numeroConta, limiteConsulta)
+                    : transferenciaArquivadaRepository.buscarPorContaDestinoAntesDe(numeroConta, data, id, limiteConsulta))
+                    .iterator());
+        }
+
+        var historico = new MescladorOrdenado<>(lados, ORDEM_HISTORICO);
+        var itens = new ArrayList<Transferencia>(tamanho);
+        while (historico.hasNext() && itens.size() < tamanho) {
+            itens.add(historico.next());
+        }
+        String proximoCursor = null;
+        if (historico.hasNext()) {
+            var ultima = itens.get(itens.size() - 1);
+            proximoCursor = Cursores.codificar(ultima.getDataTransferencia().toString(), ultima.getId().toString());
+        }
+        return new Pagina<>(itens, proximoCursor);
+    }
+
+    /**
+     * Se o arquivo pode ter linhas desta página. Quase sempre as arquivadas são anteriores às
+     * correntes e a consulta ao arquivo é dispensada. Mas durante um arquivamento, ou com
+     * transferências gravadas com data retroativa, as duas tabelas se sobrepõem. Por isso o
+     * arquivo é consultado sempre que sua linha mais nova da conta não for posterior à mais antiga
+     * das linhas correntes que entrariam na página.
+     */
+    private boolean arquivoAlcancaPagina(String numeroConta, List<Transferencia> enviadas,
+                                         List<Transferencia> recebidas, int tamanho) {
+        var correntes = new MescladorOrdenado<>(List.of(enviadas.iterator(), recebidas.iterator()), ORDEM_HISTORICO);
+        var maisAntiga = correntes.next();
+        for (int i = 1; i < tamanho; i++) {
+            maisAntiga = correntes.next();
+        }
+        var limite = maisAntiga.getDataTransferencia();
+        var maisNova = Limit.of(1);
+        return Stream.concat(transferenciaArquivadaRepository.buscarPorContaOrigem(numeroConta, maisNova).stream(),
+                        transferenciaArquivadaRepository.buscarPorContaDestino(numeroConta, maisNova).stream())
+                .anyMatch(arquivada -> !arquivada.getDataTransferencia().isBefore(limite));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarHistoricoTransferencias(String numeroConta, Consumer<Transferencia> consumidor) {
+        leituraConsistente.lerConta(numeroConta);
+        // As quatro consultas são mescladas juntas: linhas arquivadas podem ser posteriores a
+        // correntes, como na paginação. As arquivadas já vêm fora do contexto de persistência.
+        try (var enviadas = transferenciaRepository.streamPorContaOrigem(numeroConta);
+             var recebidas = transferenciaRepository.streamPorContaDestino(numeroConta);
+             var enviadasArquivadas = transferenciaArquivadaRepository.streamPorContaOrigem(numeroConta);
+             var recebidasArquivadas = transferenciaArquivadaRepository.streamPorContaDestino(numeroConta)) {
+            var historico = new MescladorOrdenado<>(List.of(enviadas.iterator(), recebidas.iterator(),
+                    enviadasArquivadas.iterator(), recebidasArquivadas.iterator()), ORDEM_HISTORICO);
+            while (historico.hasNext()) {
+                var transferencia = historico.next();
+                consumidor.accept(transferencia);
+                if (entityManager.contains(transferencia)) {
+                    entityManager.detach(transferencia);
+                }
+            }
+        }
+    }
+
+    private static LocalDateTime lerData(String valor, String cursor) {
+        try {
+            return LocalDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static Long lerId(String valor, String cursor) {
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
     }
 }
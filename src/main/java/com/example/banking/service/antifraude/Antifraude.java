@@ -0,0 +1,194 @@
+package com.example.banking.service.antifraude;
+
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.RegrasTransferencia;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estágio de pontuação de risco executado antes do débito, em todas as engines. Soma os pontos
+ * das {@link RegraAntifraude regras} registradas e recusa a transferência a partir de
+ * {@code banking.antifraude.limiar}, com {@link IllegalArgumentException}, pelo mesmo caminho
+ * de {@code sucesso=false} e mensagem das demais recusas.
+ * <p>
+ * O estado das regras fica em memória e é reconstruído na subida a partir das transferências
+ * concluídas em {@code banking.antifraude.historico}. {@link #avaliar} só pontua: a transferência
+ * entra no estado quando a engine a {@link #confirmar confirma}, já com {@code sucesso=true},
+ * para que o estado siga o mesmo critério da reconstrução. Confirmada numa transação, entra no
+ * commit, para que novas tentativas não a contem duas vezes; sem transação, entra na hora. Até
+ * o commit, as confirmadas na transação ficam em {@link Pendentes}, que as regras também
+ * consultam.
+ * <p>
+ * Itens de lote são avaliados dentro de {@link #emLote}. Regras que contam o lote como uma só
+ * transferência por origem, como a de velocidade, só pontuam e registram o primeiro item de cada
+ * origem no lote. Um lote de um item conta como uma transferência avulsa, de modo que o endpoint
+ * de lote não contorna a velocidade. Na reconstrução, os itens de lote contam um a um, pois a
+ * tabela não guarda o lote de origem.
+ */
+@Slf4j
+@Component
+public class Antifraude {
+
+    @Autowired
+    private AntifraudeProperties propriedades;
+    @Autowired
+    private List<RegraAntifraude> regras;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Um lote submetido: as origens cujo primeiro item já entrou no estado das regras. */
+    public static final class Lote {
+        private final Set<String> origensRegistradas = ConcurrentHashMap.newKeySet();
+
+        boolean registrou(String contaOrigem) {
+            return origensRegistradas.contains(contaOrigem);
+        }
+
+        /** Marca a origem como registrada; false se já estava. */
+        boolean registrar(String contaOrigem) {
+            return origensRegistradas.add(contaOrigem);
+        }
+    }
+
+    private static final ThreadLocal<Lote> LOTE = new ThreadLocal<>();
+
+    private Clock relogio = Clock.systemDefaultZone();
+
+    /**
+     * Executa {@code itens} marcando as transferências avaliadas nesta thread como itens de um
+     * mesmo lote; chamadas aninhadas continuam no lote corrente.
+     */
+    public static void emLote(Runnable itens) {
+        if (LOTE.get() != null) {
+            itens.run();
+            return;
+        }
+        LOTE.set(new Lote());
+        try {
+            itens.run();
+        } finally {
+            LOTE.remove();
+        }
+    }
+
+    /** O lote da thread corrente, ou null fora de {@link #emLote}; engines que avaliam em outra thread o guardam no pedido. */
+    public static Lote loteCorrente() {
+        return LOTE.get();
+    }
+
+    @PostConstruct
+    public void reconstruir() {
+        regras.forEach(RegraAntifraude::limpar);
+        if (!propriedades.isHabilitado()) {
+            return;
+        }
+        var desde = LocalDateTime.now(relogio).minus(propriedades.getHistorico());
+        var leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        leitura.executeWithoutResult(status -> {
+            try (var concluidas = transferenciaRepository.streamConcluidasDesde(desde)) {
+                concluidas.forEach(transferencia -> registrar(new Pendentes.Aceita(transferencia.getContaOrigem(),
+                        transferencia.getContaDestino(), transferencia.getValor(),
+                        transferencia.getDataTransferencia().atZone(relogio.getZone()).toInstant().toEpochMilli(), null)));
+            }
+        });
+        log.info("Estado antifraude reconstruído desde {} com {} regras", desde, regras.size());
+    }
+
+    /**
+     * Pontua a transferência e lança {@link IllegalArgumentException} se ela for recusada. A
+     * aceita devolvida só entra no estado das regras por {@link #confirmar}, quando a
+     * transferência for concluída com sucesso.
+     */
+    public Pendentes.Aceita avaliar(String contaOrigem, String contaDestino, long valor) {
+        var pendentes = propriedades.isHabilitado() && TransactionSynchronizationManager.isSynchronizationActive()
+                ? pendentesDaTransacao() : Pendentes.NENHUMA;
+        return avaliar(contaOrigem, contaDestino, valor, loteCorrente(), pendentes);
+    }
+
+    /**
+     * Como {@link #avaliar(String, String, long)}, para engines que avaliam fora da thread do
+     * pedido e agrupam as transferências em ciclos próprios: {@code pendentes} são as já
+     * concluídas no ciclo, que a engine confirma depois de gravá-lo.
+     */
+    public Pendentes.Aceita avaliar(String contaOrigem, String contaDestino, long valor, Lote lote,
+                                    Pendentes pendentes) {
+        var instante = relogio.millis();
+        var aceita = new Pendentes.Aceita(contaOrigem, contaDestino, valor, instante, lote);
+        if (!propriedades.isHabilitado()) {
+            return aceita;
+        }
+        var repetidaNoLote = lote != null
+                && (lote.registrou(contaOrigem) || pendentes.contemLote(lote, contaOrigem));
+        var pontos = 0;
+        for (var regra : regras) {
+            if (!repetidaNoLote || !regra.umaVezPorLote()) {
+                pontos += regra.pontuar(contaOrigem, contaDestino, valor, instante, pendentes);
+            }
+        }
+        if (pontos >= propriedades.getLimiar()) {
+            log.info("Transferência de {} para {} recusada pela análise de risco com {} pontos", contaOrigem, contaDestino, pontos);
+            throw new IllegalArgumentException(RegrasTransferencia.MENSAGEM_TRANSFERENCIA_SUSPEITA);
+        }
+        return aceita;
+    }
+
+    /**
+     * Incorpora ao estado das regras uma transferência concluída com sucesso: no commit da
+     * transação corrente ou, sem transação, na hora.
+     */
+    public void confirmar(Pendentes.Aceita aceita) {
+        if (!propriedades.isHabilitado()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendentesDaTransacao().adicionar(aceita);
+        } else {
+            registrar(aceita);
+        }
+    }
+
+    private Pendentes pendentesDaTransacao() {
+        var pendentes = (Pendentes) TransactionSynchronizationManager.getResource(this);
+        if (pendentes != null) {
+            return pendentes;
+        }
+        var novas = new Pendentes();
+        TransactionSynchronizationManager.bindResource(this, novas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                novas.aceitas().forEach(Antifraude.this::registrar);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(Antifraude.this);
+            }
+        });
+        return novas;
+    }
+
+    private void registrar(Pendentes.Aceita aceita) {
+        var primeiraDoLote = aceita.lote() == null || aceita.lote().registrar(aceita.contaOrigem());
+        for (var regra : regras) {
+            if (primeiraDoLote || !regra.umaVezPorLote()) {
+                regra.registrar(aceita.contaOrigem(), aceita.contaDestino(), aceita.valor(), aceita.instante());
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.banking.service.antifraude;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros do estágio antifraude: limiar de recusa, histórico lido na subida e pontos e
+ * limites de cada regra.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "banking.antifraude")
+public class AntifraudeProperties {
+    private boolean habilitado = false;
+    /** Soma de pontos a partir da qual a transferência é recusada. */
+    private int limiar = 100;
+    /** Transferências concluídas neste período reconstroem o estado na subida. */
+    private Duration historico = Duration.ofDays(30);
+    private Velocidade velocidade = new Velocidade();
+    private NovoDestino novoDestino = new NovoDestino();
+    private ValorAtipico valorAtipico = new ValorAtipico();
+
+    @Data
+    public static class Velocidade {
+        private int maximoPorJanela = 20;
+        private Duration janela = Duration.ofMinutes(1);
+        private int pontos = 100;
+    }
+
+    @Data
+    public static class NovoDestino {
+        /** Destinos lembrados por conta; acima disso, destinos antigos podem voltar a ser novos. */
+        private int destinosPorConta = 256;
+        private int pontos = 40;
+    }
+
+    @Data
+    public static class ValorAtipico {
+        /** Desvios-padrão acima da média móvel da conta a partir dos quais o valor é atípico. */
+        private double desvios = 4;
+        /** Transferências da conta necessárias antes de a regra pontuar. */
+        private int amostrasMinimas = 10;
+        /** Peso de cada transferência nova na média e na variância móveis. */
+        private double peso = 0.1;
+        private int pontos = 60;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.banking.service.antifraude;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transferências concluídas numa transação, ou num ciclo de engine, que ainda não entraram no
+ * estado das regras, o que só acontece no commit. As regras as consultam ao pontuar, para que as
+ * transferências de um mesmo bloco não escapem umas das outras.
+ */
+public final class Pendentes {
+
+    static final Pendentes NENHUMA = new Pendentes();
+
+    /** @param lote o lote do item, ou null para transferência avulsa */
+    public record Aceita(String contaOrigem, String contaDestino, long valor, long instante, Antifraude.Lote lote) {
+    }
+
+    private final List<Aceita> aceitas = new ArrayList<>();
+    private final Map<String, Integer> porOrigem = new HashMap<>();
+    private final Map<String, Set<String>> destinos = new HashMap<>();
+    private final Set<Map.Entry<Antifraude.Lote, String>> origensDeLote = new HashSet<>();
+
+    /** Aceitas na transação com esta conta de origem; os itens de um lote contam uma vez. */
+    public int daOrigem(String contaOrigem) {
+        return porOrigem.getOrDefault(contaOrigem, 0);
+    }
+
+    public boolean contem(String contaOrigem, String contaDestino) {
+        var daConta = destinos.get(contaOrigem);
+        return daConta != null && daConta.contains(contaDestino);
+    }
+
+    /** Se um item de {@code lote} com esta conta de origem já está entre as aceitas. */
+    boolean contemLote(Antifraude.Lote lote, String contaOrigem) {
+        return origensDeLote.contains(Map.entry(lote, contaOrigem));
+    }
+
+    public void adicionar(Aceita aceita) {
+        aceitas.add(aceita);
+        var lote = aceita.lote();
+        if (lote == null || !lote.registrou(aceita.contaOrigem())
+                && origensDeLote.add(Map.entry(lote, aceita.contaOrigem()))) {
+            porOrigem.merge(aceita.contaOrigem(), 1, Integer::sum);
+        }
+        destinos.computeIfAbsent(aceita.contaOrigem(), conta -> new HashSet<>()).add(aceita.contaDestino());
+    }
+
+    public List<Aceita> aceitas() {
+        return aceitas;
+    }
+}
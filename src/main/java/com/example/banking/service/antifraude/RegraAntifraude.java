@@ -0,0 +1,31 @@
+package com.example.banking.service.antifraude;
+
+/**
+ * Regra do estágio antifraude. Cada regra mantém em memória o estado de que precisa, por conta
+ * de origem, e pontua a transferência sem consultar o banco; {@link Antifraude} soma os pontos
+ * de todas as regras registradas como beans e recusa a transferência a partir do limiar.
+ */
+public interface RegraAntifraude {
+
+    /**
+     * Pontos de risco da transferência; zero quando a regra não vê risco. {@code pendentes} são
+     * as transferências já aceitas na mesma transação, que ainda não passaram por
+     * {@link #registrar}.
+     */
+    int pontuar(String contaOrigem, String contaDestino, long valor, long instante, Pendentes pendentes);
+
+    /** Incorpora ao estado uma transferência aceita ou, na reconstrução, uma já concluída. */
+    void registrar(String contaOrigem, String contaDestino, long valor, long instante);
+
+    /** Descarta o estado antes da reconstrução. */
+    void limpar();
+
+    /**
+     * Se a regra conta um lote como uma só transferência por origem. Um lote, como uma folha de
+     * pagamento, sai de uma só origem em rajada; a regra só pontua e registra o primeiro item de
+     * cada origem no lote.
+     */
+    default boolean umaVezPorLote() {
+        return false;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.banking.service.antifraude;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pontua a transferência para um destino que a conta nunca usou. Os destinos conhecidos ficam
+ * numa tabela de hashes de 64 bits de endereçamento direto por conta: uma colisão substitui o
+ * destino mais antigo da posição, que pode voltar a contar como novo.
+ */
+@Component
+public class RegraNovoDestino implements RegraAntifraude {
+
+    @Autowired
+    private AntifraudeProperties propriedades;
+
+    private final ConcurrentHashMap<String, Destinos> contas = new ConcurrentHashMap<>();
+
+    private static final class Destinos {
+        final long[] hashes;
+
+        Destinos(int tamanho) {
+            hashes = new long[Integer.highestOneBit(Math.max(1, tamanho - 1)) << 1];
+        }
+
+        synchronized boolean contem(long hash) {
+            return hashes[posicao(hash)] == hash;
+        }
+
+        synchronized void adicionar(long hash) {
+            hashes[posicao(hash)] = hash;
+        }
+
+        private int posicao(long hash) {
+            return (int) (hash >>> 32) & (hashes.length - 1);
+        }
+    }
+
+    @Override
+    public int pontuar(String contaOrigem, String contaDestino, long valor, long instante, Pendentes pendentes) {
+        var destinos = contas.get(contaOrigem);
+        var conhecido = destinos != null && destinos.contem(hash(contaDestino)) || pendentes.contem(contaOrigem, contaDestino);
+        return conhecido ? 0 : propriedades.getNovoDestino().getPontos();
+    }
+
+    @Override
+    public void registrar(String contaOrigem, String contaDestino, long valor, long instante) {
+        contas.computeIfAbsent(contaOrigem, conta -> new Destinos(propriedades.getNovoDestino().getDestinosPorConta()))
+                .adicionar(hash(contaDestino));
+    }
+
+    @Override
+    public void limpar() {
+        contas.clear();
+    }
+
+    /** Nunca zero, que marca posição vazia. */
+    private static long hash(String conta) {
+        var hash = conta.hashCode() * 0x9E3779B97F4A7C15L ^ ((long) conta.length() << 32);
+        hash = (hash ^ (hash >>> 29)) * 0xBF58476D1CE4E5B9L;
+        return hash == 0 ? 1 : hash;
+    }
+}
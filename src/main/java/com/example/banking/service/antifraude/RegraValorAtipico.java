@@ -0,0 +1,59 @@
+package com.example.banking.service.antifraude;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pontua valores muito acima do habitual da conta: mais de {@code desvios} desvios-padrão
+ * acima da média. Média e variância são móveis e exponenciais, de modo que o estado por conta
+ * é de três números e acompanha mudanças de padrão.
+ */
+@Component
+public class RegraValorAtipico implements RegraAntifraude {
+
+    @Autowired
+    private AntifraudeProperties propriedades;
+
+    private final ConcurrentHashMap<String, Estatisticas> contas = new ConcurrentHashMap<>();
+
+    private static final class Estatisticas {
+        long amostras;
+        double media;
+        double variancia;
+
+        synchronized boolean atipico(long valor, int amostrasMinimas, double desvios) {
+            return amostras >= amostrasMinimas && valor > media + desvios * Math.sqrt(variancia);
+        }
+
+        synchronized void adicionar(long valor, double peso) {
+            if (amostras++ == 0) {
+                media = valor;
+                return;
+            }
+            var diferenca = valor - media;
+            media += peso * diferenca;
+            variancia = (1 - peso) * (variancia + peso * diferenca * diferenca);
+        }
+    }
+
+    @Override
+    public int pontuar(String contaOrigem, String contaDestino, long valor, long instante, Pendentes pendentes) {
+        var estatisticas = contas.get(contaOrigem);
+        var valorAtipico = propriedades.getValorAtipico();
+        return estatisticas != null && estatisticas.atipico(valor, valorAtipico.getAmostrasMinimas(), valorAtipico.getDesvios())
+                ? valorAtipico.getPontos() : 0;
+    }
+
+    @Override
+    public void registrar(String contaOrigem, String contaDestino, long valor, long instante) {
+        contas.computeIfAbsent(contaOrigem, conta -> new Estatisticas())
+                .adicionar(valor, propriedades.getValorAtipico().getPeso());
+    }
+
+    @Override
+    public void limpar() {
+        contas.clear();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.banking.service.antifraude;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pontua a conta que já fez {@code maximo-por-janela} transferências dentro da janela, contando
+ * as já aceitas na transação corrente. Guarda, por conta, só os instantes das últimas
+ * {@code maximo-por-janela} transferências num anel. Um lote conta como uma transferência por
+ * origem.
+ */
+@Component
+public class RegraVelocidade implements RegraAntifraude {
+
+    @Autowired
+    private AntifraudeProperties propriedades;
+
+    private final ConcurrentHashMap<String, Instantes> contas = new ConcurrentHashMap<>();
+
+    private static final class Instantes {
+        final long[] anel;
+        int proximo;
+        int quantidade;
+
+        Instantes(int tamanho) {
+            anel = new long[tamanho];
+        }
+
+        synchronized int contarDesde(long inicio) {
+            var total = 0;
+            for (int i = 0; i < quantidade; i++) {
+                if (anel[i] > inicio) {
+                    total++;
+                }
+            }
+            return total;
+        }
+
+        synchronized void adicionar(long instante) {
+            anel[proximo] = instante;
+            proximo = (proximo + 1) % anel.length;
+            quantidade = Math.min(quantidade + 1, anel.length);
+        }
+    }
+
+    @Override
+    public int pontuar(String contaOrigem, String contaDestino, long valor, long instante, Pendentes pendentes) {
+        var instantes = contas.get(contaOrigem);
+        var velocidade = propriedades.getVelocidade();
+        var naJanela = pendentes.daOrigem(contaOrigem)
+                + (instantes != null ? instantes.contarDesde(instante - velocidade.getJanela().toMillis()) : 0);
+        return naJanela >= velocidade.getMaximoPorJanela() ? velocidade.getPontos() : 0;
+    }
+
+    @Override
+    public void registrar(String contaOrigem, String contaDestino, long valor, long instante) {
+        contas.computeIfAbsent(contaOrigem, conta -> new Instantes(propriedades.getVelocidade().getMaximoPorJanela()))
+                .adicionar(instante);
+    }
+
+    @Override
+    public void limpar() {
+        contas.clear();
+    }
+
+    @Override
+    public boolean umaVezPorLote() {
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.banking.service.engine;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Saldos mantidos em memória, protegidos por locks listrados por número da conta.
+ * Operações envolvendo duas contas adquirem os locks sempre na ordem crescente do
+ * índice da listra, o que impede deadlock entre transferências cruzadas.
+ */
+public class ContasEmMemoria {
+
+    private final ConcurrentHashMap<String, Conta> contas = new ConcurrentHashMap<>();
+    private final ReentrantLock[] listras;
+    private final int mascara;
+
+    public ContasEmMemoria(int quantidadeListras) {
+        var tamanho = Integer.highestOneBit(Math.max(1, quantidadeListras - 1)) << 1;
+        this.listras = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            listras[i] = new ReentrantLock();
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    public Conta obter(String numeroConta, ToLongFunction<String> carregarSaldo) {
+        var conta = contas.get(numeroConta);
+        if (conta != null) {
+            return conta;
+        }
+        var carregada = new Conta(numeroConta, carregarSaldo.applyAsLong(numeroConta));
+        var existente = contas.putIfAbsent(numeroConta, carregada);
+        return existente != null ? existente : carregada;
+    }
+
+    public Conta buscar(String numeroConta) {
+        return contas.get(numeroConta);
+    }
+
+    public void executarComBloqueio(Conta primeira, Conta segunda, Runnable operacao) {
+        var a = listra(primeira.getNumeroConta());
+        var b = listra(segunda.getNumeroConta());
+        var menor = listras[Math.min(a, b)];
+        var maior = listras[Math.max(a, b)];
+        menor.lock();
+        try {
+            if (maior != menor) {
+                maior.lock();
+            }
+            try {
+                operacao.run();
+            } finally {
+                if (maior != menor) {
+                    maior.unlock();
+                }
+            }
+        } finally {
+            menor.unlock();
+        }
+    }
+
+    private int listra(String numeroConta) {
+        var h = numeroConta.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    public static class Conta {
+        private final String numeroConta;
+        private volatile long saldo;
+
+        Conta(String numeroConta, long saldo) {
+            this.numeroConta = numeroConta;
+            this.saldo = saldo;
+        }
+
+        public String getNumeroConta() {
+            return numeroConta;
+        }
+
+        public long getSaldo() {
+            return saldo;
+        }
+
+        void setSaldo(long saldo) {
+            this.saldo = saldo;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.CheckpointJournalRepository;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.IdempotenciaRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.ClienteCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persiste no banco, fora da thread da requisição, as transferências aplicadas em memória.
+ * Cada ciclo grava um lote de transferências e, por conta alterada, um único ajuste com a soma
+ * dos débitos e créditos do lote, em uma única transação. Após o commit as contas gravadas são
+ * removidas do cache de clientes, que pode ter carregado do banco um saldo anterior à gravação.
+ * Um lote que não grava é repetido, com espera crescente, até gravar: os saldos em memória já
+ * refletem o lote e o cliente já recebeu a resposta. Enquanto isso a fila enche e as novas
+ * transferências esperam por vaga.
+ * <p>
+ * A resposta da engine sai antes da gravação, sem id. A transferência feita com
+ * {@code Idempotency-Key} tem o id registrado na chave pela mesma transação que a grava, para que
+ * as repetições o devolvam.
+ * <p>
+ * Com o {@link JournalTransferencias}, as transferências chegam na ordem do journal e a mesma
+ * transação avança o {@link com.example.banking.model.CheckpointJournal}.
+ * A vaga na fila é reservada antes ({@link #reservarVaga}), fora do lock do journal: esperar
+ * por ela sob o lock travaria a gravadora, que precisa do mesmo lock em
+ * {@link JournalTransferencias#liberarAte}.
+ */
+@Slf4j
+public class GravadorAssincrono {
+
+    private static final int MAXIMO_TENTATIVAS = 3;
+    private static final long ESPERA_ENTRE_CICLOS_MS = 1000;
+    private static final long ESPERA_MAXIMA_MS = 30_000;
+
+    private record Pendente(Transferencia transferencia, long sequencia, String chaveIdempotencia) {
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransferenciaRepository transferenciaRepository;
+    private final ClienteRepository clienteRepository;
+    private final ClienteCache clienteCache;
+    private final CheckpointJournalRepository checkpointJournalRepository;
+    private final IdempotenciaRepository idempotenciaRepository;
+    private final JournalTransferencias journal;
+    private final BlockingQueue<Pendente> fila;
+    private final Semaphore vagas;
+    private final int tamanhoLote;
+    private final Thread thread;
+    private volatile boolean ativo = true;
+
+    public GravadorAssincrono(TransactionTemplate transactionTemplate,
+                              TransferenciaRepository transferenciaRepository,
+                              ClienteRepository clienteRepository,
+                              ClienteCache clienteCache,
+                              CheckpointJournalRepository checkpointJournalRepository,
+                              IdempotenciaRepository idempotenciaRepository,
+                              JournalTransferencias journal,
+                              int capacidadeFila,
+                              int tamanhoLote) {
+        this.transactionTemplate = transactionTemplate;
+        this.transferenciaRepository = transferenciaRepository;
+        this.clienteRepository = clienteRepository;
+        this.clienteCache = clienteCache;
+        this.checkpointJournalRepository = checkpointJournalRepository;
+        this.idempotenciaRepository = idempotenciaRepository;
+        this.journal = journal;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.vagas = new Semaphore(capacidadeFila);
+        this.tamanhoLote = tamanhoLote;
+        this.thread = new Thread(this::executar, "gravador-transferencias");
+        this.thread.setDaemon(true);
+    }
+
+    public void iniciar() {
+        thread.start();
+    }
+
+    /** Reserva uma vaga na fila para um {@link #registrar} seguinte, esperando se ela estiver cheia. */
+    public void reservarVaga() {
+        try {
+            vagas.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao registrar transferência para gravação", e);
+        }
+    }
+
+    /**
+     * Enfileira a transferência na vaga reservada antes; nunca bloqueia.
+     *
+     * @param sequencia posição no journal, ou 0 para transferências fora dele
+     * @param chaveIdempotencia chave em que registrar o id da transferência gravada, ou null
+     */
+    public void registrar(Transferencia transferencia, long sequencia, String chaveIdempotencia) {
+        fila.add(new Pendente(transferencia, sequencia, chaveIdempotencia));
+    }
+
+    public void encerrar() {
+        ativo = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void executar() {
+        var lote = new ArrayList<Pendente>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                var primeira = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+                fila.drainTo(lote, tamanhoLote - 1);
+                vagas.release(lote.size());
+                gravar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Pendente> lote) throws InterruptedException {
+        var ajustes = new HashMap<String, Long>();
+        var transferencias = new ArrayList<Transferencia>(lote.size());
+        var comChave = new ArrayList<Pendente>();
+        var ultimaSequencia = 0L;
+        for (var pendente : lote) {
+            var transferencia = pendente.transferencia();
+            if (Boolean.TRUE.equals(transferencia.getSucesso())) {
+                ajustes.merge(transferencia.getContaOrigem(), -transferencia.getValor(), Long::sum);
+                ajustes.merge(transferencia.getContaDestino(), transferencia.getValor(), Long::sum);
+            }
+            transferencias.add(transferencia);
+            if (pendente.chaveIdempotencia() != null) {
+                comChave.add(pendente);
+            }
+            ultimaSequencia = Math.max(ultimaSequencia, pendente.sequencia());
+        }
+        var checkpoint = ultimaSequencia;
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ajustes.forEach((numeroConta, ajuste) -> {
+                        if (ajuste != 0) {
+                            clienteRepository.ajustarSaldo(numeroConta, ajuste);
+                        }
+                    });
+                    transferenciaRepository.saveAll(transferencias);
+                    comChave.forEach(pendente -> idempotenciaRepository.registrarTransferencia(
+                            pendente.chaveIdempotencia(), pendente.transferencia().getId()));
+                    if (checkpoint > 0) {
+                        checkpointJournalRepository.avancar(checkpoint);
+                    }
+                });
+                ajustes.keySet().forEach(clienteCache::invalidar);
+                if (checkpoint > 0) {
+                    journal.liberarAte(checkpoint);
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar lote de {} transferências (tentativa {})", lote.size(), tentativa, e);
+            }
+            if (tentativa >= MAXIMO_TENTATIVAS) {
+                var espera = Math.min(ESPERA_MAXIMA_MS, ESPERA_ENTRE_CICLOS_MS << Math.min(tentativa - MAXIMO_TENTATIVAS, 5));
+                log.error("Lote de {} transferências não gravado após {} tentativas; nova tentativa em {} ms",
+                        lote.size(), tentativa, espera);
+                Thread.sleep(espera);
+            }
+        }
+    }
+}
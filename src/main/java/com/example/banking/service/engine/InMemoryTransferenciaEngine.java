@@ -0,0 +1,244 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.model.CheckpointJournal;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.CheckpointJournalRepository;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.IdempotenciaRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.ClienteCache;
+import com.example.banking.service.ClienteService;
+import com.example.banking.service.LimiteDiario;
+import com.example.banking.service.MetricasTransferencia;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.antifraude.Antifraude;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Aplica débito e crédito atomicamente sobre saldos em memória e delega a
+ * persistência ao {@link GravadorAssincrono}. O identificador da transferência
+ * só é atribuído quando o lote correspondente é gravado.
+ * <p>
+ * Com {@code banking.transferencia.memoria.journal.arquivo} definido, cada transferência aceita
+ * é anexada ao {@link JournalTransferencias} ainda sob o lock das contas e a resposta só sai
+ * depois do {@code force} do journal, sem esperar o banco. Na subida, os registros do journal
+ * posteriores ao checkpoint gravado no banco são reaplicados antes de aceitar transferências.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "banking.transferencia.engine", havingValue = "memoria")
+public class InMemoryTransferenciaEngine implements TransferenciaEngine {
+
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private LimiteDiario limiteDiario;
+    @Autowired
+    private Antifraude antifraude;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private CheckpointJournalRepository checkpointJournalRepository;
+    @Autowired
+    private IdempotenciaRepository idempotenciaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MetricasTransferencia metricasTransferencia;
+
+    @Value("${banking.transferencia.memoria.listras:1024}")
+    private int listras = 1024;
+    @Value("${banking.transferencia.memoria.capacidade-fila:100000}")
+    private int capacidadeFila = 100000;
+    @Value("${banking.transferencia.memoria.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+    @Value("${banking.transferencia.memoria.journal.arquivo:}")
+    private String arquivoJournal = "";
+    @Value("${banking.transferencia.memoria.journal.capacidade:131072}")
+    private int capacidadeJournal = 131072;
+
+    private ContasEmMemoria contas;
+    private JournalTransferencias journal;
+    private GravadorAssincrono gravador;
+
+    @PostConstruct
+    public void iniciar() {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        contas = new ContasEmMemoria(listras);
+        if (!arquivoJournal.isBlank()) {
+            try {
+                journal = new JournalTransferencias(Path.of(arquivoJournal), capacidadeJournal);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível abrir o journal de transferências " + arquivoJournal, e);
+            }
+            journal.iniciar(recuperarJournal(transactionTemplate));
+        }
+        gravador = new GravadorAssincrono(transactionTemplate, transferenciaRepository, clienteRepository,
+                clienteCache, checkpointJournalRepository, idempotenciaRepository, journal, capacidadeFila, tamanhoLote);
+        gravador.iniciar();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravador.encerrar();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Falha ao fechar o journal de transferências", e);
+            }
+        }
+    }
+
+    @Override
+    public Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO) {
+        return realizarTransferencia(transferenciaDTO, null);
+    }
+
+    @Override
+    public Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO, String chaveIdempotencia) {
+        if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+            return RegrasTransferencia.transferenciaInvalida(transferenciaDTO);
+        }
+        var inicio = System.nanoTime();
+        var transferencia = RegrasTransferencia.novaTransferencia(transferenciaDTO);
+        var sequencia = new long[1];
+        // Fora dos locks: com a fila cheia, espera aqui e não sob o lock do journal.
+        gravador.reservarVaga();
+
+        try {
+            if (RegrasTransferencia.isLimiteExcedido(transferenciaDTO)) {
+                throw new IllegalArgumentException(RegrasTransferencia.MENSAGEM_LIMITE_EXCEDIDO);
+            }
+            if (journal != null) {
+                JournalTransferencias.validar(transferenciaDTO, chaveIdempotencia);
+            }
+
+            var origem = contas.obter(transferenciaDTO.getContaOrigem(), this::carregarSaldo);
+            var destino = contas.obter(transferenciaDTO.getContaDestino(), this::carregarSaldo);
+            var valor = transferenciaDTO.getValor();
+
+            contas.executarComBloqueio(origem, destino, () -> {
+                if (RegrasTransferencia.isSaldoInsuficiente(origem.getSaldo(), transferenciaDTO)) {
+                    throw new InsufficientFundsException(RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE);
+                }
+                var aceita = antifraude.avaliar(origem.getNumeroConta(), destino.getNumeroConta(), valor);
+                var reserva = limiteDiario.reservar(origem.getNumeroConta(), valor);
+                transferencia.setSucesso(true);
+                transferencia.setMensagem(RegrasTransferencia.MENSAGEM_SUCESSO);
+                if (journal != null) {
+                    // Antes de alterar os saldos: se o journal recusar, nada foi aplicado.
+                    // O gravador recebe as transferências na ordem do journal.
+                    try {
+                        sequencia[0] = journal.anexar(transferencia, chaveIdempotencia,
+                                posicao -> gravador.registrar(transferencia, posicao, chaveIdempotencia));
+                    } catch (RuntimeException e) {
+                        transferencia.setSucesso(false);
+                        limiteDiario.liberar(reserva);
+                        throw e;
+                    }
+                }
+                origem.setSaldo(origem.getSaldo() - valor);
+                destino.setSaldo(destino.getSaldo() + valor);
+                clienteCache.atualizarSaldo(origem.getNumeroConta(), origem.getSaldo());
+                clienteCache.atualizarSaldo(destino.getNumeroConta(), destino.getSaldo());
+                antifraude.confirmar(aceita);
+            });
+
+        } catch (Exception e) {
+            transferencia.setMensagem(e.getMessage());
+        }
+
+        if (sequencia[0] > 0) {
+            journal.aguardar(sequencia[0]);
+        } else {
+            gravador.registrar(transferencia, 0, chaveIdempotencia);
+        }
+        metricasTransferencia.registrar(transferencia, inicio);
+        return transferencia;
+    }
+
+    Long consultarSaldo(String numeroConta) {
+        var conta = contas.buscar(numeroConta);
+        return conta != null ? conta.getSaldo() : null;
+    }
+
+    private long carregarSaldo(String numeroConta) {
+        return clienteService.getClienteEntityByNumeroConta(numeroConta).getSaldo();
+    }
+
+    /**
+     * Reaplica, numa transação, os registros do journal posteriores ao checkpoint, até a primeira
+     * lacuna: um registro depois de uma lacuna nunca foi confirmado, porque o {@code force} que o
+     * confirmaria também teria gravado os anteriores. O checkpoint avança até o maior registro do
+     * arquivo, para que registros descartados não sejam confundidos com novos.
+     *
+     * @return a última sequência usada
+     */
+    private long recuperarJournal(TransactionTemplate transactionTemplate) {
+        var checkpoint = checkpointJournalRepository.findById(CheckpointJournal.ID)
+                .orElseGet(() -> checkpointJournalRepository.save(new CheckpointJournal(CheckpointJournal.ID, 0)))
+                .getUltimaSequencia();
+        var registros = journal.ler();
+        var ultimaNoArquivo = registros.isEmpty() ? 0 : registros.get(registros.size() - 1).sequencia();
+        var pendentes = new ArrayList<JournalTransferencias.Registro>();
+        for (var registro : registros) {
+            if (registro.sequencia() <= checkpoint) {
+                continue;
+            }
+            if (registro.sequencia() != checkpoint + pendentes.size() + 1) {
+                break;
+            }
+            pendentes.add(registro);
+        }
+        var ultima = Math.max(checkpoint, ultimaNoArquivo);
+        if (ultima == checkpoint) {
+            return ultima;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (var registro : pendentes) {
+                var transferencia = transferenciaRepository.save(Transferencia.builder()
+                        .contaOrigem(registro.contaOrigem())
+                        .contaDestino(registro.contaDestino())
+                        .valor(registro.valor())
+                        .dataTransferencia(registro.instante())
+                        .sucesso(true)
+                        .mensagem(RegrasTransferencia.MENSAGEM_SUCESSO)
+                        .build());
+                clienteRepository.ajustarSaldo(registro.contaOrigem(), -registro.valor());
+                clienteRepository.ajustarSaldo(registro.contaDestino(), registro.valor());
+                if (registro.chave() != null) {
+                    idempotenciaRepository.concluir(registro.chave(), transferencia.getId(), transferencia.getDataTransferencia(),
+                            true, RegrasTransferencia.MENSAGEM_SUCESSO);
+                }
+            }
+            checkpointJournalRepository.avancar(ultima);
+        });
+        pendentes.forEach(registro -> {
+            clienteCache.invalidar(registro.contaOrigem());
+            clienteCache.invalidar(registro.contaDestino());
+        });
+        log.info("Journal de transferências: {} registros reaplicados após a sequência {}", pendentes.size(), checkpoint);
+        return ultima;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Transferencia;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal de escrita antecipada das transferências aceitas pela engine em memória: um arquivo
+ * mapeado em memória usado como anel de registros de tamanho fixo, cada um com sequência,
+ * instante, valor em centavos, contas, chave de idempotência e CRC. Quem anexa copia o registro
+ * para o mapa e aguarda o {@code force} da thread sincronizadora, que grava de uma vez tudo o que
+ * foi anexado desde o último {@code force} (commit em grupo).
+ * <p>
+ * A posição de cada registro é a sequência módulo a capacidade; um registro só é sobrescrito
+ * depois que o {@link GravadorAssincrono} o materializou no banco ({@link #liberarAte}). Na
+ * leitura, registros com CRC inválido (escrita interrompida) são ignorados.
+ */
+@Slf4j
+public class JournalTransferencias implements Closeable {
+
+    static final int TAMANHO_REGISTRO = 512;
+    static final int TAMANHO_CONTA = 96;
+    static final int TAMANHO_CHAVE = 255;
+    private static final int POSICAO_ORIGEM = 24;
+    private static final int POSICAO_DESTINO = POSICAO_ORIGEM + 2 + TAMANHO_CONTA;
+    private static final int POSICAO_CHAVE = POSICAO_DESTINO + 2 + TAMANHO_CONTA;
+    private static final int POSICAO_CRC = TAMANHO_REGISTRO - 4;
+
+    public record Registro(long sequencia, LocalDateTime instante, long valor,
+                           String contaOrigem, String contaDestino, String chave) {
+    }
+
+    private final FileChannel canal;
+    private final MappedByteBuffer mapa;
+    private final int capacidade;
+    private final ByteBuffer registro = ByteBuffer.allocate(TAMANHO_REGISTRO);
+    private final CRC32 crc = new CRC32();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendente = lock.newCondition();
+    private final Condition duravel = lock.newCondition();
+    private final Condition espacoLivre = lock.newCondition();
+    private final Thread sincronizador = new Thread(this::sincronizar, "journal-transferencias");
+    private long escrita;
+    private long sincronizada;
+    private long liberada;
+    private volatile boolean ativo = true;
+
+    public JournalTransferencias(Path arquivo, int capacidade) throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        this.capacidade = capacidade;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacidade * TAMANHO_REGISTRO);
+        this.sincronizador.setDaemon(true);
+    }
+
+    /** Registros íntegros do arquivo, em ordem de sequência. */
+    public List<Registro> ler() {
+        var registros = new ArrayList<Registro>();
+        var bytes = new byte[TAMANHO_REGISTRO];
+        for (int i = 0; i < capacidade; i++) {
+            mapa.get(i * TAMANHO_REGISTRO, bytes);
+            var buffer = ByteBuffer.wrap(bytes);
+            var sequencia = buffer.getLong(0);
+            if (sequencia <= 0) {
+                continue;
+            }
+            var verificacao = new CRC32();
+            verificacao.update(bytes, 0, POSICAO_CRC);
+            if ((int) verificacao.getValue() != buffer.getInt(POSICAO_CRC)) {
+                log.warn("Registro {} do journal com CRC inválido ignorado", sequencia);
+                continue;
+            }
+            registros.add(new Registro(sequencia,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(8)), ZoneId.systemDefault()),
+                    buffer.getLong(16),
+                    texto(buffer, POSICAO_ORIGEM),
+                    texto(buffer, POSICAO_DESTINO),
+                    texto(buffer, POSICAO_CHAVE)));
+        }
+        registros.sort(Comparator.comparingLong(Registro::sequencia));
+        return registros;
+    }
+
+    /** Começa a anexar depois de {@code ultimaSequencia}, já materializada no banco. */
+    public void iniciar(long ultimaSequencia) {
+        escrita = ultimaSequencia;
+        sincronizada = ultimaSequencia;
+        liberada = ultimaSequencia;
+        sincronizador.start();
+    }
+
+    public static void validar(TransferenciaDTO transferenciaDTO, String chave) {
+        if (bytes(transferenciaDTO.getContaOrigem()).length > TAMANHO_CONTA
+                || bytes(transferenciaDTO.getContaDestino()).length > TAMANHO_CONTA
+                || (chave != null && bytes(chave).length > TAMANHO_CHAVE)) {
+            throw new IllegalArgumentException("Conta ou chave de idempotência longa demais para o journal de transferências");
+        }
+    }
+
+    /**
+     * Copia a transferência para o journal e chama {@code aoAnexar} com a sequência ainda sob o
+     * lock, de modo que o que for registrado ali fique na mesma ordem do journal. {@code aoAnexar}
+     * não pode bloquear, porque {@link #liberarAte} espera pelo mesmo lock. Não espera o disco;
+     * use {@link #aguardar}.
+     */
+    public long anexar(Transferencia transferencia, String chave, LongConsumer aoAnexar) {
+        lock.lock();
+        try {
+            while (escrita + 1 - liberada > capacidade) {
+                espacoLivre.await();
+            }
+            var sequencia = escrita + 1;
+            registro.clear();
+            registro.putLong(0, sequencia);
+            registro.putLong(8, transferencia.getDataTransferencia().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            registro.putLong(16, transferencia.getValor());
+            escreverTexto(POSICAO_ORIGEM, transferencia.getContaOrigem());
+            escreverTexto(POSICAO_DESTINO, transferencia.getContaDestino());
+            escreverTexto(POSICAO_CHAVE, chave);
+            crc.reset();
+            crc.update(registro.array(), 0, POSICAO_CRC);
+            registro.putInt(POSICAO_CRC, (int) crc.getValue());
+            mapa.put((int) ((sequencia - 1) % capacidade) * TAMANHO_REGISTRO, registro.array());
+            escrita = sequencia;
+            aoAnexar.accept(sequencia);
+            pendente.signal();
+            return sequencia;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao aguardar espaço no journal de transferências", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Aguarda até que o registro {@code sequencia} esteja gravado em disco. */
+    public void aguardar(long sequencia) {
+        lock.lock();
+        try {
+            while (sincronizada < sequencia) {
+                if (!ativo) {
+                    throw new IllegalStateException("Journal de transferências encerrado");
+                }
+                duravel.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao aguardar o journal de transferências", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Registros até {@code sequencia} estão no banco e seu espaço pode ser reutilizado. */
+    public void liberarAte(long sequencia) {
+        lock.lock();
+        try {
+            if (sequencia > liberada) {
+                liberada = sequencia;
+                espacoLivre.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        ativo = false;
+        try {
+            sincronizador.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+
+    private void sincronizar() {
+        while (true) {
+            long alvo;
+            lock.lock();
+            try {
+                while (sincronizada == escrita) {
+                    if (!ativo) {
+                        return;
+                    }
+                    pendente.await(100, TimeUnit.MILLISECONDS);
+                }
+                alvo = escrita;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            mapa.force();
+
+            lock.lock();
+            try {
+                sincronizada = alvo;
+                duravel.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void escreverTexto(int posicao, String texto) {
+        var bytes = texto == null ? new byte[0] : bytes(texto);
+        registro.putShort(posicao, (short) (texto == null ? -1 : bytes.length));
+        registro.put(posicao + 2, bytes);
+    }
+
+    private static String texto(ByteBuffer buffer, int posicao) {
+        var tamanho = buffer.getShort(posicao);
+        if (tamanho < 0) {
+            return null;
+        }
+        var bytes = new byte[tamanho];
+        buffer.get(posicao + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Transferencia;
+import com.example.banking.service.MetricasTransferencia;
+import com.example.banking.service.PoliticaRepeticao;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.TransferenciaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Executa cada transferência em uma transação JPA. Conflitos de versão (modo otimista)
+ * ou de bloqueio (modo pessimista) fazem a transação inteira ser repetida pela
+ * {@link PoliticaRepeticao}.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.transferencia.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaTransferenciaEngine implements TransferenciaEngine {
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+    @Autowired
+    private PoliticaRepeticao politicaRepeticao;
+    @Autowired
+    private MetricasTransferencia metricasTransferencia;
+
+    @Override
+    public Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO) {
+        var inicio = System.nanoTime();
+        var transferencia = politicaRepeticao.executar(
+                () -> transferenciaService.realizarTransferencia(transferenciaDTO),
+                () -> transferenciaService.registrarFalha(transferenciaDTO, RegrasTransferencia.MENSAGEM_CONFLITO_CONCORRENCIA));
+        metricasTransferencia.registrar(transferencia, inicio);
+        return transferencia;
+    }
+}
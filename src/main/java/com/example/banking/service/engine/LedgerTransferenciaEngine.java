@@ -0,0 +1,246 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Lancamento;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.LancamentoRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.LimiteDiario;
+import com.example.banking.service.LivroRazao;
+import com.example.banking.service.MetricasTransferencia;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.antifraude.Antifraude;
+import com.example.banking.service.antifraude.Pendentes;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra transferências como lançamentos de débito e crédito no {@link LivroRazao}, sem
+ * alterar linhas de clientes. Uma única thread gravadora aplica as transferências da fila
+ * sobre os saldos materializados e grava, a cada ciclo, as transferências e os lançamentos numa
+ * transação só de inserções; a resposta sai depois do commit.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "banking.transferencia.engine", havingValue = "ledger")
+public class LedgerTransferenciaEngine implements TransferenciaEngine {
+
+    private record Pedido(TransferenciaDTO dto, Transferencia transferencia, CompletableFuture<Transferencia> resultado,
+                          Antifraude.Lote lote) {
+    }
+
+    @Autowired
+    private LivroRazao livroRazao;
+    @Autowired
+    private LimiteDiario limiteDiario;
+    @Autowired
+    private Antifraude antifraude;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MetricasTransferencia metricasTransferencia;
+
+    @Value("${banking.ledger.capacidade-fila:100000}")
+    private int capacidadeFila = 100000;
+    @Value("${banking.ledger.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+
+    private BlockingQueue<Pedido> fila;
+    private TransactionTemplate transactionTemplate;
+    private Thread thread;
+    private volatile boolean ativo = true;
+
+    @PostConstruct
+    public void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        thread = new Thread(this::executar, "livro-razao");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        ativo = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // Com a gravadora parada, o snapshot final encurta a recuperação da próxima subida.
+        livroRazao.registrarSnapshot();
+    }
+
+    @Override
+    public Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO) {
+        if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+            return RegrasTransferencia.transferenciaInvalida(transferenciaDTO);
+        }
+        var inicio = System.nanoTime();
+        var pedido = new Pedido(transferenciaDTO, RegrasTransferencia.novaTransferencia(transferenciaDTO),
+                new CompletableFuture<>(), Antifraude.loteCorrente());
+        Transferencia transferencia;
+        try {
+            fila.put(pedido);
+            transferencia = pedido.resultado().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao registrar transferência no livro razão", e);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+        metricasTransferencia.registrar(transferencia, inicio);
+        return transferencia;
+    }
+
+    private void executar() {
+        var lote = new ArrayList<Pedido>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                var primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+                processar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void processar(List<Pedido> lote) {
+        var agora = LocalDateTime.now();
+        var saldos = new HashMap<String, Long>();
+        var lancamentos = new ArrayList<Lancamento>();
+        var aceitos = new ArrayList<Pedido>(lote.size());
+        var reservas = new ArrayList<LimiteDiario.Reserva>();
+        var pendentes = new Pendentes();
+        for (var pedido : lote) {
+            try {
+                aplicar(pedido, saldos, lancamentos, reservas, pendentes, agora);
+                aceitos.add(pedido);
+            } catch (RuntimeException e) {
+                pedido.resultado().completeExceptionally(e);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                transferenciaRepository.saveAll(aceitos.stream().map(Pedido::transferencia).toList());
+                lancamentoRepository.saveAll(lancamentos);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar {} transferências no livro razão", aceitos.size(), e);
+            reservas.forEach(limiteDiario::liberar);
+            aceitos.forEach(pedido -> pedido.resultado().completeExceptionally(e));
+            return;
+        }
+        livroRazao.publicar(saldos, lancamentos);
+        pendentes.aceitas().forEach(antifraude::confirmar);
+        aceitos.forEach(pedido -> pedido.resultado().complete(pedido.transferencia()));
+    }
+
+    private void aplicar(Pedido pedido, Map<String, Long> saldos, List<Lancamento> lancamentos,
+                         List<LimiteDiario.Reserva> reservas, Pendentes pendentes, LocalDateTime agora) {
+        var dto = pedido.dto();
+        var transferencia = pedido.transferencia();
+        if (RegrasTransferencia.isLimiteExcedido(dto)) {
+            transferencia.setMensagem(RegrasTransferencia.MENSAGEM_LIMITE_EXCEDIDO);
+            return;
+        }
+        var saldoOrigem = saldo(dto.getContaOrigem(), saldos, lancamentos, agora);
+        if (saldoOrigem == null) {
+            transferencia.setMensagem(RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + dto.getContaOrigem());
+            return;
+        }
+        if (saldo(dto.getContaDestino(), saldos, lancamentos, agora) == null) {
+            transferencia.setMensagem(RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + dto.getContaDestino());
+            return;
+        }
+        if (RegrasTransferencia.isSaldoInsuficiente(saldoOrigem, dto)) {
+            transferencia.setMensagem(RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE);
+            return;
+        }
+        Pendentes.Aceita aceita;
+        try {
+            aceita = antifraude.avaliar(dto.getContaOrigem(), dto.getContaDestino(), dto.getValor(), pedido.lote(), pendentes);
+            reservas.add(limiteDiario.reservar(dto.getContaOrigem(), dto.getValor()));
+        } catch (IllegalArgumentException e) {
+            transferencia.setMensagem(e.getMessage());
+            return;
+        }
+
+        saldos.merge(dto.getContaOrigem(), -dto.getValor(), Long::sum);
+        saldos.merge(dto.getContaDestino(), dto.getValor(), Long::sum);
+        lancamentos.add(lancamento(dto.getContaOrigem(), Lancamento.Tipo.DEBITO, -dto.getValor(), transferencia, agora));
+        lancamentos.add(lancamento(dto.getContaDestino(), Lancamento.Tipo.CREDITO, dto.getValor(), transferencia, agora));
+        transferencia.setSucesso(true);
+        transferencia.setMensagem(RegrasTransferencia.MENSAGEM_SUCESSO);
+        pendentes.adicionar(aceita);
+    }
+
+    /**
+     * Saldo da conta no ciclo corrente. Na primeira vez que a conta aparece no livro, o saldo
+     * atual do cadastro entra como lançamento de abertura.
+     */
+    private Long saldo(String numeroConta, Map<String, Long> saldos, List<Lancamento> lancamentos, LocalDateTime agora) {
+        var saldo = saldos.get(numeroConta);
+        if (saldo != null) {
+            return saldo;
+        }
+        saldo = livroRazao.saldo(numeroConta);
+        if (saldo != null) {
+            saldos.put(numeroConta, saldo);
+            return saldo;
+        }
+        var cliente = clienteRepository.findByNumeroConta(numeroConta).orElse(null);
+        if (cliente == null) {
+            return null;
+        }
+        lancamentos.add(lancamento(numeroConta, Lancamento.Tipo.ABERTURA, cliente.getSaldo(), null, agora));
+        saldos.put(numeroConta, cliente.getSaldo());
+        return cliente.getSaldo();
+    }
+
+    private static Lancamento lancamento(String numeroConta, Lancamento.Tipo tipo, long valor,
+                                         Transferencia transferencia, LocalDateTime agora) {
+        return Lancamento.builder()
+                .numeroConta(numeroConta)
+                .tipo(tipo)
+                .valor(valor)
+                .transferencia(transferencia)
+                .dataLancamento(agora)
+                .build();
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.ClienteCache;
+import com.example.banking.service.LimiteDiario;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.antifraude.Antifraude;
+import com.example.banking.service.antifraude.Pendentes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Partição do pipeline de transferências: uma única thread é dona dos saldos das contas que
+ * caem nesta partição e aplica as mensagens da fila em ordem, sem locks. Cada ciclo drena até
+ * {@code tamanhoLote} mensagens e grava numa só transação os ajustes de saldo e as
+ * transferências concluídas; só depois do commit as respostas são liberadas.
+ * <p>
+ * Transferências entre partições seguem duas etapas: a partição de origem reserva o valor
+ * (debita em memória) e envia um {@link Credito} à partição de destino, que credita e grava o
+ * débito da origem, o crédito do destino e a transferência na mesma transação. Os saldos são
+ * gravados como incrementos ({@code saldo = saldo + ajuste}), de modo que partições diferentes
+ * podem gravar ajustes da mesma conta. Se o destino não existir ou o commit falhar, um
+ * {@link Estorno} devolve a reserva na partição de origem.
+ * <p>
+ * O {@link Antifraude} só registra uma transferência depois do commit do ciclo que a conclui;
+ * dentro do ciclo, as aceitas ficam em {@link Pendentes} para as seguintes da mesma origem. Uma
+ * transferência entre partições só é confirmada pela partição de destino, de modo que, até lá,
+ * as novas da mesma origem não a veem.
+ */
+@Slf4j
+class ParticaoTransferencias {
+
+    sealed interface Mensagem permits Pedido, Credito, Estorno {
+    }
+
+    /** @param lote o lote do item, para o {@link Antifraude}, ou null para transferência avulsa */
+    record Pedido(TransferenciaDTO dto, Transferencia transferencia, CompletableFuture<Transferencia> resultado,
+                  Antifraude.Lote lote) implements Mensagem {
+    }
+
+    record Credito(Pedido pedido, LimiteDiario.Reserva reserva, Pendentes.Aceita aceita) implements Mensagem {
+    }
+
+    /** Devolve a reserva; com {@code erro}, a transferência falhou na gravação e não é registrada. */
+    record Estorno(Pedido pedido, LimiteDiario.Reserva reserva, String mensagem, RuntimeException erro)
+            implements Mensagem {
+    }
+
+    /** Efeitos de um ciclo, gravados numa única transação. */
+    private static class Ciclo {
+        // Ordenados: partições que gravam débitos umas das outras bloqueiam as contas na mesma ordem.
+        final Map<String, Long> ajustes = new TreeMap<>();
+        final List<Pedido> concluidos = new ArrayList<>();
+        // Reservas de limite a devolver se o ciclo não gravar. Por identidade: a transferência
+        // do pedido muda ao ser concluída.
+        final Map<Pedido, LimiteDiario.Reserva> reservas = new IdentityHashMap<>();
+        final Map<Pedido, LimiteDiario.Reserva> creditosRemotos = new IdentityHashMap<>();
+        // Aceitas pelo antifraude neste ciclo e, das concluídas com sucesso, as a confirmar após o commit.
+        final Pendentes pendentes = new Pendentes();
+        final List<Pendentes.Aceita> aConfirmar = new ArrayList<>();
+    }
+
+    private final int indice;
+    private final Function<String, ParticaoTransferencias> roteador;
+    private final TransactionTemplate transactionTemplate;
+    private final ClienteRepository clienteRepository;
+    private final TransferenciaRepository transferenciaRepository;
+    private final ClienteCache clienteCache;
+    private final LimiteDiario limiteDiario;
+    private final Antifraude antifraude;
+    private final int tamanhoLote;
+    private final BlockingQueue<Mensagem> fila = new LinkedBlockingQueue<>();
+    private final Map<String, Long> saldos = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean ativo = true;
+
+    ParticaoTransferencias(int indice,
+                           Function<String, ParticaoTransferencias> roteador,
+                           TransactionTemplate transactionTemplate,
+                           ClienteRepository clienteRepository,
+                           TransferenciaRepository transferenciaRepository,
+                           ClienteCache clienteCache,
+                           LimiteDiario limiteDiario,
+                           Antifraude antifraude,
+                           int tamanhoLote) {
+        this.indice = indice;
+        this.roteador = roteador;
+        this.transactionTemplate = transactionTemplate;
+        this.clienteRepository = clienteRepository;
+        this.transferenciaRepository = transferenciaRepository;
+        this.clienteCache = clienteCache;
+        this.limiteDiario = limiteDiario;
+        this.antifraude = antifraude;
+        this.tamanhoLote = tamanhoLote;
+        this.thread = new Thread(this::executar, "pipeline-transferencias-" + indice);
+        this.thread.setDaemon(true);
+    }
+
+    void iniciar() {
+        thread.start();
+    }
+
+    void enviar(Mensagem mensagem) {
+        fila.add(mensagem);
+    }
+
+    void encerrar() {
+        ativo = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void executar() {
+        var lote = new ArrayList<Mensagem>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                var primeira = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+                fila.drainTo(lote, tamanhoLote - 1);
+                var ciclo = new Ciclo();
+                for (var mensagem : lote) {
+                    try {
+                        aplicar(mensagem, ciclo);
+                    } catch (RuntimeException e) {
+                        // Só a carga de saldos acessa o banco, sempre antes de alterar a memória.
+                        rejeitar(mensagem, e);
+                    }
+                }
+                gravar(ciclo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void aplicar(Mensagem mensagem, Ciclo ciclo) {
+        switch (mensagem) {
+            case Pedido pedido -> reservar(pedido, ciclo);
+            case Credito credito -> creditar(credito, ciclo);
+            case Estorno estorno -> estornar(estorno, ciclo);
+        }
+    }
+
+    private void reservar(Pedido pedido, Ciclo ciclo) {
+        var dto = pedido.dto();
+        if (RegrasTransferencia.isLimiteExcedido(dto)) {
+            falhar(pedido, RegrasTransferencia.MENSAGEM_LIMITE_EXCEDIDO, ciclo);
+            return;
+        }
+        var saldoOrigem = saldo(dto.getContaOrigem());
+        if (saldoOrigem == null) {
+            falhar(pedido, RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + dto.getContaOrigem(), ciclo);
+            return;
+        }
+        var destino = roteador.apply(dto.getContaDestino());
+        if (destino == this && saldo(dto.getContaDestino()) == null) {
+            falhar(pedido, RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + dto.getContaDestino(), ciclo);
+            return;
+        }
+        if (RegrasTransferencia.isSaldoInsuficiente(saldoOrigem, dto)) {
+            falhar(pedido, RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE, ciclo);
+            return;
+        }
+        Pendentes.Aceita aceita;
+        LimiteDiario.Reserva reserva;
+        try {
+            aceita = antifraude.avaliar(dto.getContaOrigem(), dto.getContaDestino(), dto.getValor(), pedido.lote(),
+                    ciclo.pendentes);
+            reserva = limiteDiario.reservar(dto.getContaOrigem(), dto.getValor());
+        } catch (IllegalArgumentException e) {
+            falhar(pedido, e.getMessage(), ciclo);
+            return;
+        }
+        ciclo.pendentes.adicionar(aceita);
+        if (destino == this) {
+            ajustar(dto.getContaOrigem(), -dto.getValor(), ciclo);
+            ajustar(dto.getContaDestino(), dto.getValor(), ciclo);
+            ciclo.reservas.put(pedido, reserva);
+            ciclo.aConfirmar.add(aceita);
+            concluir(pedido, ciclo);
+        } else {
+            // Reserva: o débito fica só em memória até a partição de destino gravá-lo.
+            saldos.put(dto.getContaOrigem(), saldoOrigem - dto.getValor());
+            destino.enviar(new Credito(pedido, reserva, aceita));
+        }
+    }
+
+    private void creditar(Credito credito, Ciclo ciclo) {
+        var pedido = credito.pedido();
+        var dto = pedido.dto();
+        if (saldo(dto.getContaDestino()) == null) {
+            roteador.apply(dto.getContaOrigem()).enviar(new Estorno(pedido, credito.reserva(),
+                    RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE + dto.getContaDestino(), null));
+            return;
+        }
+        ajustar(dto.getContaDestino(), dto.getValor(), ciclo);
+        ciclo.ajustes.merge(dto.getContaOrigem(), -dto.getValor(), Long::sum);
+        ciclo.creditosRemotos.put(pedido, credito.reserva());
+        ciclo.aConfirmar.add(credito.aceita());
+        concluir(pedido, ciclo);
+    }
+
+    private void estornar(Estorno estorno, Ciclo ciclo) {
+        var pedido = estorno.pedido();
+        saldos.merge(pedido.dto().getContaOrigem(), pedido.dto().getValor(), Long::sum);
+        limiteDiario.liberar(estorno.reserva());
+        if (estorno.erro() != null) {
+            pedido.resultado().completeExceptionally(estorno.erro());
+        } else {
+            falhar(pedido, estorno.mensagem(), ciclo);
+        }
+    }
+
+    private void gravar(Ciclo ciclo) {
+        if (ciclo.concluidos.isEmpty() && ciclo.ajustes.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ciclo.ajustes.forEach((numeroConta, ajuste) -> {
+                    if (ajuste != 0) {
+                        clienteRepository.ajustarSaldo(numeroConta, ajuste);
+                    }
+                });
+                transferenciaRepository.saveAll(ciclo.concluidos.stream().map(Pedido::transferencia).toList());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar ciclo de {} transferências na partição {}", ciclo.concluidos.size(), indice, e);
+            ciclo.ajustes.forEach((numeroConta, ajuste) -> {
+                if (roteador.apply(numeroConta) == this) {
+                    saldos.merge(numeroConta, -ajuste, Long::sum);
+                }
+            });
+            // Pedidos recusados não reservaram limite e os estornados já o devolveram.
+            for (var pedido : ciclo.concluidos) {
+                if (ciclo.creditosRemotos.containsKey(pedido)) {
+                    roteador.apply(pedido.dto().getContaOrigem())
+                            .enviar(new Estorno(pedido, ciclo.creditosRemotos.get(pedido), null, e));
+                } else {
+                    var reserva = ciclo.reservas.get(pedido);
+                    if (reserva != null) {
+                        limiteDiario.liberar(reserva);
+                    }
+                    pedido.resultado().completeExceptionally(e);
+                }
+            }
+            return;
+        }
+        ciclo.ajustes.keySet().forEach(clienteCache::invalidar);
+        ciclo.aConfirmar.forEach(antifraude::confirmar);
+        ciclo.concluidos.forEach(pedido -> pedido.resultado().complete(pedido.transferencia()));
+    }
+
+    private Long saldo(String numeroConta) {
+        var saldo = saldos.get(numeroConta);
+        if (saldo == null) {
+            saldo = clienteRepository.findByNumeroConta(numeroConta).map(Cliente::getSaldo).orElse(null);
+            if (saldo != null) {
+                saldos.put(numeroConta, saldo);
+            }
+        }
+        return saldo;
+    }
+
+    private void ajustar(String numeroConta, long ajuste, Ciclo ciclo) {
+        saldos.merge(numeroConta, ajuste, Long::sum);
+        ciclo.ajustes.merge(numeroConta, ajuste, Long::sum);
+    }
+
+    private static void concluir(Pedido pedido, Ciclo ciclo) {
+        pedido.transferencia().setSucesso(true);
+        pedido.transferencia().setMensagem(RegrasTransferencia.MENSAGEM_SUCESSO);
+        ciclo.concluidos.add(pedido);
+    }
+
+    private static void falhar(Pedido pedido, String mensagem, Ciclo ciclo) {
+        pedido.transferencia().setMensagem(mensagem);
+        ciclo.concluidos.add(pedido);
+    }
+
+    private void rejeitar(Mensagem mensagem, RuntimeException erro) {
+        log.warn("Falha ao aplicar transferência na partição {}", indice, erro);
+        switch (mensagem) {
+            case Pedido pedido -> pedido.resultado().completeExceptionally(erro);
+            case Credito credito -> roteador.apply(credito.pedido().dto().getContaOrigem())
+                    .enviar(new Estorno(credito.pedido(), credito.reserva(), null, erro));
+            case Estorno estorno -> estorno.pedido().resultado().completeExceptionally(erro);
+        }
+    }
+}
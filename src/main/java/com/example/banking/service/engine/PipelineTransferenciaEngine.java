@@ -0,0 +1,116 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.ClienteCache;
+import com.example.banking.service.LimiteDiario;
+import com.example.banking.service.MetricasTransferencia;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.antifraude.Antifraude;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Encaminha cada transferência à {@link ParticaoTransferencias} dona da conta de origem, escolhida
+ * pelo hash do número da conta, e aguarda o commit do ciclo que a gravou. Ao contrário da engine
+ * em memória, a resposta só sai depois que a transferência está no banco; o custo do commit é
+ * dividido entre todas as transferências do ciclo. A quantidade de transferências em andamento
+ * é limitada por {@code capacidade}: acima dela as requisições aguardam vaga.
+ * <p>
+ * As partições mantêm os saldos em memória a partir da primeira leitura; alterações de saldo
+ * feitas por fora do pipeline não são vistas até o reinício.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.transferencia.engine", havingValue = "pipeline")
+public class PipelineTransferenciaEngine implements TransferenciaEngine {
+
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private LimiteDiario limiteDiario;
+    @Autowired
+    private Antifraude antifraude;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MetricasTransferencia metricasTransferencia;
+
+    @Value("${banking.transferencia.pipeline.particoes:8}")
+    private int quantidadeParticoes = 8;
+    @Value("${banking.transferencia.pipeline.capacidade:100000}")
+    private int capacidade = 100000;
+    @Value("${banking.transferencia.pipeline.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+
+    private ParticaoTransferencias[] particoes;
+    private Semaphore vagas;
+
+    @PostConstruct
+    public void iniciar() {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        particoes = new ParticaoTransferencias[quantidadeParticoes];
+        for (int i = 0; i < quantidadeParticoes; i++) {
+            particoes[i] = new ParticaoTransferencias(i, this::particao, transactionTemplate,
+                    clienteRepository, transferenciaRepository, clienteCache, limiteDiario, antifraude, tamanhoLote);
+        }
+        vagas = new Semaphore(capacidade);
+        for (var particao : particoes) {
+            particao.iniciar();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        for (var particao : particoes) {
+            particao.encerrar();
+        }
+    }
+
+    @Override
+    public Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO) {
+        if (RegrasTransferencia.isTransferenciaInvalida(transferenciaDTO)) {
+            return RegrasTransferencia.transferenciaInvalida(transferenciaDTO);
+        }
+        var inicio = System.nanoTime();
+        var pedido = new ParticaoTransferencias.Pedido(transferenciaDTO,
+                RegrasTransferencia.novaTransferencia(transferenciaDTO), new CompletableFuture<>(), Antifraude.loteCorrente());
+        try {
+            vagas.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao aguardar vaga no pipeline de transferências", e);
+        }
+        Transferencia transferencia;
+        try {
+            particao(transferenciaDTO.getContaOrigem()).enviar(pedido);
+            transferencia = pedido.resultado().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        } finally {
+            vagas.release();
+        }
+        metricasTransferencia.registrar(transferencia, inicio);
+        return transferencia;
+    }
+
+    private ParticaoTransferencias particao(String numeroConta) {
+        var h = numeroConta.hashCode();
+        return particoes[Math.floorMod(h ^ (h >>> 16), particoes.length)];
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Transferencia;
+
+/**
+ * Estratégia de execução de transferências, selecionada pela propriedade
+ * {@code banking.transferencia.engine}.
+ */
+public interface TransferenciaEngine {
+
+    Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO);
+
+    /**
+     * Variante chamada quando a requisição tem chave de idempotência, para engines que a
+     * registram junto da transferência.
+     */
+    default Transferencia realizarTransferencia(TransferenciaDTO transferenciaDTO, String chaveIdempotencia) {
+        return realizarTransferencia(transferenciaDTO);
+    }
+}
@@ -4,5 +4,12 @@ public class ApiPaths {
     public static final String API_V_1_CLIENTES = "/api/v1/clientes";
     public static final String API_V_1_TRANSFERENCIAS = "/api/v1/transferencias";
     public static final String API_V_1_CLIENTES_COM_NUMERO_CONTA = "/api/v1/clientes/%s";
+    public static final String API_V_1_CLIENTES_EXPORTACAO = "/api/v1/clientes/exportacao";
+    public static final String API_V_1_CLIENTES_IMPORTACAO = "/api/v1/clientes/importacao";
+    public static final String API_V_1_CLIENTES_CACHE_ESTATISTICAS = "/api/v1/clientes/cache/estatisticas";
+    public static final String API_V_1_TRANSFERENCIAS_COM_ID = "/api/v1/transferencias/%s";
+    public static final String API_V_1_TRANSFERENCIAS_LOTE = "/api/v1/transferencias/lote";
+    public static final String API_V_1_TRANSFERENCIAS_RESUMO_COM_NUMERO_CONTA = "/api/v1/transferencias/resumo/%s";
     public static final String API_V_1_TRANSFERENCIAS_COM_NUMERO_CONTA = "/api/v1/transferencias/historico/%s";
+    public static final String API_V_1_TRANSFERENCIAS_EXPORTACAO_COM_NUMERO_CONTA = "/api/v1/transferencias/historico/%s/exportacao";
 }
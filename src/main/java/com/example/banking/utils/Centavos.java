@@ -0,0 +1,77 @@
+package com.example.banking.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários são mantidos como {@code long} em centavos. Na API continuam
+ * trafegando como número decimal em reais ({@code 10.5} equivale a 1050 centavos).
+ */
+public final class Centavos {
+
+    private Centavos() {
+    }
+
+    /** Converte reais em centavos; valores com fração de centavo são rejeitados. */
+    public static long deReais(BigDecimal reais) {
+        try {
+            return reais.setScale(2, RoundingMode.UNNECESSARY).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + reais.toPlainString(), e);
+        }
+    }
+
+    public static BigDecimal emReais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    public static class Serializador extends StdSerializer<Long> {
+        public Serializador() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long centavos, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeNumber(emReais(centavos));
+        }
+    }
+
+    public static class Desserializador extends StdDeserializer<Long> {
+        public Desserializador() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            var token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Long) contexto.handleUnexpectedToken(Long.class, parser);
+            }
+            try {
+                var reais = token == JsonToken.VALUE_STRING
+                        ? new BigDecimal(parser.getText().trim())
+                        : parser.getDecimalValue();
+                return deReais(reais);
+            } catch (IllegalArgumentException e) {
+                return (Long) contexto.handleWeirdStringValue(Long.class, parser.getText(), e.getMessage());
+            }
+        }
+
+        /** {@code null} não vira zero: um valor ausente não pode passar por transferência de R$ 0,00. */
+        @Override
+        public Long getNullValue(DeserializationContext contexto) throws JsonMappingException {
+            return contexto.reportInputMismatch(this, "Valor monetário não informado");
+        }
+    }
+}
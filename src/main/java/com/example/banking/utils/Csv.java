@@ -0,0 +1,45 @@
+package com.example.banking.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Campos de uma linha CSV separada por vírgulas. Campos entre aspas podem conter vírgulas e
+ * aspas duplicadas ({@code ""}); quebras de linha dentro de campos não são suportadas.
+ */
+public final class Csv {
+
+    private Csv() {
+    }
+
+    public static List<String> campos(String linha) {
+        var campos = new ArrayList<String>();
+        var campo = new StringBuilder();
+        var entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            var c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas");
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.banking.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica as chaves da última linha de uma página em um cursor opaco para paginação keyset.
+ */
+public final class Cursores {
+
+    private static final String SEPARADOR = "|";
+
+    private Cursores() {
+    }
+
+    public static String codificar(String... chaves) {
+        var texto = String.join(SEPARADOR, chaves);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decodificar(String cursor, int quantidadeChaves) {
+        try {
+            var texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var chaves = texto.split("\\|", quantidadeChaves);
+            if (chaves.length != quantidadeChaves) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            return chaves;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.banking.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filtro de Bloom de tamanho fixo para textos: {@link #talvezContenha} nunca responde
+ * {@code false} para um valor adicionado, e responde {@code true} para um valor ausente com
+ * probabilidade próxima da taxa configurada enquanto a capacidade não for ultrapassada.
+ * Acima dela a taxa cresce, mas a memória não. Não é seguro para uso concorrente.
+ */
+public class FiltroBloom {
+
+    private final long[] bits;
+    private final long tamanho;
+    private final int funcoes;
+
+    public FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        if (capacidade <= 0 || taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidade e taxa de falsos positivos inválidas");
+        }
+        var otimo = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (otimo + 63) / 64)];
+        this.tamanho = bits.length * 64L;
+        this.funcoes = Math.max(1, (int) Math.round((double) tamanho / capacidade * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        var hash = hash(valor);
+        var h1 = hash;
+        var h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            var posicao = Math.floorMod(h1 + i * h2, tamanho);
+            bits[(int) (posicao >>> 6)] |= 1L << posicao;
+        }
+    }
+
+    public boolean talvezContenha(String valor) {
+        var hash = hash(valor);
+        var h1 = hash;
+        var h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            var posicao = Math.floorMod(h1 + i * h2, tamanho);
+            if ((bits[(int) (posicao >>> 6)] & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** FNV-1a de 64 bits sobre os bytes UTF-8, com a mistura final do SplitMix64. */
+    private static long hash(String valor) {
+        var hash = 0xcbf29ce484222325L;
+        for (var b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.banking.utils;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê um corpo NDJSON linha a linha, sem carregar o conteúdo inteiro em memória.
+ * Linhas em branco são ignoradas; linhas que não puderem ser convertidas resultam em {@code null}.
+ */
+public class LeitorNdjson<T> implements Iterator<T> {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private String proximaLinha;
+
+    public LeitorNdjson(InputStream inputStream, ObjectReader objectReader) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (proximaLinha == null) {
+                var linha = reader.readLine();
+                if (linha == null) {
+                    return false;
+                }
+                if (!linha.isBlank()) {
+                    proximaLinha = linha;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var linha = proximaLinha;
+        proximaLinha = null;
+        try {
+            return objectReader.readValue(linha);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
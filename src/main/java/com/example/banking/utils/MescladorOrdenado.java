@@ -0,0 +1,59 @@
+package com.example.banking.utils;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Mescla iteradores já ordenados pelo mesmo comparador, sem materializá-los. Elementos que
+ * comparam como iguais ao último emitido são descartados, o que remove a mesma linha vinda
+ * de mais de uma fonte.
+ */
+public class MescladorOrdenado<T> implements Iterator<T> {
+
+    private final Comparator<? super T> comparador;
+    private final PriorityQueue<Cabeca<T>> fila;
+    private T ultimo;
+    private T proximo;
+
+    public MescladorOrdenado(List<? extends Iterator<? extends T>> fontes, Comparator<? super T> comparador) {
+        this.comparador = comparador;
+        this.fila = new PriorityQueue<>(Math.max(1, fontes.size()), (a, b) -> comparador.compare(a.valor, b.valor));
+        for (var fonte : fontes) {
+            avancar(fonte);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (proximo == null && !fila.isEmpty()) {
+            var cabeca = fila.poll();
+            avancar(cabeca.fonte);
+            if (ultimo == null || comparador.compare(ultimo, cabeca.valor) != 0) {
+                proximo = cabeca.valor;
+            }
+        }
+        return proximo != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ultimo = proximo;
+        proximo = null;
+        return ultimo;
+    }
+
+    private void avancar(Iterator<? extends T> fonte) {
+        if (fonte.hasNext()) {
+            fila.add(new Cabeca<>(fonte.next(), fonte));
+        }
+    }
+
+    private record Cabeca<T>(T valor, Iterator<? extends T> fonte) {
+    }
+}
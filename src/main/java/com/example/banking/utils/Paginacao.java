@@ -0,0 +1,32 @@
+package com.example.banking.utils;
+
+import com.example.banking.dto.Pagina;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+public final class Paginacao {
+
+    public static final String HEADER_PROXIMO_CURSOR = "X-Proximo-Cursor";
+
+    private Paginacao() {
+    }
+
+    public static int tamanhoPagina(Integer limite, int limitePadrao, int limiteMaximo) {
+        if (limite == null) {
+            return limitePadrao;
+        }
+        if (limite < 1) {
+            throw new IllegalArgumentException("O limite da página deve ser maior que zero");
+        }
+        return Math.min(limite, limiteMaximo);
+    }
+
+    public static <T> ResponseEntity<List<T>> resposta(Pagina<T> pagina) {
+        var resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(HEADER_PROXIMO_CURSOR, pagina.getProximoCursor());
+        }
+        return resposta.body(pagina.getItens());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Vazão de {@code ClienteRepository.findByNumeroConta}, cada busca na sua transação, lendo do
+ * cache de segundo nível ou ignorando-o ({@link CacheMode#IGNORE}).
+ * Rode com {@code mvn test -Pbenchmark -Dtest=CacheSegundoNivelBenchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.com.example.banking=INFO"
+})
+class CacheSegundoNivelBenchmarkTest {
+
+    private static final long DURACAO_MS = Long.getLong("benchmark.duracao-ms", 5_000);
+    private static final long AQUECIMENTO_MS = Long.getLong("benchmark.aquecimento-ms", 3_000);
+    private static final int LEITORES = Integer.getInteger("benchmark.leitores", 8);
+    private static final int CONTAS = 1_000;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private List<String> contas;
+
+    @BeforeEach
+    void setUp() {
+        contas = new ArrayList<>(CONTAS);
+        var clientes = new ArrayList<Cliente>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            var numeroConta = String.valueOf(UUID.randomUUID());
+            contas.add(numeroConta);
+            clientes.add(Cliente.builder().nome("Benchmark " + i).numeroConta(numeroConta).saldo(10_000L).build());
+        }
+        clienteRepository.saveAll(clientes);
+    }
+
+    @ParameterizedTest(name = "cache de segundo nível={0}")
+    @ValueSource(booleans = {false, true})
+    void medirVazaoDeBuscaPorConta(boolean habilitado) throws Exception {
+        var modo = habilitado ? CacheMode.NORMAL : CacheMode.IGNORE;
+        buscarAte(System.currentTimeMillis() + AQUECIMENTO_MS, modo);
+
+        var tarefas = new ArrayList<Callable<Long>>();
+        for (int i = 0; i < LEITORES; i++) {
+            tarefas.add(() -> buscarAte(System.currentTimeMillis() + DURACAO_MS, modo));
+        }
+        long buscas = 0;
+        var inicio = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(LEITORES)) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                buscas += futuro.get();
+            }
+        }
+        var segundos = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.printf("[cache-segundo-nivel] habilitado=%s leitores=%d buscas/s=%.1f%n",
+                habilitado, LEITORES, buscas / segundos);
+    }
+
+    private long buscarAte(long fim, CacheMode modo) {
+        var leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        long buscas = 0;
+        while (System.currentTimeMillis() < fim) {
+            var conta = contas.get(ThreadLocalRandom.current().nextInt(contas.size()));
+            leitura.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setCacheMode(modo);
+                clienteRepository.findByNumeroConta(conta);
+            });
+            buscas++;
+        }
+        return buscas;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static com.example.banking.benchmark.CargaTransferenciasBenchmark.percentil;
+
+/**
+ * Latência (p50/p99) e vazão de transferências pela engine configurada com concorrência
+ * crescente, para comparar a configuração padrão com o perfil {@code performance}. As subclasses
+ * só mudam o perfil; cada escritor usa uma sequência aleatória de semente fixa, de modo que as
+ * duas execuções fazem as mesmas transferências.
+ * <p>
+ * O antifraude fica desligado nas duas subclasses, já que o perfil {@code producao}, incluído
+ * pelo {@code performance}, o liga. No perfil Maven {@code benchmark} cada classe roda numa JVM
+ * própria: na mesma JVM os dois contextos dividiriam o banco em memória ({@code bankingdb}) e a
+ * segunda classe herdaria o JIT já aquecido pela primeira.
+ */
+@Tag("benchmark")
+abstract class CargaPerfilBenchmark {
+
+    private static final long DURACAO_MS = Long.getLong("benchmark.duracao-ms", 5_000);
+    private static final long AQUECIMENTO_MS = Long.getLong("benchmark.aquecimento-ms", 5_000);
+    private static final int CONTAS = 1_000;
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private Environment environment;
+
+    static Stream<Integer> concorrencias() {
+        return Arrays.stream(System.getProperty("benchmark.concorrencia", "1,8,32,128").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf);
+    }
+
+    @ParameterizedTest(name = "{0} escritores")
+    @MethodSource("concorrencias")
+    void medirLatenciaPorConcorrencia(int escritores) throws Exception {
+        var contas = salvarContas();
+        transferirAte(System.currentTimeMillis() + AQUECIMENTO_MS, contas, new SplittableRandom(0));
+
+        var tarefas = new ArrayList<Callable<long[]>>(escritores);
+        var fim = System.currentTimeMillis() + DURACAO_MS;
+        for (int i = 0; i < escritores; i++) {
+            var aleatorio = new SplittableRandom(i + 1);
+            tarefas.add(() -> transferirAte(fim, contas, aleatorio));
+        }
+        var latencias = new ArrayList<long[]>(escritores);
+        var inicio = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(escritores)) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                latencias.add(futuro.get());
+            }
+        }
+        var segundos = (System.nanoTime() - inicio) / 1e9;
+
+        var ordenadas = latencias.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("[carga-perfil] perfis=%s escritores=%d transferencias/s=%.1f p50=%.2fms p99=%.2fms%n",
+                Arrays.toString(environment.getActiveProfiles()), escritores, ordenadas.length / segundos,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99));
+    }
+
+    private long[] transferirAte(long fim, List<String> contas, SplittableRandom aleatorio) {
+        var latencias = new long[1024];
+        int total = 0;
+        while (System.currentTimeMillis() < fim) {
+            var dto = TransferenciaDTO.builder()
+                    .contaOrigem(contas.get(aleatorio.nextInt(contas.size())))
+                    .contaDestino(contas.get(aleatorio.nextInt(contas.size())))
+                    .valor(100L)
+                    .build();
+            var envio = System.nanoTime();
+            transferenciaEngine.realizarTransferencia(dto);
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = System.nanoTime() - envio;
+        }
+        return Arrays.copyOf(latencias, total);
+    }
+
+    private List<String> salvarContas() {
+        var contas = new ArrayList<String>(CONTAS);
+        var clientes = new ArrayList<Cliente>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            var numeroConta = String.valueOf(UUID.randomUUID());
+            contas.add(numeroConta);
+            clientes.add(Cliente.builder().nome("Carga " + i).numeroConta(numeroConta).saldo(100_000_000_000L).build());
+        }
+        clienteRepository.saveAll(clientes);
+        return contas;
+    }
+}
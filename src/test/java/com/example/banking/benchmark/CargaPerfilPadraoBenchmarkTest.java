@@ -0,0 +1,11 @@
+package com.example.banking.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Linha de base da carga por perfil: a configuração padrão, com o log de SQL ligado.
+ * Rode com {@code mvn test -Pbenchmark -Dtest='CargaPerfil*BenchmarkTest'}.
+ */
+@SpringBootTest(properties = "banking.antifraude.habilitado=false")
+class CargaPerfilPadraoBenchmarkTest extends CargaPerfilBenchmark {
+}
@@ -0,0 +1,14 @@
+package com.example.banking.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Carga por perfil com o perfil {@code performance}: pool Hikari fixo, cache de comandos
+ * preparados, batch JDBC maior e sem log de SQL.
+ * Rode com {@code mvn test -Pbenchmark -Dtest='CargaPerfil*BenchmarkTest'}.
+ */
+@SpringBootTest(properties = "banking.antifraude.habilitado=false")
+@ActiveProfiles("performance")
+class CargaPerfilPerformanceBenchmarkTest extends CargaPerfilBenchmark {
+}
@@ -0,0 +1,11 @@
+package com.example.banking.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Carga HTTP com o pool de threads de plataforma do Tomcat.
+ * Rode com {@code mvn test -Pbenchmark -Dtest='CargaThreads*BenchmarkTest'}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=false")
+class CargaThreadsPlataformaBenchmarkTest extends CargaTransferenciasBenchmark {
+}
@@ -0,0 +1,11 @@
+package com.example.banking.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Carga HTTP com as threads virtuais do Tomcat.
+ * Rode com {@code mvn test -Pbenchmark -Dtest='CargaThreads*BenchmarkTest'}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+class CargaThreadsVirtuaisBenchmarkTest extends CargaTransferenciasBenchmark {
+}
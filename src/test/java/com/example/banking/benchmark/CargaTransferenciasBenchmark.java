@@ -0,0 +1,141 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS;
+
+/**
+ * Dispara transferências por HTTP contra o Tomcat real com 1 mil a 10 mil clientes simultâneos.
+ * As subclasses só mudam o modelo de threads do servidor. Acima de alguns milhares de clientes
+ * é preciso aumentar o limite de arquivos abertos ({@code ulimit -n}).
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.hibernate.orm.jdbc.batch=OFF",
+        "logging.level.com.example.banking=INFO",
+        "server.tomcat.max-connections=20000",
+        "server.tomcat.accept-count=10000"
+})
+abstract class CargaTransferenciasBenchmark {
+
+    private static final long DURACAO_MS = Long.getLong("benchmark.duracao-ms", 10_000);
+    private static final int CONTAS = 1_000;
+
+    @LocalServerPort
+    private int porta;
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean threadsVirtuais;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    static Stream<Integer> concorrencias() {
+        return Arrays.stream(System.getProperty("benchmark.concorrencia", "1000,5000,10000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf);
+    }
+
+    @ParameterizedTest(name = "{0} clientes simultâneos")
+    @MethodSource("concorrencias")
+    void medirVazaoPorHttp(int clientes) throws Exception {
+        var contas = salvarContas();
+        var uri = URI.create("http://localhost:" + porta + API_V_1_TRANSFERENCIAS);
+        var latencias = new ConcurrentLinkedQueue<Long>();
+        var erros = new AtomicLong();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var http = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(30)).build()) {
+            var fim = System.currentTimeMillis() + DURACAO_MS;
+            var inicio = System.nanoTime();
+            var tarefas = new ArrayList<Future<?>>(clientes);
+            for (int i = 0; i < clientes; i++) {
+                tarefas.add(executor.submit(() -> {
+                    while (System.currentTimeMillis() < fim) {
+                        var envio = System.nanoTime();
+                        try {
+                            var resposta = http.send(requisicao(uri, contas), HttpResponse.BodyHandlers.discarding());
+                            if (resposta.statusCode() >= 300) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        latencias.add(System.nanoTime() - envio);
+                    }
+                    return null;
+                }));
+            }
+            for (var tarefa : tarefas) {
+                tarefa.get();
+            }
+            var segundos = (System.nanoTime() - inicio) / 1e9;
+
+            var ordenadas = latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("[carga-http] threadsVirtuais=%s clientes=%d requisicoes/s=%.1f p50=%.1fms p99=%.1fms erros=%d%n",
+                    threadsVirtuais, clientes, ordenadas.length / segundos,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), erros.get());
+        }
+    }
+
+    private HttpRequest requisicao(URI uri, List<String> contas) throws Exception {
+        var aleatorio = ThreadLocalRandom.current();
+        var origem = contas.get(aleatorio.nextInt(contas.size()));
+        var destino = contas.get(aleatorio.nextInt(contas.size()));
+        var corpo = objectMapper.writeValueAsString(TransferenciaDTO.builder()
+                .contaOrigem(origem).contaDestino(destino).valor(100L).build());
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private List<String> salvarContas() {
+        var contas = new ArrayList<String>(CONTAS);
+        var clientes = new ArrayList<Cliente>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            var numeroConta = String.valueOf(UUID.randomUUID());
+            contas.add(numeroConta);
+            clientes.add(Cliente.builder().nome("Carga " + i).numeroConta(numeroConta).saldo(100_000_000_000L).build());
+        }
+        clienteRepository.saveAll(clientes);
+        return contas;
+    }
+
+    static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(percentil * ordenadas.length) - 1)] / 1e6;
+    }
+}
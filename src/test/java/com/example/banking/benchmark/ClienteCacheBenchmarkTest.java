@@ -0,0 +1,109 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.ClienteCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.example.banking.utils.ApiPaths.API_V_1_CLIENTES_COM_NUMERO_CONTA;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Vazão de {@code GET /api/v1/clientes/{numeroConta}} com e sem o cache de clientes.
+ * Rode com {@code mvn test -Pbenchmark -Dtest=ClienteCacheBenchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.com.example.banking=INFO"
+})
+class ClienteCacheBenchmarkTest {
+
+    private static final long DURACAO_MS = Long.getLong("benchmark.duracao-ms", 5_000);
+    private static final long AQUECIMENTO_MS = Long.getLong("benchmark.aquecimento-ms", 3_000);
+    private static final int LEITORES = Integer.getInteger("benchmark.leitores", 8);
+    private static final int CONTAS = 1_000;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ClienteCache clienteCache;
+
+    private MockMvc mockMvc;
+    private List<String> contas;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        contas = new ArrayList<>(CONTAS);
+        var clientes = new ArrayList<Cliente>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            var numeroConta = String.valueOf(UUID.randomUUID());
+            contas.add(numeroConta);
+            clientes.add(Cliente.builder().nome("Benchmark " + i).numeroConta(numeroConta).saldo(10_000L).build());
+        }
+        clienteRepository.saveAll(clientes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clienteCache.setHabilitado(true);
+    }
+
+    @ParameterizedTest(name = "cache habilitado={0}")
+    @ValueSource(booleans = {false, true})
+    void medirVazaoDeConsultaPorConta(boolean habilitado) throws Exception {
+        clienteCache.setHabilitado(habilitado);
+        consultarAte(System.currentTimeMillis() + AQUECIMENTO_MS);
+
+        var tarefas = new ArrayList<Callable<Long>>();
+        for (int i = 0; i < LEITORES; i++) {
+            tarefas.add(() -> consultarAte(System.currentTimeMillis() + DURACAO_MS));
+        }
+        var antes = clienteCache.estatisticas();
+        long consultas = 0;
+        var inicio = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(LEITORES)) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                consultas += futuro.get();
+            }
+        }
+        var segundos = (System.nanoTime() - inicio) / 1e9;
+
+        var depois = clienteCache.estatisticas();
+        var acertos = depois.getAcertos() - antes.getAcertos();
+        var falhas = depois.getFalhas() - antes.getFalhas();
+        System.out.printf("[cache-clientes] habilitado=%s leitores=%d consultas/s=%.1f acertos=%d falhas=%d%n",
+                habilitado, LEITORES, consultas / segundos, acertos, falhas);
+    }
+
+    private long consultarAte(long fim) throws Exception {
+        long consultas = 0;
+        while (System.currentTimeMillis() < fim) {
+            var conta = contas.get(ThreadLocalRandom.current().nextInt(contas.size()));
+            mockMvc.perform(get(String.format(API_V_1_CLIENTES_COM_NUMERO_CONTA, conta)));
+            consultas++;
+        }
+        return consultas;
+    }
+}
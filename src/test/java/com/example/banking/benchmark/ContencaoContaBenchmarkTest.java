@@ -0,0 +1,120 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.ClienteService;
+import com.example.banking.service.ModoConcorrencia;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão de transferências com 1, 8 e 64 escritores disputando uma única conta.
+ * Rode com {@code mvn test -Pbenchmark -Dtest=ContencaoContaBenchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.com.example.banking=INFO",
+        "banking.concorrencia.tentativas=20"
+})
+class ContencaoContaBenchmarkTest {
+
+    private static final long DURACAO_MS = Long.getLong("benchmark.duracao-ms", 5_000);
+    private static final long AQUECIMENTO_MS = Long.getLong("benchmark.aquecimento-ms", 3_000);
+    private static final long SALDO_INICIAL = 100_000_000_000L;
+
+    private static boolean aquecido;
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    static Stream<Arguments> cenarios() {
+        return Stream.of(ModoConcorrencia.values())
+                .flatMap(modo -> Stream.of(1, 8, 64).map(escritores -> Arguments.of(modo, escritores)));
+    }
+
+    @ParameterizedTest(name = "{0} com {1} escritores")
+    @MethodSource("cenarios")
+    void medirVazaoNaContaQuente(ModoConcorrencia modo, int escritores) throws Exception {
+        Object alvo = AopTestUtils.getTargetObject(clienteService);
+        ReflectionTestUtils.setField(alvo, "modoConcorrencia", modo);
+        aquecer();
+
+        var contaQuente = salvarCliente(SALDO_INICIAL);
+        var tarefas = new ArrayList<Callable<long[]>>();
+        for (int i = 0; i < escritores; i++) {
+            var conta = salvarCliente(SALDO_INICIAL);
+            tarefas.add(() -> transferirAte(System.currentTimeMillis() + DURACAO_MS, contaQuente, conta));
+        }
+
+        long sucessos = 0;
+        long falhas = 0;
+        var inicio = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(escritores)) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                sucessos += futuro.get()[0];
+                falhas += futuro.get()[1];
+            }
+        }
+        var segundos = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.printf("[contencao] modo=%s escritores=%d transferencias/s=%.1f sucessos=%d falhas=%d%n",
+                modo, escritores, sucessos / segundos, sucessos, falhas);
+
+        var saldoFinal = clienteService.buscarPorNumeroConta(contaQuente).getSaldo();
+        assertEquals(SALDO_INICIAL - sucessos, saldoFinal);
+    }
+
+    private void aquecer() {
+        if (!aquecido) {
+            transferirAte(System.currentTimeMillis() + AQUECIMENTO_MS, salvarCliente(SALDO_INICIAL), salvarCliente(SALDO_INICIAL));
+            aquecido = true;
+        }
+    }
+
+    private long[] transferirAte(long fim, String contaQuente, String conta) {
+        long sucessos = 0;
+        long falhas = 0;
+        var dto = TransferenciaDTO.builder().contaOrigem(contaQuente).contaDestino(conta).valor(100L).build();
+        while (System.currentTimeMillis() < fim) {
+            if (transferenciaEngine.realizarTransferencia(dto).getSucesso()) {
+                sucessos++;
+            } else {
+                falhas++;
+            }
+        }
+        return new long[]{sucessos, falhas};
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Benchmark " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vazão e latência de confirmação da engine em memória com o journal mapeado em memória, com
+ * escritores em contas distintas; o commit em grupo deve fazer a vazão crescer com os escritores.
+ * Rode com {@code mvn test -Pbenchmark -Dtest=JournalTransferenciasBenchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.com.example.banking=INFO",
+        "banking.transferencia.engine=memoria",
+        "banking.transferencia.memoria.journal.arquivo=target/benchmark/journal-transferencias.dat"
+})
+class JournalTransferenciasBenchmarkTest {
+
+    private static final long DURACAO_MS = Long.getLong("benchmark.duracao-ms", 5_000);
+    private static final long SALDO_INICIAL = 100_000_000_000L;
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @ParameterizedTest(name = "{0} escritores")
+    @ValueSource(ints = {1, 8, 64})
+    void medirVazaoComJournal(int escritores) throws Exception {
+        var tarefas = new ArrayList<Callable<long[]>>();
+        for (int i = 0; i < escritores; i++) {
+            var origem = salvarCliente(SALDO_INICIAL);
+            var destino = salvarCliente(0L);
+            tarefas.add(() -> transferirAte(System.currentTimeMillis() + DURACAO_MS, origem, destino));
+        }
+
+        long confirmadas = 0;
+        long nanosConfirmacao = 0;
+        var inicio = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(escritores)) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                confirmadas += futuro.get()[0];
+                nanosConfirmacao += futuro.get()[1];
+            }
+        }
+        var segundos = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.printf("[journal] escritores=%d transferencias/s=%.1f latencia-media-us=%.1f confirmadas=%d%n",
+                escritores, confirmadas / segundos, nanosConfirmacao / 1e3 / Math.max(1, confirmadas), confirmadas);
+        assertTrue(confirmadas > 0);
+    }
+
+    private long[] transferirAte(long fim, String origem, String destino) {
+        long confirmadas = 0;
+        long nanos = 0;
+        var dto = TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(1L).build();
+        while (System.currentTimeMillis() < fim) {
+            var inicio = System.nanoTime();
+            if (transferenciaEngine.realizarTransferencia(dto).getSucesso()) {
+                confirmadas++;
+                nanos += System.nanoTime() - inicio;
+            }
+        }
+        return new long[]{confirmadas, nanos};
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Benchmark " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+}
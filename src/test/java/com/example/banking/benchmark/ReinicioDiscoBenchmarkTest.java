@@ -0,0 +1,141 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.BankingApplication;
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reinício com o perfil {@code disco} sobre um banco em arquivo já populado, com e sem
+ * aquecimento, cada um numa JVM nova: mede o tempo até a aplicação ficar pronta, a primeira
+ * transferência e, com a vazão contada por segundo, quanto tempo leva até atingir 90% do pico.
+ * Rode com {@code mvn test -Pbenchmark -Dtest=ReinicioDiscoBenchmarkTest}.
+ */
+@Tag("benchmark")
+class ReinicioDiscoBenchmarkTest {
+
+    private static final int SEGUNDOS = Integer.getInteger("benchmark.segundos", 20);
+    private static final int ESCRITORES = Integer.getInteger("benchmark.escritores", 8);
+    private static final int CONTAS = Integer.getInteger("benchmark.contas", 10_000);
+
+    @TempDir
+    static Path diretorio;
+
+    /** Preenchida só na JVM de {@link Medicao}. */
+    private static List<String> contas;
+
+    @BeforeAll
+    static void popular() {
+        try (var contexto = iniciar(false)) {
+            var clientes = new ArrayList<Cliente>(CONTAS);
+            for (int i = 0; i < CONTAS; i++) {
+                clientes.add(Cliente.builder().nome("Reinicio " + i).numeroConta(numeroConta(i))
+                        .saldo(100_000_000L).build());
+            }
+            contexto.getBean(ClienteRepository.class).saveAll(clientes);
+        }
+    }
+
+    @ParameterizedTest(name = "aquecimento={0}")
+    @ValueSource(booleans = {false, true})
+    void medirReinicio(boolean aquecimento) throws Exception {
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var processo = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "-Dbenchmark.segundos=" + SEGUNDOS, "-Dbenchmark.escritores=" + ESCRITORES,
+                Medicao.class.getName(), diretorio.toString(), String.valueOf(aquecimento), String.valueOf(CONTAS))
+                .redirectErrorStream(true)
+                .start();
+        processo.getInputStream().transferTo(System.out);
+        assertEquals(0, processo.waitFor());
+    }
+
+    /** Executada numa JVM nova, para que a compilação do JIT de uma medição não favoreça a outra. */
+    static class Medicao {
+
+        public static void main(String[] argumentos) throws Exception {
+            diretorio = Path.of(argumentos[0]);
+            var aquecimento = Boolean.parseBoolean(argumentos[1]);
+            contas = IntStream.range(0, Integer.parseInt(argumentos[2])).mapToObj(ReinicioDiscoBenchmarkTest::numeroConta).toList();
+
+            var inicio = System.nanoTime();
+            try (var contexto = iniciar(aquecimento)) {
+                var pronto = System.nanoTime();
+                var engine = contexto.getBean(TransferenciaEngine.class);
+                transferir(engine, new SplittableRandom(0));
+                var primeira = System.nanoTime();
+
+                var porSegundo = new AtomicLongArray(SEGUNDOS);
+                var fim = primeira + SEGUNDOS * 1_000_000_000L;
+                try (var executor = Executors.newFixedThreadPool(ESCRITORES)) {
+                    for (int i = 0; i < ESCRITORES; i++) {
+                        var aleatorio = new SplittableRandom(i + 1);
+                        executor.submit(() -> {
+                            long agora;
+                            while ((agora = System.nanoTime()) < fim) {
+                                transferir(engine, aleatorio);
+                                porSegundo.incrementAndGet((int) ((agora - primeira) / 1_000_000_000L));
+                            }
+                        });
+                    }
+                }
+
+                long pico = 0;
+                for (int i = 0; i < SEGUNDOS; i++) {
+                    pico = Math.max(pico, porSegundo.get(i));
+                }
+                var segundosAtePico = 0;
+                while (porSegundo.get(segundosAtePico) < pico * 0.9) {
+                    segundosAtePico++;
+                }
+                System.out.printf("[reinicio-disco] aquecimento=%s pronto=%dms primeira-transferencia=%.2fms " +
+                                "primeiro-segundo=%d/s pico=%d/s ate-90%%-do-pico=%ds%n",
+                        aquecimento, (pronto - inicio) / 1_000_000, (primeira - pronto) / 1e6,
+                        porSegundo.get(0), pico, segundosAtePico + 1);
+            }
+        }
+    }
+
+    private static String numeroConta(int indice) {
+        return String.format("R%08d", indice);
+    }
+
+    private static void transferir(TransferenciaEngine engine, SplittableRandom aleatorio) {
+        var origem = aleatorio.nextInt(contas.size());
+        var destino = (origem + 1 + aleatorio.nextInt(contas.size() - 1)) % contas.size();
+        engine.realizarTransferencia(TransferenciaDTO.builder()
+                .contaOrigem(contas.get(origem))
+                .contaDestino(contas.get(destino))
+                .valor(1L)
+                .build());
+    }
+
+    private static ConfigurableApplicationContext iniciar(boolean aquecimento) {
+        return new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("disco")
+                .run("--banking.dados.diretorio=" + diretorio,
+                        "--banking.aquecimento.habilitado=" + aquecimento,
+                        "--banking.antifraude.habilitado=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.banking=INFO");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.banking.config;
+
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.LimiteDiario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "banking.aquecimento.habilitado=true",
+        "banking.aquecimento.iteracoes=50"
+})
+class AquecimentoInicialTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private LimiteDiario limiteDiario;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAquecimentoNaoDeixaRastro() {
+        assertTrue(clienteRepository.findByNumeroConta("aquecimento-origem").isEmpty());
+        assertTrue(clienteRepository.findByNumeroConta("aquecimento-destino").isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transferencias WHERE conta_origem LIKE 'aquecimento-%'", Integer.class));
+        assertEquals(0L, limiteDiario.enviadoNaJanela("aquecimento-origem"));
+        assertEquals(0L, limiteDiario.enviadoNaJanela("aquecimento-destino"));
+    }
+}
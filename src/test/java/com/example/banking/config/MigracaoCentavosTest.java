@@ -0,0 +1,60 @@
+package com.example.banking.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MigracaoCentavosTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        var dataSource = new SingleConnectionDataSource("jdbc:h2:mem:migracao-" + UUID.randomUUID(), "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE clientes (id VARCHAR(255) PRIMARY KEY, saldo DOUBLE PRECISION NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE transferencias (id BIGINT PRIMARY KEY, valor DOUBLE PRECISION NOT NULL)");
+        jdbcTemplate.update("INSERT INTO clientes VALUES ('1', 1234.56), ('2', 0.29)");
+        jdbcTemplate.update("INSERT INTO transferencias VALUES (1, 10.1)");
+    }
+
+    @Test
+    void testMigrarConverteReaisEmCentavos() {
+        MigracaoCentavos.migrar(jdbcTemplate);
+
+        assertEquals(123456L, jdbcTemplate.queryForObject("SELECT saldo FROM clientes WHERE id = '1'", Long.class));
+        assertEquals(29L, jdbcTemplate.queryForObject("SELECT saldo FROM clientes WHERE id = '2'", Long.class));
+        assertEquals(1010L, jdbcTemplate.queryForObject("SELECT valor FROM transferencias", Long.class));
+        assertEquals("BIGINT", tipo("CLIENTES", "SALDO"));
+        assertEquals("BIGINT", tipo("TRANSFERENCIAS", "VALOR"));
+    }
+
+    @Test
+    void testMigrarNovamenteNaoAlteraValores() {
+        MigracaoCentavos.migrar(jdbcTemplate);
+        MigracaoCentavos.migrar(jdbcTemplate);
+
+        assertEquals(123456L, jdbcTemplate.queryForObject("SELECT saldo FROM clientes WHERE id = '1'", Long.class));
+    }
+
+    @Test
+    void testMigrarRetomaConversaoInterrompida() {
+        jdbcTemplate.execute("ALTER TABLE clientes ADD COLUMN saldo_centavos BIGINT");
+        jdbcTemplate.update("UPDATE clientes SET saldo_centavos = 123456 WHERE id = '1'");
+
+        MigracaoCentavos.migrar(jdbcTemplate);
+
+        assertEquals(123456L, jdbcTemplate.queryForObject("SELECT saldo FROM clientes WHERE id = '1'", Long.class));
+        assertEquals(29L, jdbcTemplate.queryForObject("SELECT saldo FROM clientes WHERE id = '2'", Long.class));
+    }
+
+    private String tipo(String tabela, String coluna) {
+        return jdbcTemplate.queryForObject("SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = ? AND COLUMN_NAME = ?", String.class, tabela, coluna);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.banking.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MigracaoVersaoClientesTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        var dataSource = new SingleConnectionDataSource("jdbc:h2:mem:migracao-" + UUID.randomUUID(), "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE clientes (id VARCHAR(255) PRIMARY KEY, saldo BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO clientes VALUES ('1', 1000), ('2', 2000)");
+    }
+
+    @Test
+    void testMigrarPreencheVersoesNulas() {
+        // Coluna como o ddl-auto a criava antes: anulável e sem valor nas linhas existentes.
+        jdbcTemplate.execute("ALTER TABLE clientes ADD COLUMN versao BIGINT");
+        jdbcTemplate.update("UPDATE clientes SET versao = 3 WHERE id = '2'");
+
+        MigracaoVersaoClientes.migrar(jdbcTemplate);
+
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT versao FROM clientes WHERE id = '1'", Long.class));
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT versao FROM clientes WHERE id = '2'", Long.class));
+        assertEquals("NO", anulavel());
+        jdbcTemplate.update("INSERT INTO clientes (id, saldo) VALUES ('3', 0)");
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT versao FROM clientes WHERE id = '3'", Long.class));
+        jdbcTemplate.update("UPDATE clientes SET saldo = saldo + 10, versao = versao + 1 WHERE id = '1'");
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT versao FROM clientes WHERE id = '1'", Long.class));
+    }
+
+    @Test
+    void testMigrarSemColunaNaoAlteraATabela() {
+        MigracaoVersaoClientes.migrar(jdbcTemplate);
+        MigracaoVersaoClientes.migrar(jdbcTemplate);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = 'CLIENTES' AND COLUMN_NAME = 'VERSAO'", Integer.class));
+    }
+
+    private String anulavel() {
+        return jdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = 'CLIENTES' AND COLUMN_NAME = 'VERSAO'", String.class);
+    }
+}
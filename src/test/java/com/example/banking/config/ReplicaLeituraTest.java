@@ -0,0 +1,131 @@
+package com.example.banking.config;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.TransferenciaService;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Primário e réplica em dois bancos H2 em memória; a "replicação" é uma cópia do primário feita
+ * pelo teste com SCRIPT/RUNSCRIPT, de modo que o que entra no primário depois dela só aparece
+ * nas leituras que o roteamento manda para o primário.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-leitura-primario;DB_CLOSE_DELAY=-1",
+        "banking.replica.habilitado=true",
+        "banking.replica.url=jdbc:h2:mem:replica-leitura-replica;DB_CLOSE_DELAY=-1",
+        "banking.replica.janela-consistencia=1m"
+})
+class ReplicaLeituraTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private TransferenciaService transferenciaService;
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    @Qualifier("dataSourcePrimario")
+    private DataSource primario;
+    @Autowired
+    @Qualifier("dataSourceReplica")
+    private DataSource replica;
+
+    private String origem;
+    private String destino;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        origem = salvarCliente();
+        destino = salvarCliente();
+        replicar();
+    }
+
+    @Test
+    void testLeituraVaiParaReplica() {
+        var id = inserirNoPrimario(origem, destino);
+
+        assertTrue(idsDoHistorico(origem).isEmpty());
+        assertTrue(idsDoHistorico(destino).isEmpty());
+        assertEquals(List.of(id), new JdbcTemplate(primario).queryForList(
+                "SELECT id FROM transferencias WHERE conta_origem = ?", Long.class, origem));
+    }
+
+    @Test
+    void testContaRecemTransferidaLidaDoPrimario() {
+        var inserida = inserirNoPrimario(destino, origem);
+        var transferencia = transferenciaEngine.realizarTransferencia(TransferenciaDTO.builder()
+                .contaOrigem(origem).contaDestino(destino).valor(1_000L).build());
+        assertTrue(transferencia.getSucesso());
+
+        assertEquals(List.of(transferencia.getId(), inserida), idsDoHistorico(origem));
+        assertEquals(0, new JdbcTemplate(replica).queryForObject(
+                "SELECT COUNT(*) FROM transferencias WHERE conta_origem = ?", Integer.class, origem));
+
+        var outra = salvarCliente();
+        inserirNoPrimario(outra, "inexistente");
+        assertTrue(idsDoHistorico(outra).isEmpty());
+    }
+
+    @Test
+    void testLeituraParaEscritaForaDeTransacaoVaiAoPrimario() {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        new JdbcTemplate(primario).update("INSERT INTO clientes (id, nome, numero_conta, saldo, versao) VALUES (?, ?, ?, ?, 0)",
+                UUID.randomUUID().toString(), "Replica", numeroConta, 5_000L);
+
+        assertEquals(5_000L, clienteRepository.findByNumeroConta(numeroConta).orElseThrow().getSaldo());
+        assertEquals(1, clienteRepository.findByNumeroContaIn(List.of(numeroConta, origem)).stream()
+                .filter(cliente -> cliente.getNumeroConta().equals(numeroConta))
+                .count());
+    }
+
+    private List<Long> idsDoHistorico(String conta) {
+        return transferenciaService.buscarHistoricoTransferencias(conta, null, null).getItens().stream()
+                .map(Transferencia::getId)
+                .toList();
+    }
+
+    private void replicar() throws IOException {
+        var copia = File.createTempFile("replica", ".sql");
+        copia.deleteOnExit();
+        new JdbcTemplate(primario).execute("SCRIPT TO '" + copia.getAbsolutePath() + "'");
+        var jdbcReplica = new JdbcTemplate(replica);
+        jdbcReplica.execute("DROP ALL OBJECTS");
+        jdbcReplica.execute("RUNSCRIPT FROM '" + copia.getAbsolutePath() + "'");
+    }
+
+    /** Fora do JPA, sem marcar as contas como recém-escritas; id negativo, fora da faixa da sequência. */
+    private long inserirNoPrimario(String origem, String destino) {
+        var id = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        new JdbcTemplate(primario).update("INSERT INTO transferencias (id, conta_origem, conta_destino, valor, data_transferencia, sucesso, mensagem) " +
+                "VALUES (?, ?, ?, 100, ?, TRUE, ?)", id, origem, destino, LocalDateTime.now().minusSeconds(1),
+                RegrasTransferencia.MENSAGEM_SUCESSO);
+        return id;
+    }
+
+    private String salvarCliente() {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder().nome("Replica").numeroConta(numeroConta).saldo(100_000L).build());
+        return numeroConta;
+    }
+}
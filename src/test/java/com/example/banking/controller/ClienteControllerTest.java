@@ -1,8 +1,10 @@
 package com.example.banking.controller;
 
 import com.example.banking.dto.ClienteDTO;
+import com.example.banking.dto.TransferenciaDTO;
 import com.example.banking.model.Cliente;
 import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.ImportacaoClientesService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,10 +19,16 @@ import org.springframework.web.context.WebApplicationContext;
 import java.util.UUID;
 
 import static com.example.banking.utils.ApiPaths.API_V_1_CLIENTES;
+import static com.example.banking.utils.ApiPaths.API_V_1_CLIENTES_CACHE_ESTATISTICAS;
 import static com.example.banking.utils.ApiPaths.API_V_1_CLIENTES_COM_NUMERO_CONTA;
+import static com.example.banking.utils.ApiPaths.API_V_1_CLIENTES_EXPORTACAO;
+import static com.example.banking.utils.ApiPaths.API_V_1_CLIENTES_IMPORTACAO;
+import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -44,7 +52,7 @@ class ClienteControllerTest {
     @BeforeEach
     public void setUp() {
         ID = String.valueOf(UUID.randomUUID());
-        clienteDTO = getClienteBuilder("Maria", ID, 2000.0);
+        clienteDTO = getClienteBuilder("Maria", ID, 200_000L);
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
         clienteRepository.deleteAll();
     }
@@ -62,9 +70,9 @@ class ClienteControllerTest {
 
     @Test
     public void testarListarClientes() throws Exception {
-        var cliente1 = getClienteBuilder("Ana", ID, 1500.0);
+        var cliente1 = getClienteBuilder("Ana", ID, 150_000L);
 
-        var cliente2 = getClienteBuilder("Pedro", String.valueOf(UUID.randomUUID()), 2500.0);
+        var cliente2 = getClienteBuilder("Pedro", String.valueOf(UUID.randomUUID()), 250_000L);
 
         salvarClienteNoRepositorio(cliente1);
 
@@ -84,7 +92,7 @@ class ClienteControllerTest {
                 .build());
     }
 
-    private ClienteDTO getClienteBuilder(String nome, String ID, double saldo) {
+    private ClienteDTO getClienteBuilder(String nome, String ID, long saldo) {
         return ClienteDTO.builder()
                 .nome(nome)
                 .numeroConta(ID)
@@ -107,6 +115,29 @@ class ClienteControllerTest {
                 .andExpect(jsonPath("$.saldo", is(2000.0)));
     }
 
+    @Test
+    public void testBuscarPorNumeroConta_RefleteTransferenciaAposCache() throws Exception {
+        var destino = String.valueOf(UUID.randomUUID());
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(getClienteBuilder("Ana", destino, 10_000L));
+        var url = String.format(API_V_1_CLIENTES_COM_NUMERO_CONTA, ID);
+
+        mockMvc.perform(get(url)).andExpect(jsonPath("$.saldo", is(2000.0)));
+        mockMvc.perform(get(url)).andExpect(jsonPath("$.saldo", is(2000.0)));
+
+        var transferencia = TransferenciaDTO.builder().contaOrigem(ID).contaDestino(destino).valor(50_000L).build();
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferencia)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(url)).andExpect(jsonPath("$.saldo", is(1500.0)));
+        mockMvc.perform(get(API_V_1_CLIENTES_CACHE_ESTATISTICAS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.acertos").isNumber())
+                .andExpect(jsonPath("$.tamanho").isNumber());
+    }
+
     @Test
     public void testBuscarPorNumeroConta_NaoEncontrado() throws Exception {
         var url = String.format(API_V_1_CLIENTES_COM_NUMERO_CONTA, "99999");
@@ -115,4 +146,96 @@ class ClienteControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message", is("Cliente não encontrado para a conta: 99999")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testarListarClientesPaginadoPorCursor() throws Exception {
+        salvarClienteNoRepositorio(getClienteBuilder("Ana", "0001", 10_000L));
+        salvarClienteNoRepositorio(getClienteBuilder("Bruno", "0002", 20_000L));
+        salvarClienteNoRepositorio(getClienteBuilder("Carla", "0003", 30_000L));
+
+        var cursor = mockMvc.perform(get(API_V_1_CLIENTES).param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].numeroConta", is("0001")))
+                .andExpect(jsonPath("$[1].numeroConta", is("0002")))
+                .andReturn().getResponse().getHeader("X-Proximo-Cursor");
+
+        mockMvc.perform(get(API_V_1_CLIENTES).param("limite", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].numeroConta", is("0003")))
+                .andExpect(header().doesNotExist("X-Proximo-Cursor"));
+    }
+
+    @Test
+    public void testarExportarClientes() throws Exception {
+        salvarClienteNoRepositorio(getClienteBuilder("Ana", "0001", 10_000L));
+        salvarClienteNoRepositorio(getClienteBuilder("Bruno", "0002", 20_000L));
+
+        mockMvc.perform(get(API_V_1_CLIENTES_EXPORTACAO).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].nome", is("Bruno")));
+
+        var ndjson = mockMvc.perform(get(API_V_1_CLIENTES_EXPORTACAO).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        var linhas = ndjson.strip().split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("0001", objectMapper.readTree(linhas[0]).get("numeroConta").asText());
+    }
+
+    @Test
+    public void testarImportarClientesCsv() throws Exception {
+        salvarClienteNoRepositorio(getClienteBuilder("Ana", "0001", 10_000L));
+        var csv = """
+                nome,numeroConta,saldo
+                "Silva, Bruno",0002,150.25
+                Ana Repetida,0001,10
+                Carla,0003,0
+                Carla de novo,0003,5
+                ,0004,1
+                Duda,0005,abc
+                """;
+
+        mockMvc.perform(post(API_V_1_CLIENTES_IMPORTACAO).contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linhas").value(6))
+                .andExpect(jsonPath("$.importadas").value(2))
+                .andExpect(jsonPath("$.rejeitadas").value(4))
+                .andExpect(jsonPath("$.erros[0].linha").value(3))
+                .andExpect(jsonPath("$.erros[0].mensagem").value(ImportacaoClientesService.MENSAGEM_CONTA_DUPLICADA))
+                .andExpect(jsonPath("$.erros[1].linha").value(5))
+                .andExpect(jsonPath("$.erros[1].numeroConta").value("0003"))
+                .andExpect(jsonPath("$.erros[2].mensagem").value(ImportacaoClientesService.MENSAGEM_NOME_OBRIGATORIO))
+                .andExpect(jsonPath("$.erros[3].linha").value(7));
+
+        var bruno = clienteRepository.findByNumeroConta("0002").orElseThrow();
+        assertEquals("Silva, Bruno", bruno.getNome());
+        assertEquals(15_025L, bruno.getSaldo());
+        assertEquals(3, clienteRepository.count());
+    }
+
+    @Test
+    public void testarImportarClientesNdjson() throws Exception {
+        var ndjson = """
+                {"nome":"Ana","numeroConta":"1001","saldo":10.5}
+                {"nome":"Bruno","numeroConta":
+                {"nome":"Carla","numeroConta":"1002","saldo":-1}
+                {"nome":"Duda","numeroConta":"1003"}
+                """;
+
+        mockMvc.perform(post(API_V_1_CLIENTES_IMPORTACAO).contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importadas").value(2))
+                .andExpect(jsonPath("$.rejeitadas").value(2))
+                .andExpect(jsonPath("$.erros[0].linha").value(2))
+                .andExpect(jsonPath("$.erros[1].mensagem").value(ImportacaoClientesService.MENSAGEM_SALDO_NEGATIVO));
+
+        assertEquals(1_050L, clienteRepository.findByNumeroConta("1001").orElseThrow().getSaldo());
+        mockMvc.perform(get(String.format(API_V_1_CLIENTES_COM_NUMERO_CONTA, "1003")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Duda"));
+    }
+}
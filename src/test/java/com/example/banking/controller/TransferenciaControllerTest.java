@@ -3,27 +3,44 @@ package com.example.banking.controller;
 import com.example.banking.dto.ClienteDTO;
 import com.example.banking.dto.TransferenciaDTO;
 import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
 import com.example.banking.repository.ClienteRepository;
 import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.RegrasTransferencia;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS;
+import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS_COM_ID;
 import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS_COM_NUMERO_CONTA;
+import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS_EXPORTACAO_COM_NUMERO_CONTA;
+import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS_LOTE;
+import static com.example.banking.utils.ApiPaths.API_V_1_TRANSFERENCIAS_RESUMO_COM_NUMERO_CONTA;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -39,6 +56,10 @@ class TransferenciaControllerTest {
     private TransferenciaRepository transferenciaRepository;
     @Autowired
     private ClienteRepository clienteRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter conversorCbor;
 
 
     private TransferenciaDTO transferenciaDTO;
@@ -51,15 +72,15 @@ class TransferenciaControllerTest {
         ORIGEM_ID = String.valueOf(UUID.randomUUID());
         DESTINO_ID = String.valueOf(UUID.randomUUID());
 
-        clienteDTO = getClienteBuilder("Maria", ORIGEM_ID, 6500.0);
-        transferenciaDTO = getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 5000.0);
+        clienteDTO = getClienteBuilder("Maria", ORIGEM_ID, 650_000L);
+        transferenciaDTO = getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 500_000L);
 
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
         clienteRepository.deleteAll();
         transferenciaRepository.deleteAll();
     }
 
-    private TransferenciaDTO getTransferenciaBuild(String contaOrigem, String contaDestino, double valor) {
+    private TransferenciaDTO getTransferenciaBuild(String contaOrigem, String contaDestino, long valor) {
         return TransferenciaDTO.builder()
                 .contaOrigem(contaOrigem)
                 .contaDestino(contaDestino)
@@ -67,7 +88,7 @@ class TransferenciaControllerTest {
                 .build();
     }
 
-    private ClienteDTO getClienteBuilder(String nome, String ID, double saldo) {
+    private ClienteDTO getClienteBuilder(String nome, String ID, long saldo) {
         return ClienteDTO.builder()
                 .nome(nome)
                 .numeroConta(ID)
@@ -86,7 +107,7 @@ class TransferenciaControllerTest {
 
     @Test
     public void testRealizarTransferencia_Sucesso() throws Exception {
-        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 2500.0);
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
 
         salvarClienteNoRepositorio(clienteDTO);
         salvarClienteNoRepositorio(cliente2);
@@ -103,12 +124,12 @@ class TransferenciaControllerTest {
 
     @Test
     public void testRealizarTransferencia_FalhaSaldoInsuficiente() throws Exception {
-        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 2500.0);
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
 
         salvarClienteNoRepositorio(clienteDTO);
         salvarClienteNoRepositorio(cliente2);
 
-        transferenciaDTO.setValor(15000.0);
+        transferenciaDTO.setValor(1_500_000L);
 
         mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -117,9 +138,194 @@ class TransferenciaControllerTest {
                 .andExpect(jsonPath("$.sucesso", is(false)));
     }
 
+    @Test
+    public void testRealizarTransferencia_ValorNuloOuZeroRejeitado() throws Exception {
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(getClienteBuilder("Pedro", DESTINO_ID, 250_000L));
+
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"contaOrigem\":\"" + ORIGEM_ID + "\",\"contaDestino\":\"" + DESTINO_ID + "\",\"valor\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 0L))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.sucesso", is(false)))
+                .andExpect(jsonPath("$.mensagem", is(RegrasTransferencia.MENSAGEM_TRANSFERENCIA_INVALIDA)));
+
+        assertEquals(0, transferenciaRepository.count());
+    }
+
+    @Test
+    public void testRealizarTransferencia_RegistraMetricasPorResultado() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        var sucessos = contagem("sucesso");
+        var saldoInsuficiente = contagem("saldo_insuficiente");
+        var contaInexistente = contagem("conta_inexistente");
+
+        for (var dto : List.of(transferenciaDTO,
+                getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 900_000L),
+                getTransferenciaBuild(ORIGEM_ID, "99999", 1000L))) {
+            mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(dto)));
+        }
+
+        assertEquals(sucessos + 1, contagem("sucesso"));
+        assertEquals(saldoInsuficiente + 1, contagem("saldo_insuficiente"));
+        assertEquals(contaInexistente + 1, contagem("conta_inexistente"));
+        assertTrue(meterRegistry.get("banking.transacoes")
+                .tag("somente_leitura", "false").tag("desfecho", "commit")
+                .timer().count() > 0);
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "ClienteRepository").timers().stream().anyMatch(t -> t.count() > 0));
+    }
+
+    private long contagem(String resultado) {
+        return meterRegistry.get("banking.transferencias").tag("resultado", resultado).timer().count();
+    }
+
+    @Test
+    public void testRealizarTransferencia_RepeticaoComMesmaChaveNaoDebitaDeNovo() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        var chave = UUID.randomUUID().toString();
+        var primeira = mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .header("Idempotency-Key", chave)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferenciaDTO)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        var repetida = mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .header("Idempotency-Key", chave)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferenciaDTO)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(primeira), objectMapper.readTree(repetida));
+        assertEquals(150_000L, clienteRepository.findByNumeroConta(ORIGEM_ID).orElseThrow().getSaldo());
+        assertEquals(1, transferenciaRepository.count());
+
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .header("Idempotency-Key", chave)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 1000L))))
+                .andExpect(status().isUnprocessableEntity());
+        assertEquals(150_000L, clienteRepository.findByNumeroConta(ORIGEM_ID).orElseThrow().getSaldo());
+    }
+
+    @Test
+    public void testSubmeterTransferenciaAssincrona_ConsultaStatusAteConcluir() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        var resposta = mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferenciaDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        var id = objectMapper.readTree(resposta).get("id").asText();
+
+        var consulta = mockMvc.perform(get(String.format(API_V_1_TRANSFERENCIAS_COM_ID, id)).param("aguardar", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(consulta))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(id)))
+                .andExpect(jsonPath("$.status", is("CONCLUIDA")))
+                .andExpect(jsonPath("$.transferencia.sucesso", is(true)));
+        assertEquals(150_000L, clienteRepository.findByNumeroConta(ORIGEM_ID).orElseThrow().getSaldo());
+
+        mockMvc.perform(get(String.format(API_V_1_TRANSFERENCIAS_COM_ID, UUID.randomUUID())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testRealizarTransferencia_Cbor() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        var cbor = conversorCbor.getObjectMapper();
+        var resposta = mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(transferenciaDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var transferencia = cbor.readValue(resposta, Transferencia.class);
+        assertTrue(transferencia.getSucesso());
+        assertEquals(500_000L, transferencia.getValor());
+        assertEquals(ORIGEM_ID, transferencia.getContaOrigem());
+        assertNotNull(transferencia.getDataTransferencia());
+        assertTrue(resposta.length < objectMapper.writeValueAsBytes(transferencia).length);
+    }
+
+    @Test
+    public void testBuscarResumo_AcumuladoPorDia() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferenciaDTO)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferenciaDTO)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS_LOTE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                getTransferenciaBuild(DESTINO_ID, ORIGEM_ID, 10_000L),
+                                getTransferenciaBuild(DESTINO_ID, ORIGEM_ID, 20_000L)))))
+                .andExpect(status().isOk());
+
+        var hoje = LocalDate.now().toString();
+        mockMvc.perform(get(String.format(API_V_1_TRANSFERENCIAS_RESUMO_COM_NUMERO_CONTA, ORIGEM_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidade", is(3)))
+                .andExpect(jsonPath("$.totalDebitado", is(5000.0)))
+                .andExpect(jsonPath("$.totalCreditado", is(300.0)))
+                .andExpect(jsonPath("$.falhas", is(1)))
+                .andExpect(jsonPath("$.dias.length()", is(1)))
+                .andExpect(jsonPath("$.dias[0].dia", is(hoje)));
+        mockMvc.perform(get(String.format(API_V_1_TRANSFERENCIAS_RESUMO_COM_NUMERO_CONTA, DESTINO_ID))
+                        .param("de", hoje)
+                        .param("ate", hoje))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidade", is(3)))
+                .andExpect(jsonPath("$.totalDebitado", is(300.0)))
+                .andExpect(jsonPath("$.totalCreditado", is(5000.0)))
+                .andExpect(jsonPath("$.falhas", is(0)));
+        mockMvc.perform(get(String.format(API_V_1_TRANSFERENCIAS_RESUMO_COM_NUMERO_CONTA, ORIGEM_ID))
+                        .param("de", "2024-01-01")
+                        .param("ate", "2023-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testBuscarHistoricoTransferencias_Sucesso() throws Exception {
-        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 2500.0);
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
 
         salvarClienteNoRepositorio(clienteDTO);
         salvarClienteNoRepositorio(cliente2);
@@ -137,4 +343,117 @@ class TransferenciaControllerTest {
                 .andExpect(jsonPath("$[0].contaDestino", is(DESTINO_ID)))
                 .andExpect(jsonPath("$[0].valor", is(5000.0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRealizarLote_ResultadoPorItem() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        var lote = List.of(
+                getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 500_000L),
+                getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 200_000L),
+                getTransferenciaBuild(DESTINO_ID, ORIGEM_ID, 50_000L),
+                getTransferenciaBuild(ORIGEM_ID, "99999", 10_000L));
+
+        mockMvc.perform(post(API_V_1_TRANSFERENCIAS_LOTE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(4)))
+                .andExpect(jsonPath("$[0].sucesso", is(true)))
+                .andExpect(jsonPath("$[1].sucesso", is(false)))
+                .andExpect(jsonPath("$[1].mensagem", is("Saldo insuficiente para a transferência")))
+                .andExpect(jsonPath("$[2].sucesso", is(true)))
+                .andExpect(jsonPath("$[3].sucesso", is(false)))
+                .andExpect(jsonPath("$[3].mensagem", is("Cliente não encontrado para a conta: 99999")));
+
+        assertEquals(200_000L, clienteRepository.findByNumeroConta(ORIGEM_ID).orElseThrow().getSaldo());
+        assertEquals(700_000L, clienteRepository.findByNumeroConta(DESTINO_ID).orElseThrow().getSaldo());
+        assertEquals(4, transferenciaRepository.count());
+    }
+
+    @Test
+    public void testRealizarLoteNdjson_Sucesso() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        var corpo = objectMapper.writeValueAsString(getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 100_000L)) + "\n"
+                + "{ linha inválida\n"
+                + objectMapper.writeValueAsString(getTransferenciaBuild(DESTINO_ID, ORIGEM_ID, 25_000L)) + "\n";
+
+        var resposta = mockMvc.perform(post(API_V_1_TRANSFERENCIAS_LOTE)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var linhas = resposta.strip().split("\n");
+        assertEquals(3, linhas.length);
+        assertEquals(true, objectMapper.readTree(linhas[0]).get("sucesso").asBoolean());
+        assertEquals(false, objectMapper.readTree(linhas[1]).get("sucesso").asBoolean());
+        assertEquals(true, objectMapper.readTree(linhas[2]).get("sucesso").asBoolean());
+        assertEquals(575_000L, clienteRepository.findByNumeroConta(ORIGEM_ID).orElseThrow().getSaldo());
+    }
+
+    @Test
+    public void testBuscarHistoricoTransferencias_PaginadoPorCursor() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        for (var valor : List.of(10_000L, 20_000L, 30_000L)) {
+            mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, valor))))
+                    .andExpect(status().isCreated());
+        }
+
+        var url = String.format(API_V_1_TRANSFERENCIAS_COM_NUMERO_CONTA, DESTINO_ID);
+        var cursor = mockMvc.perform(get(url).param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].valor", is(300.0)))
+                .andExpect(jsonPath("$[1].valor", is(200.0)))
+                .andReturn().getResponse().getHeader("X-Proximo-Cursor");
+
+        mockMvc.perform(get(url).param("limite", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].valor", is(100.0)))
+                .andExpect(header().doesNotExist("X-Proximo-Cursor"));
+    }
+
+    @Test
+    public void testExportarHistoricoTransferencias_Ndjson() throws Exception {
+        var cliente2 = getClienteBuilder("Pedro", DESTINO_ID, 250_000L);
+
+        salvarClienteNoRepositorio(clienteDTO);
+        salvarClienteNoRepositorio(cliente2);
+
+        for (var dto : List.of(getTransferenciaBuild(ORIGEM_ID, DESTINO_ID, 10_000L),
+                getTransferenciaBuild(DESTINO_ID, ORIGEM_ID, 5000L),
+                getTransferenciaBuild(ORIGEM_ID, ORIGEM_ID, 1000L))) {
+            mockMvc.perform(post(API_V_1_TRANSFERENCIAS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(dto)));
+        }
+
+        var resposta = mockMvc.perform(get(String.format(API_V_1_TRANSFERENCIAS_EXPORTACAO_COM_NUMERO_CONTA, ORIGEM_ID)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var linhas = resposta.strip().split("\n");
+        assertEquals(3, linhas.length);
+        assertEquals(10.0, objectMapper.readTree(linhas[0]).get("valor").asDouble());
+        assertEquals(50.0, objectMapper.readTree(linhas[1]).get("valor").asDouble());
+        assertEquals(100.0, objectMapper.readTree(linhas[2]).get("valor").asDouble());
+    }
+}
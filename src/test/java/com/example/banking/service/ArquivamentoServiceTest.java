@@ -0,0 +1,134 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.TransferenciaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "banking.arquivamento.tamanho-lote=2")
+class ArquivamentoServiceTest {
+
+    @Autowired
+    private ArquivamentoService arquivamentoService;
+    @Autowired
+    private TransferenciaService transferenciaService;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testArquivarMoveAntigasEHistoricoMesclaAsDuasTabelas() {
+        var conta = String.valueOf(UUID.randomUUID());
+        var outra = String.valueOf(UUID.randomUUID());
+        var agora = LocalDateTime.now();
+        var salvas = new ArrayList<Transferencia>();
+        for (int i = 0; i < 5; i++) {
+            salvas.add(salvar(i % 2 == 0 ? conta : outra, i % 2 == 0 ? outra : conta, agora.minusDays(200).plusMinutes(i)));
+        }
+        for (int i = 0; i < 3; i++) {
+            salvas.add(salvar(conta, outra, agora.minusMinutes(3 - i)));
+        }
+
+        assertTrue(arquivamentoService.arquivar() >= 5);
+
+        assertEquals(3, contar("transferencias", conta));
+        assertEquals(5, contar("transferencias_arquivo", conta));
+
+        var esperadas = salvas.stream()
+                .sorted(Comparator.comparing(Transferencia::getDataTransferencia).reversed())
+                .map(Transferencia::getId)
+                .toList();
+        var paginadas = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var pagina = transferenciaService.buscarHistoricoTransferencias(conta, cursor, 3);
+            pagina.getItens().forEach(transferencia -> paginadas.add(transferencia.getId()));
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+        assertEquals(esperadas, paginadas);
+
+        var exportadas = new ArrayList<Long>();
+        transferenciaService.exportarHistoricoTransferencias(conta, transferencia -> exportadas.add(transferencia.getId()));
+        assertEquals(esperadas, exportadas);
+    }
+
+    @Test
+    void testHistoricoConsultaOArquivoQuandoCorrentesRetroativasEnchemAPagina() {
+        var conta = String.valueOf(UUID.randomUUID());
+        var outra = String.valueOf(UUID.randomUUID());
+        var agora = LocalDateTime.now();
+        var salvas = new ArrayList<Transferencia>();
+        for (int i = 0; i < 2; i++) {
+            salvas.add(salvar(conta, outra, agora.minusDays(200).plusMinutes(i)));
+        }
+        assertTrue(arquivamentoService.arquivar() >= 2);
+        assertEquals(2, contar("transferencias_arquivo", conta));
+
+        // Gravadas depois do arquivamento, mas com data anterior às arquivadas: só as correntes já
+        // enchem a primeira página, que ainda assim deve conter as duas arquivadas.
+        salvas.add(salvar(conta, outra, agora.minusMinutes(1)));
+        for (int i = 0; i < 3; i++) {
+            salvas.add(salvar(outra, conta, agora.minusDays(300).plusMinutes(i)));
+        }
+
+        var esperadas = salvas.stream()
+                .sorted(Comparator.comparing(Transferencia::getDataTransferencia).reversed())
+                .map(Transferencia::getId)
+                .toList();
+        var primeira = transferenciaService.buscarHistoricoTransferencias(conta, null, 3);
+        assertEquals(esperadas.subList(0, 3), primeira.getItens().stream().map(Transferencia::getId).toList());
+        var paginadas = new ArrayList<>(primeira.getItens().stream().map(Transferencia::getId).toList());
+        var cursor = primeira.getProximoCursor();
+        while (cursor != null) {
+            var pagina = transferenciaService.buscarHistoricoTransferencias(conta, cursor, 3);
+            pagina.getItens().forEach(transferencia -> paginadas.add(transferencia.getId()));
+            cursor = pagina.getProximoCursor();
+        }
+        assertEquals(esperadas, paginadas);
+
+        var exportadas = new ArrayList<Long>();
+        transferenciaService.exportarHistoricoTransferencias(conta, transferencia -> exportadas.add(transferencia.getId()));
+        assertEquals(esperadas, exportadas);
+    }
+
+    @Test
+    void testArquivarSemAntigasNaoMoveNada() {
+        var conta = String.valueOf(UUID.randomUUID());
+        salvar(conta, String.valueOf(UUID.randomUUID()), LocalDateTime.now());
+
+        arquivamentoService.arquivar();
+
+        assertEquals(1, contar("transferencias", conta));
+        assertEquals(0, contar("transferencias_arquivo", conta));
+        assertEquals(List.of(conta), transferenciaService.buscarHistoricoTransferencias(conta, null, null).getItens()
+                .stream().map(Transferencia::getContaOrigem).toList());
+    }
+
+    private Transferencia salvar(String origem, String destino, LocalDateTime data) {
+        return transferenciaRepository.save(Transferencia.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(100L)
+                .dataTransferencia(data)
+                .sucesso(true)
+                .mensagem(RegrasTransferencia.MENSAGEM_SUCESSO)
+                .build());
+    }
+
+    private int contar(String tabela, String conta) {
+        return jdbcTemplate.queryForObject("select count(*) from " + tabela + " where conta_origem = ? or conta_destino = ?",
+                Integer.class, conta, conta);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.CheckpointJournalRepository;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.IdempotenciaRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.engine.GravadorAssincrono;
+import com.example.banking.service.engine.TransferenciaEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.example.banking.config.CacheSegundoNivelConfig.REGIAO_CLIENTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "banking.concorrencia.tentativas=50")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private CheckpointJournalRepository checkpointJournalRepository;
+    @Autowired
+    private IdempotenciaRepository idempotenciaRepository;
+    @Autowired
+    private ClienteCache clienteCache;
+
+    private Statistics estatisticas;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void testBuscaPorNumeroContaVemDoCache() {
+        var numeroConta = salvarCliente(10_000L);
+        clienteRepository.findByNumeroConta(numeroConta);
+
+        var consultasAntes = estatisticas.getPrepareStatementCount();
+        var acertosAntes = estatisticas.getDomainDataRegionStatistics(REGIAO_CLIENTES).getHitCount();
+        var cliente = clienteRepository.findByNumeroConta(numeroConta).orElseThrow();
+
+        assertEquals(10_000L, cliente.getSaldo());
+        assertEquals(consultasAntes, estatisticas.getPrepareStatementCount());
+        assertTrue(estatisticas.getDomainDataRegionStatistics(REGIAO_CLIENTES).getHitCount() > acertosAntes);
+    }
+
+    @Test
+    void testBuscaPorNumeroContaNaMesmaTransacaoConsultaUmaVez() {
+        var numeroConta = salvarCliente(10_000L);
+        var leitura = new TransactionTemplate(transactionManager);
+
+        var consultasAntes = estatisticas.getPrepareStatementCount();
+        leitura.executeWithoutResult(status -> {
+            var primeira = clienteRepository.findByNumeroConta(numeroConta).orElseThrow();
+            var segunda = clienteRepository.findByNumeroConta(numeroConta).orElseThrow();
+            assertTrue(primeira == segunda);
+        });
+
+        assertTrue(estatisticas.getPrepareStatementCount() - consultasAntes <= 1);
+    }
+
+    @Test
+    void testSaldosConsistentesAposTransferenciasConcorrentes() throws Exception {
+        var contaQuente = salvarCliente(100_000_000L);
+        var contas = new ArrayList<String>();
+        for (int i = 0; i < 8; i++) {
+            contas.add(salvarCliente(100_000L));
+        }
+        contas.forEach(clienteRepository::findByNumeroConta);
+        clienteRepository.findByNumeroConta(contaQuente);
+
+        var tarefas = new ArrayList<Callable<Void>>();
+        for (var conta : contas) {
+            tarefas.add(() -> {
+                for (int i = 0; i < 10; i++) {
+                    transferenciaEngine.realizarTransferencia(i % 2 == 0
+                            ? getTransferencia(contaQuente, conta, 1000L)
+                            : getTransferencia(conta, contaQuente, 500L));
+                }
+                return null;
+            });
+        }
+        try (var executor = Executors.newFixedThreadPool(contas.size())) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                futuro.get();
+            }
+        }
+
+        long total = 0;
+        for (var conta : concatenar(contas, contaQuente)) {
+            var saldo = clienteRepository.findByNumeroConta(conta).orElseThrow().getSaldo();
+            assertEquals(saldoNoBanco(conta), saldo);
+            total += saldo;
+        }
+        assertEquals(100_000_000L + contas.size() * 100_000L, total);
+    }
+
+    @Test
+    void testAjusteEmLoteInvalidaCache() {
+        var numeroConta = salvarCliente(10_000L);
+        clienteRepository.findByNumeroConta(numeroConta);
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> clienteRepository.ajustarSaldo(numeroConta, -2_500L));
+
+        assertEquals(7_500L, clienteRepository.findByNumeroConta(numeroConta).orElseThrow().getSaldo());
+        assertEquals(7_500L, saldoNoBanco(numeroConta));
+    }
+
+    @Test
+    void testGravacaoDoGravadorMantemNoCacheAsOutrasContas() {
+        var origem = salvarCliente(10_000L);
+        var destino = salvarCliente(0L);
+        var outra = salvarCliente(5_000L);
+        List.of(origem, destino, outra).forEach(clienteRepository::findByNumeroConta);
+
+        var gravador = new GravadorAssincrono(new TransactionTemplate(transactionManager), transferenciaRepository,
+                clienteRepository, clienteCache, checkpointJournalRepository, idempotenciaRepository, null, 10, 10);
+        gravador.iniciar();
+        gravador.reservarVaga();
+        gravador.registrar(Transferencia.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(4_000L)
+                .dataTransferencia(LocalDateTime.now())
+                .sucesso(true)
+                .mensagem(RegrasTransferencia.MENSAGEM_SUCESSO)
+                .build(), 0, null);
+        gravador.encerrar();
+        assertEquals(6_000L, saldoNoBanco(origem));
+
+        var consultasAntes = estatisticas.getPrepareStatementCount();
+        assertEquals(5_000L, clienteRepository.findByNumeroConta(outra).orElseThrow().getSaldo());
+        assertEquals(consultasAntes, estatisticas.getPrepareStatementCount());
+
+        assertEquals(6_000L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+        assertEquals(4_000L, clienteRepository.findByNumeroConta(destino).orElseThrow().getSaldo());
+    }
+
+    @Test
+    void testBuscaPorVariasContas() {
+        var primeira = salvarCliente(1L);
+        var segunda = salvarCliente(2L);
+
+        var clientes = clienteRepository.findByNumeroContaIn(List.of(primeira, "inexistente", segunda));
+
+        assertEquals(Set.of(primeira, segunda), clientes.stream().map(Cliente::getNumeroConta).collect(Collectors.toSet()));
+    }
+
+    private long saldoNoBanco(String numeroConta) {
+        return jdbcTemplate.queryForObject("SELECT saldo FROM clientes WHERE numero_conta = ?", Long.class, numeroConta);
+    }
+
+    private static List<String> concatenar(List<String> contas, String conta) {
+        var todas = new ArrayList<>(contas);
+        todas.add(conta);
+        return todas;
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder().nome("Cache").numeroConta(numeroConta).saldo(saldo).build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(valor).build();
+    }
+}
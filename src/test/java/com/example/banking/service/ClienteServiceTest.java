@@ -11,10 +11,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +34,12 @@ class ClienteServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Spy
+    private ClienteCache clienteCache = new ClienteCache(1000, Duration.ofMinutes(5), true);
+
+    @Mock
+    private LeituraConsistente leituraConsistente;
+
     @InjectMocks
     private com.example.banking.service.ClienteService clienteService;
 
@@ -39,7 +48,7 @@ class ClienteServiceTest {
 
     private static String ORIGEM_ID;
 
-    private static Cliente getClienteSalvoBuilder(String id, String nome, String numeroConta, Double saldo) {
+    private static Cliente getClienteSalvoBuilder(String id, String nome, String numeroConta, long saldo) {
         return Cliente.builder()
                 .id(id)
                 .nome(nome)
@@ -52,7 +61,7 @@ class ClienteServiceTest {
         return ClienteDTO.builder()
                 .nome("João Silva")
                 .numeroConta(ORIGEM_ID)
-                .saldo(1000.0)
+                .saldo(100_000L)
                 .build();
     }
 
@@ -73,7 +82,7 @@ class ClienteServiceTest {
                 .id("1")
                 .nome("João")
                 .numeroConta(ORIGEM_ID)
-                .saldo(1000.0)
+                .saldo(100_000L)
                 .build();
 
         clienteDTO = getClientDTOBuilder();
@@ -91,11 +100,38 @@ class ClienteServiceTest {
         assertEquals("João", clienteDTO.getNome());
     }
 
+    @Test
+    public void testarBuscarPorNumeroConta_UsaCacheAposPrimeiraLeitura() {
+        when(clienteRepository.findByNumeroConta(ORIGEM_ID)).thenReturn(Optional.of(cliente));
+
+        clienteService.buscarPorNumeroConta(ORIGEM_ID);
+        var clienteDTO = clienteService.buscarPorNumeroConta(ORIGEM_ID);
+
+        assertEquals(100_000L, clienteDTO.getSaldo());
+        verify(clienteRepository, times(1)).findByNumeroConta(ORIGEM_ID);
+        assertEquals(1, clienteCache.estatisticas().getAcertos());
+        assertEquals(1, clienteCache.estatisticas().getFalhas());
+    }
+
+    @Test
+    public void testarAtualizarSaldo_AtualizaCache() {
+        when(clienteRepository.findByNumeroConta(ORIGEM_ID)).thenReturn(Optional.of(cliente));
+        clienteService.buscarPorNumeroConta(ORIGEM_ID);
+
+        var atualizado = getClienteSalvoBuilder("1", "João", ORIGEM_ID, 150_000L);
+        atualizado.setVersao(1L);
+        clienteService.atualizarSaldo(atualizado);
+
+        assertEquals(150_000L, clienteService.buscarPorNumeroConta(ORIGEM_ID).getSaldo());
+        verify(clienteRepository, times(1)).findByNumeroConta(ORIGEM_ID);
+        verify(clienteCache).atualizarAposCommit(atualizado);
+    }
+
     @Test
     public void testCadastrarCliente() {
         var clienteDTO = getClientDTOBuilder();
 
-        var clienteSalvo = getClienteSalvoBuilder("1", "João Silva", ORIGEM_ID, 1000.0);
+        var clienteSalvo = getClienteSalvoBuilder("1", "João Silva", ORIGEM_ID, 100_000L);
 
         when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteSalvo);
 
@@ -104,19 +140,19 @@ class ClienteServiceTest {
         assertNotNull(clienteRetornado);
         assertEquals("João Silva", clienteRetornado.getNome());
         assertEquals(ORIGEM_ID, clienteRetornado.getNumeroConta());
-        assertEquals(1000.0, clienteRetornado.getSaldo());
+        assertEquals(100_000L, clienteRetornado.getSaldo());
     }
 
     @Test
     public void testListarClientes() {
 
-        var clienteJoao = getClienteSalvoBuilder("1", "João Silva", ORIGEM_ID, 1000.0);
+        var clienteJoao = new ClienteDTO("1", "João Silva", ORIGEM_ID, 100_000L);
 
-        var clienteMaria = getClienteSalvoBuilder("2", "Maria Oliveira", "654321", 2000.0);
+        var clienteMaria = new ClienteDTO("2", "Maria Oliveira", "654321", 200_000L);
 
-        when(clienteRepository.findAll()).thenReturn(Arrays.asList(clienteJoao, clienteMaria));
+        when(clienteRepository.listarPagina(any(Limit.class))).thenReturn(Arrays.asList(clienteJoao, clienteMaria));
 
-        List<ClienteDTO> clientesRetornados = clienteService.listarClientes();
+        List<ClienteDTO> clientesRetornados = clienteService.listarClientes(null, null).getItens();
 
         assertNotNull(clientesRetornados);
         assertEquals(2, clientesRetornados.size());
@@ -124,12 +160,33 @@ class ClienteServiceTest {
         var clienteDTOJoao = clientesRetornados.get(0);
         assertEquals("João Silva", clienteDTOJoao.getNome());
         assertEquals(ORIGEM_ID, clienteDTOJoao.getNumeroConta());
-        assertEquals(1000.0, clienteDTOJoao.getSaldo());
+        assertEquals(100_000L, clienteDTOJoao.getSaldo());
 
         var clienteDTOMaria = clientesRetornados.get(1);
         assertEquals("Maria Oliveira", clienteDTOMaria.getNome());
         assertEquals("654321", clienteDTOMaria.getNumeroConta());
-        assertEquals(2000.0, clienteDTOMaria.getSaldo());
+        assertEquals(200_000L, clienteDTOMaria.getSaldo());
+    }
+
+    @Test
+    public void testListarClientesPaginadoPorCursor() {
+        var primeiro = new ClienteDTO("1", "Ana", "0001", 1000L);
+        var segundo = new ClienteDTO("2", "Bruno", "0002", 2000L);
+        var terceiro = new ClienteDTO("3", "Carla", "0003", 3000L);
+
+        when(clienteRepository.listarPagina(Limit.of(3))).thenReturn(Arrays.asList(primeiro, segundo, terceiro));
+        when(clienteRepository.listarPaginaApos("0002", Limit.of(3))).thenReturn(Arrays.asList(terceiro));
+
+        var pagina = clienteService.listarClientes(null, 2);
+
+        assertEquals(2, pagina.getItens().size());
+        assertNotNull(pagina.getProximoCursor());
+
+        var proximaPagina = clienteService.listarClientes(pagina.getProximoCursor(), 2);
+
+        assertEquals(1, proximaPagina.getItens().size());
+        assertEquals("0003", proximaPagina.getItens().get(0).getNumeroConta());
+        assertNull(proximaPagina.getProximoCursor());
     }
 
     @Test
@@ -140,12 +197,12 @@ class ClienteServiceTest {
                 .id("1")
                 .nome("João Silva")
                 .numeroConta(ORIGEM_ID)
-                .saldo(2000.0)
+                .saldo(200_000L)
                 .build();
 
         when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
 
-        cliente.setSaldo(3000.0);
+        cliente.setSaldo(300_000L);
         clienteService.atualizarSaldo(cliente);
 
         verify(clienteRepository, times(1)).save(cliente);
@@ -154,7 +211,7 @@ class ClienteServiceTest {
     @Test
     public void testGetClienteEntityByNumeroConta_Success() {
 
-        var cliente = getClienteSalvoBuilder("1", "João Silva", ORIGEM_ID, 1000.0);
+        var cliente = getClienteSalvoBuilder("1", "João Silva", ORIGEM_ID, 100_000L);
 
         when(clienteRepository.findByNumeroConta(ORIGEM_ID)).thenReturn(Optional.of(cliente));
 
@@ -163,7 +220,7 @@ class ClienteServiceTest {
         assertNotNull(clienteRetornado);
         assertEquals("João Silva", clienteRetornado.getNome());
         assertEquals(ORIGEM_ID, clienteRetornado.getNumeroConta());
-        assertEquals(1000.0, clienteRetornado.getSaldo());
+        assertEquals(100_000L, clienteRetornado.getSaldo());
     }
 
     @Test
@@ -0,0 +1,104 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.IdempotenciaRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Na engine memoria a resposta sai antes da gravação; o id chega à chave pelo gravador assíncrono.
+ */
+@SpringBootTest(properties = "banking.transferencia.engine=memoria")
+class IdempotenciaMemoriaTest {
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+    @Autowired
+    private IdempotenciaRepository idempotenciaRepository;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void testRepeticaoDevolveOIdGravadoPeloGravador() throws Exception {
+        var origem = salvarCliente(100_000L);
+        var destino = salvarCliente(0L);
+        var dto = TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(10_000L).build();
+        var chave = UUID.randomUUID().toString();
+        var execucoes = new AtomicInteger();
+        Supplier<Transferencia> transferir = () -> {
+            execucoes.incrementAndGet();
+            return transferenciaEngine.realizarTransferencia(dto, chave);
+        };
+
+        assertTrue(idempotenciaService.executar(chave, dto, transferir).getSucesso());
+
+        var id = aguardarId(chave);
+        var gravada = aguardarGravacao(id);
+        assertEquals(origem, gravada.getContaOrigem());
+        assertEquals(10_000L, gravada.getValor());
+
+        // A primeira repetição lê a tabela; a segunda, o cache.
+        assertEquals(id, idempotenciaService.executar(chave, dto, transferir).getId());
+        assertEquals(id, idempotenciaService.executar(chave, dto, transferir).getId());
+        assertEquals(1, execucoes.get());
+    }
+
+    private Long aguardarId(String chave) throws InterruptedException {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            var id = idempotenciaRepository.findById(chave).orElseThrow().getTransferenciaId();
+            if (id != null) {
+                return id;
+            }
+            Thread.sleep(20);
+        }
+        var id = idempotenciaRepository.findById(chave).orElseThrow().getTransferenciaId();
+        assertNotNull(id, "O gravador não registrou o id na chave");
+        return id;
+    }
+
+    /**
+     * O id vem da sequência no saveAll do gravador, antes do commit: a chave pode recebê-lo, pelo
+     * próprio executar, antes de a linha ficar visível.
+     */
+    private Transferencia aguardarGravacao(Long id) throws InterruptedException {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            var gravada = transferenciaRepository.findById(id);
+            if (gravada.isPresent()) {
+                return gravada.get();
+            }
+            Thread.sleep(20);
+        }
+        return transferenciaRepository.findById(id).orElseThrow();
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.exception.IdempotencyConflictException;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Idempotencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.IdempotenciaRepository;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class IdempotenciaServiceTest {
+
+    private static final int REPETICOES = 16;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+    @Autowired
+    private IdempotenciaRepository idempotenciaRepository;
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void testRepeticoesConcorrentesExecutamUmaUnicaTransferencia() throws Exception {
+        var origem = salvarCliente(100_000L);
+        var destino = salvarCliente(0L);
+        var dto = getTransferencia(origem, destino, 10_000L);
+        var chave = UUID.randomUUID().toString();
+        var execucoes = new AtomicInteger();
+        var largada = new CountDownLatch(1);
+
+        var tarefas = new ArrayList<Callable<Long>>();
+        for (int i = 0; i < REPETICOES; i++) {
+            tarefas.add(() -> {
+                largada.await();
+                return idempotenciaService.executar(chave, dto, () -> {
+                    execucoes.incrementAndGet();
+                    return transferenciaEngine.realizarTransferencia(dto);
+                }).getId();
+            });
+        }
+
+        try (var executor = Executors.newFixedThreadPool(REPETICOES)) {
+            var futuros = tarefas.stream().map(executor::submit).toList();
+            largada.countDown();
+            var ids = new ArrayList<Long>();
+            for (var futuro : futuros) {
+                ids.add(futuro.get());
+            }
+            assertTrue(ids.stream().allMatch(id -> id.equals(ids.get(0))));
+        }
+
+        assertEquals(1, execucoes.get());
+        assertEquals(90_000L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+        assertTrue(idempotenciaRepository.findById(chave).orElseThrow().isConcluida());
+    }
+
+    @Test
+    void testTransferenciaInvalidaNaoReservaAChave() {
+        var chave = UUID.randomUUID().toString();
+        var dto = TransferenciaDTO.builder().valor(10_000L).build();
+
+        var transferencia = idempotenciaService.executar(chave, dto, () -> transferenciaEngine.realizarTransferencia(dto));
+
+        assertFalse(transferencia.getSucesso());
+        assertEquals(RegrasTransferencia.MENSAGEM_TRANSFERENCIA_INVALIDA, transferencia.getMensagem());
+        assertTrue(idempotenciaRepository.findById(chave).isEmpty());
+    }
+
+    @Test
+    void testChaveReservadaSemResultadoRespondeConflito() {
+        var origem = salvarCliente(100_000L);
+        var destino = salvarCliente(0L);
+        var dto = getTransferencia(origem, destino, 10_000L);
+        var chave = UUID.randomUUID().toString();
+        // Reserva deixada por uma instância que caiu antes de gravar o resultado.
+        idempotenciaRepository.save(Idempotencia.builder()
+                .chave(chave)
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(10_000L)
+                .criadaEm(LocalDateTime.now())
+                .build());
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotenciaService.executar(chave, dto, () -> transferenciaEngine.realizarTransferencia(dto)));
+        assertEquals(100_000L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class LimiteDiarioTest {
+
+    private static final Instant AGORA = Instant.parse("2024-05-10T12:00:00Z");
+
+    @InjectMocks
+    private LimiteDiario limiteDiario;
+
+    @Spy
+    private LimiteDiarioProperties propriedades = new LimiteDiarioProperties();
+    @Mock
+    private ClienteRepository clienteRepository;
+    @Mock
+    private TransferenciaRepository transferenciaRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        propriedades.setPadrao(100_000L);
+        propriedades.setCategorias(Map.of("premium", 1_000_000L));
+        when(clienteRepository.findByNumeroConta(anyString())).thenReturn(Optional.empty());
+        when(transferenciaRepository.streamConcluidasDesde(any())).thenReturn(Stream.empty());
+        fixarRelogio(AGORA);
+    }
+
+    private void fixarRelogio(Instant instante) {
+        ReflectionTestUtils.setField(limiteDiario, "relogio", Clock.fixed(instante, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testReservarAteOLimite() {
+        limiteDiario.reconstruir();
+
+        limiteDiario.reservar("1", 60_000L);
+        limiteDiario.reservar("1", 40_000L);
+
+        var excecao = assertThrows(IllegalArgumentException.class, () -> limiteDiario.reservar("1", 1L));
+        assertEquals(RegrasTransferencia.MENSAGEM_LIMITE_DIARIO_EXCEDIDO, excecao.getMessage());
+        assertEquals(100_000L, limiteDiario.enviadoNaJanela("1"));
+        assertEquals(0L, limiteDiario.enviadoNaJanela("2"));
+    }
+
+    @Test
+    void testLiberarDevolveReserva() {
+        limiteDiario.reconstruir();
+        var reserva = limiteDiario.reservar("1", 100_000L);
+
+        limiteDiario.liberar(reserva);
+
+        limiteDiario.reservar("1", 100_000L);
+        assertEquals(100_000L, limiteDiario.enviadoNaJanela("1"));
+    }
+
+    @Test
+    void testLiberarDevolveNoBaldeDaReserva() {
+        limiteDiario.reconstruir();
+        var antiga = limiteDiario.reservar("1", 40_000L);
+
+        fixarRelogio(AGORA.plus(Duration.ofHours(12)));
+        limiteDiario.reservar("1", 60_000L);
+        limiteDiario.liberar(antiga);
+
+        assertEquals(60_000L, limiteDiario.enviadoNaJanela("1"));
+        fixarRelogio(AGORA.plus(Duration.ofHours(24)));
+        assertEquals(60_000L, limiteDiario.enviadoNaJanela("1"));
+    }
+
+    @Test
+    void testJanelaDeslizaPorBalde() {
+        limiteDiario.reconstruir();
+        limiteDiario.reservar("1", 70_000L);
+
+        fixarRelogio(AGORA.plus(Duration.ofHours(12)));
+        limiteDiario.reservar("1", 30_000L);
+        assertThrows(IllegalArgumentException.class, () -> limiteDiario.reservar("1", 1L));
+
+        fixarRelogio(AGORA.plus(Duration.ofHours(24)));
+        assertEquals(30_000L, limiteDiario.enviadoNaJanela("1"));
+        limiteDiario.reservar("1", 70_000L);
+    }
+
+    @Test
+    void testLimitePorCategoria() {
+        var premium = new Cliente();
+        premium.setNumeroConta("9");
+        premium.setCategoria("PREMIUM");
+        when(clienteRepository.findByNumeroConta("9")).thenReturn(Optional.of(premium));
+        limiteDiario.reconstruir();
+
+        limiteDiario.reservar("9", 1_000_000L);
+
+        assertThrows(IllegalArgumentException.class, () -> limiteDiario.reservar("9", 1L));
+        assertThrows(IllegalArgumentException.class, () -> limiteDiario.reservar("1", 100_001L));
+    }
+
+    @Test
+    void testReconstruirComTransferenciasDaJanela() {
+        var recente = Transferencia.builder()
+                .contaOrigem("1")
+                .contaDestino("2")
+                .valor(90_000L)
+                .dataTransferencia(LocalDateTime.ofInstant(AGORA.minus(Duration.ofHours(2)), ZoneOffset.UTC))
+                .sucesso(true)
+                .build();
+        when(transferenciaRepository.streamConcluidasDesde(any())).thenReturn(Stream.of(recente));
+
+        limiteDiario.reconstruir();
+
+        assertEquals(90_000L, limiteDiario.enviadoNaJanela("1"));
+        assertThrows(IllegalArgumentException.class, () -> limiteDiario.reservar("1", 10_001L));
+        limiteDiario.reservar("1", 10_000L);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.engine.TransferenciaEngine;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa transferências concorrentes em threads virtuais com o JFR registrando
+ * {@code jdk.VirtualThreadPinned} e falha se algum bloqueio ocorrer com a thread
+ * portadora fixada a partir do código da aplicação. Com uma única portadora, uma
+ * fixação durante I/O pode travar todas as threads virtuais, daí o tempo limite.
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "banking.concorrencia.tentativas=50"
+})
+class ThreadsVirtuaisFixacaoTest {
+
+    private static final String EVENTO_FIXACAO = "jdk.VirtualThreadPinned";
+    private static final int THREADS = 200;
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private TransferenciaLoteService transferenciaLoteService;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    @Timeout(value = 120, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void testTransferenciasEmThreadsVirtuaisNaoFixamPortadora() throws Exception {
+        var contaQuente = salvarCliente();
+        var contas = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            contas.add(salvarCliente());
+        }
+
+        List<RecordedEvent> eventos;
+        try (var gravacao = new Recording()) {
+            gravacao.enable(EVENTO_FIXACAO).withThreshold(Duration.ZERO).withStackTrace();
+            gravacao.start();
+
+            var tarefas = new ArrayList<Callable<Object>>();
+            for (int i = 0; i < THREADS; i++) {
+                var conta = contas.get(i % contas.size());
+                tarefas.add(() -> transferenciaEngine.realizarTransferencia(getTransferencia(contaQuente, conta)));
+                tarefas.add(() -> transferenciaLoteService.realizarLote(List.of(getTransferencia(conta, contaQuente))));
+                tarefas.add(() -> clienteService.buscarPorNumeroConta(conta));
+            }
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (var futuro : executor.invokeAll(tarefas)) {
+                    futuro.get();
+                }
+            }
+
+            gravacao.stop();
+            var arquivo = Files.createTempFile("fixacao", ".jfr");
+            gravacao.dump(arquivo);
+            eventos = RecordingFile.readAllEvents(arquivo);
+            Files.delete(arquivo);
+        }
+
+        var fixacoes = eventos.stream()
+                .filter(evento -> evento.getEventType().getName().equals(EVENTO_FIXACAO))
+                .filter(evento -> evento.getStackTrace() != null)
+                .map(evento -> evento.getStackTrace().getFrames().stream()
+                        .map(ThreadsVirtuaisFixacaoTest::descrever)
+                        .limit(25)
+                        .collect(Collectors.joining("\n  ")))
+                .filter(pilha -> pilha.contains("com.example.banking"))
+                .toList();
+        assertTrue(fixacoes.isEmpty(), () -> "Thread portadora fixada:\n  " + String.join("\n---\n  ", fixacoes));
+    }
+
+    private static String descrever(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private String salvarCliente() {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(100_000_000L)
+                .build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino) {
+        return TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(100L).build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.SubmissaoTransferenciaDTO.Status;
+import com.example.banking.exception.TooManyRequestsException;
+import com.example.banking.model.Transferencia;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransferenciaAssincronaServiceTest {
+
+    private TransferenciaAssincronaService service;
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        service = new TransferenciaAssincronaService(1, 1, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        liberar.countDown();
+        service.encerrar();
+    }
+
+    @Test
+    void testFilaCheiaRecusaSubmissao() throws Exception {
+        var emExecucao = service.submeter(this::aguardarLiberacao);
+        var naFila = service.submeter(this::aguardarLiberacao);
+
+        assertThrows(TooManyRequestsException.class, () -> service.submeter(this::aguardarLiberacao));
+        assertEquals(Status.PENDENTE, service.buscar(emExecucao.getId(), Duration.ZERO).get().getStatus());
+
+        liberar.countDown();
+        assertEquals(Status.CONCLUIDA, service.buscar(naFila.getId(), Duration.ofSeconds(5)).get(10, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void testFalhaNaExecucaoFicaRegistradaNoStatus() throws Exception {
+        var submissao = service.submeter(() -> {
+            throw new IllegalStateException("falha simulada");
+        });
+
+        var status = service.buscar(submissao.getId(), Duration.ofSeconds(5)).get(10, TimeUnit.SECONDS);
+        assertEquals(Status.FALHA, status.getStatus());
+        assertEquals("falha simulada", status.getMensagem());
+    }
+
+    private Transferencia aguardarLiberacao() {
+        try {
+            liberar.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Transferencia.builder().sucesso(true).build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "banking.concorrencia.tentativas=50")
+class TransferenciaConcorrenciaTest {
+
+    private static final int ESCRITORES = 16;
+    private static final int TRANSFERENCIAS_POR_ESCRITOR = 20;
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @ParameterizedTest
+    @EnumSource(ModoConcorrencia.class)
+    void testTransferenciasConcorrentesNaoPerdemAtualizacoes(ModoConcorrencia modo) throws Exception {
+        Object alvo = AopTestUtils.getTargetObject(clienteService);
+        ReflectionTestUtils.setField(alvo, "modoConcorrencia", modo);
+
+        var contaQuente = salvarCliente(100_000_000L);
+        var contas = new ArrayList<String>();
+        for (int i = 0; i < ESCRITORES; i++) {
+            contas.add(salvarCliente(100_000L));
+        }
+
+        var tarefas = new ArrayList<Callable<List<Transferencia>>>();
+        for (var conta : contas) {
+            tarefas.add(() -> {
+                var resultados = new ArrayList<Transferencia>();
+                for (int i = 0; i < TRANSFERENCIAS_POR_ESCRITOR; i++) {
+                    resultados.add(i % 2 == 0
+                            ? transferenciaEngine.realizarTransferencia(getTransferencia(contaQuente, conta, 1000L))
+                            : transferenciaEngine.realizarTransferencia(getTransferencia(conta, contaQuente, 500L)));
+                }
+                return resultados;
+            });
+        }
+
+        var saldoEsperado = 100_000_000L;
+        try (var executor = Executors.newFixedThreadPool(ESCRITORES)) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                for (var transferencia : futuro.get()) {
+                    if (!transferencia.getSucesso()) {
+                        assertEquals(RegrasTransferencia.MENSAGEM_CONFLITO_CONCORRENCIA, transferencia.getMensagem());
+                    } else if (transferencia.getContaOrigem().equals(contaQuente)) {
+                        saldoEsperado -= transferencia.getValor();
+                    } else {
+                        saldoEsperado += transferencia.getValor();
+                    }
+                }
+            }
+        }
+
+        assertEquals(saldoEsperado, clienteService.buscarPorNumeroConta(contaQuente).getSaldo());
+        var total = contas.stream().mapToLong(conta -> clienteService.buscarPorNumeroConta(conta).getSaldo()).sum()
+                + clienteService.buscarPorNumeroConta(contaQuente).getSaldo();
+        assertEquals(100_000_000L + ESCRITORES * 100_000L, total);
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+    }
+}
@@ -3,12 +3,15 @@ package com.example.banking.service;
 import com.example.banking.dto.TransferenciaDTO;
 import com.example.banking.model.Cliente;
 import com.example.banking.model.Transferencia;
+import com.example.banking.repository.TransferenciaArquivadaRepository;
 import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.antifraude.Antifraude;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -17,6 +20,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TransferenciaServiceTest {
@@ -31,6 +35,14 @@ class TransferenciaServiceTest {
 
     @Mock
     private TransferenciaRepository transferenciaRepository;
+    @Mock
+    private LimiteDiario limiteDiario;
+    @Mock
+    private Antifraude antifraude;
+    @Mock
+    private LeituraConsistente leituraConsistente;
+    @Mock
+    private TransferenciaArquivadaRepository transferenciaArquivadaRepository;
     private static String DESTINO_ID;
     private TransferenciaDTO transferenciaDTO;
 
@@ -39,7 +51,7 @@ class TransferenciaServiceTest {
                 .id(1L)
                 .contaOrigem(ORIGEM_ID)
                 .contaDestino(DESTINO_ID)
-                .valor(500.0)
+                .valor(50_000L)
                 .dataTransferencia(LocalDateTime.now().minusDays(1))
                 .sucesso(true)
                 .mensagem("Transferência concluída")
@@ -47,7 +59,7 @@ class TransferenciaServiceTest {
     }
 
     private static Transferencia getTransferenciaConcluidaBuilder(long id, String contaOrigem, String contaDestino,
-                                                                  Double valor, LocalDateTime dataTransferencia,
+                                                                  long valor, LocalDateTime dataTransferencia,
                                                                   Boolean isSucesso, String mensagem) {
         return Transferencia.builder()
                 .id(id)
@@ -69,7 +81,7 @@ class TransferenciaServiceTest {
         transferenciaDTO = new TransferenciaDTO();
         transferenciaDTO.setContaOrigem(ORIGEM_ID);
         transferenciaDTO.setContaDestino(DESTINO_ID);
-        transferenciaDTO.setValor(5000.0);
+        transferenciaDTO.setValor(500_000L);
     }
 
     @Test
@@ -77,11 +89,11 @@ class TransferenciaServiceTest {
 
         var origem = new Cliente();
         origem.setNumeroConta(ORIGEM_ID);
-        origem.setSaldo(10000.0);
+        origem.setSaldo(1_000_000L);
 
         var destino = new Cliente();
         destino.setNumeroConta(DESTINO_ID);
-        destino.setSaldo(5000.0);
+        destino.setSaldo(500_000L);
 
         when(clienteService.getClienteEntityByNumeroConta(ORIGEM_ID)).thenReturn(origem);
         when(clienteService.getClienteEntityByNumeroConta(DESTINO_ID)).thenReturn(destino);
@@ -100,11 +112,11 @@ class TransferenciaServiceTest {
         TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
         transferenciaDTO.setContaOrigem(ORIGEM_ID);
         transferenciaDTO.setContaDestino(DESTINO_ID);
-        transferenciaDTO.setValor(15000.0);
+        transferenciaDTO.setValor(1_500_000L);
 
         Cliente origem = new Cliente();
         origem.setNumeroConta(ORIGEM_ID);
-        origem.setSaldo(5000.0);
+        origem.setSaldo(500_000L);
 
         when(clienteService.getClienteEntityByNumeroConta(ORIGEM_ID)).thenReturn(origem);
 
@@ -116,7 +128,7 @@ class TransferenciaServiceTest {
         TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
         transferenciaDTO.setContaOrigem(ORIGEM_ID);
         transferenciaDTO.setContaDestino(DESTINO_ID);
-        transferenciaDTO.setValor(15000.0);
+        transferenciaDTO.setValor(1_500_000L);
 
         verify(transferenciaRepository, never()).save(any(Transferencia.class));
     }
@@ -125,27 +137,29 @@ class TransferenciaServiceTest {
     public void testBuscarHistoricoTransferencias() {
 
         var transferencia1 = getTransferenciaConcluidaBuilder(1L,ORIGEM_ID,DESTINO_ID,
-                500.0,
+                50_000L,
                 LocalDateTime.now().minusDays(1),
                 true,
                 "Transferência concluída");
 
         var transferencia2 = getTransferenciaConcluidaBuilder(2L, DESTINO_ID,ORIGEM_ID,
-                300.0,
+                30_000L,
                 LocalDateTime.now().minusDays(2),
                 true,
                 "Transferência concluída");
 
         var transferencia3 = getTransferenciaConcluidaBuilder(3L, DESTINO_ID,ORIGEM_ID,
-                300.0,
+                30_000L,
                 LocalDateTime.now().minusDays(3),
                 false,
                 "Transferência não concluída");
 
-        when(transferenciaRepository.findByContaOrigemOrContaDestinoOrderByDataTransferenciaDesc(ORIGEM_ID, ORIGEM_ID))
-                .thenReturn(Arrays.asList(transferencia1, transferencia2, transferencia3));
+        when(transferenciaRepository.buscarPorContaOrigem(eq(ORIGEM_ID), any(Limit.class)))
+                .thenReturn(Arrays.asList(transferencia1));
+        when(transferenciaRepository.buscarPorContaDestino(eq(ORIGEM_ID), any(Limit.class)))
+                .thenReturn(Arrays.asList(transferencia2, transferencia3));
 
-        var historicoTransferencias = transferenciaService.buscarHistoricoTransferencias(ORIGEM_ID);
+        var historicoTransferencias = transferenciaService.buscarHistoricoTransferencias(ORIGEM_ID, null, null).getItens();
 
         assertNotNull(historicoTransferencias);
         assertEquals(3, historicoTransferencias.size());
@@ -154,19 +168,19 @@ class TransferenciaServiceTest {
         assertEquals(1L, primeiraTransferencia.getId());
         assertEquals(ORIGEM_ID, primeiraTransferencia.getContaOrigem());
         assertEquals(DESTINO_ID, primeiraTransferencia.getContaDestino());
-        assertEquals(500.0, primeiraTransferencia.getValor());
+        assertEquals(50_000L, primeiraTransferencia.getValor());
 
         var segundaTransferencia = historicoTransferencias.get(1);
         assertEquals(2L, segundaTransferencia.getId());
         assertEquals(DESTINO_ID, segundaTransferencia.getContaOrigem());
         assertEquals(ORIGEM_ID, segundaTransferencia.getContaDestino());
-        assertEquals(300.0, segundaTransferencia.getValor());
+        assertEquals(30_000L, segundaTransferencia.getValor());
 
         var terceiraTransferencia3 = historicoTransferencias.get(2);
         assertEquals(3L, terceiraTransferencia3.getId());
         assertEquals(DESTINO_ID, terceiraTransferencia3.getContaOrigem());
         assertEquals(ORIGEM_ID, terceiraTransferencia3.getContaDestino());
-        assertEquals(300.0, terceiraTransferencia3.getValor());
+        assertEquals(30_000L, terceiraTransferencia3.getValor());
 
     }
 
@@ -175,7 +189,7 @@ class TransferenciaServiceTest {
         var transferenciaDTO = TransferenciaDTO.builder()
                 .contaOrigem(ORIGEM_ID)
                 .contaDestino(DESTINO_ID)
-                .valor(15000.0)
+                .valor(1_500_000L)
                 .build();
 
 
@@ -193,7 +207,7 @@ class TransferenciaServiceTest {
                 .id(1L)
                 .contaOrigem(ORIGEM_ID)
                 .contaDestino(DESTINO_ID)
-                .valor(500.0)
+                .valor(50_000L)
                 .dataTransferencia(LocalDateTime.now().minusDays(1))
                 .sucesso(true)
                 .mensagem("Transferência realizada com sucesso")
@@ -203,15 +217,17 @@ class TransferenciaServiceTest {
                 .id(2L)
                 .contaOrigem(DESTINO_ID)
                 .contaDestino(ORIGEM_ID)
-                .valor(300.0)
+                .valor(30_000L)
                 .dataTransferencia(LocalDateTime.now().minusDays(2))
                 .sucesso(true)
                 .mensagem("Transferência realizada com sucesso")
                 .build();
 
-        when(transferenciaRepository.findByContaOrigemOrContaDestinoOrderByDataTransferenciaDesc(ORIGEM_ID, ORIGEM_ID))
-                .thenReturn(Arrays.asList(transferencia1, transferencia2));
-        var historicoTransferencias = transferenciaService.buscarHistoricoTransferencias(ORIGEM_ID);
+        when(transferenciaRepository.buscarPorContaOrigem(eq(ORIGEM_ID), any(Limit.class)))
+                .thenReturn(Arrays.asList(transferencia1));
+        when(transferenciaRepository.buscarPorContaDestino(eq(ORIGEM_ID), any(Limit.class)))
+                .thenReturn(Arrays.asList(transferencia2));
+        var historicoTransferencias = transferenciaService.buscarHistoricoTransferencias(ORIGEM_ID, null, null).getItens();
 
         assertNotNull(historicoTransferencias);
         assertEquals(2, historicoTransferencias.size());
@@ -226,4 +242,43 @@ class TransferenciaServiceTest {
         assertEquals(DESTINO_ID, segundaTransferencia.getContaOrigem());
         assertEquals(ORIGEM_ID, segundaTransferencia.getContaDestino());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBuscarHistoricoPaginadoRetornaProximoCursor() {
+        var maisRecente = getTransferenciaConcluidaBuilder(3L, ORIGEM_ID, DESTINO_ID, 10_000L,
+                LocalDateTime.now().minusHours(1), true, "Transferência concluída");
+        var intermediaria = getTransferenciaConcluidaBuilder(2L, DESTINO_ID, ORIGEM_ID, 20_000L,
+                LocalDateTime.now().minusHours(2), true, "Transferência concluída");
+        var antiga = getTransferenciaConcluidaBuilder(1L, ORIGEM_ID, DESTINO_ID, 30_000L,
+                LocalDateTime.now().minusHours(3), true, "Transferência concluída");
+
+        when(transferenciaRepository.buscarPorContaOrigem(ORIGEM_ID, Limit.of(3)))
+                .thenReturn(Arrays.asList(maisRecente, antiga));
+        when(transferenciaRepository.buscarPorContaDestino(ORIGEM_ID, Limit.of(3)))
+                .thenReturn(Arrays.asList(intermediaria));
+
+        var pagina = transferenciaService.buscarHistoricoTransferencias(ORIGEM_ID, null, 2);
+
+        assertEquals(2, pagina.getItens().size());
+        assertEquals(3L, pagina.getItens().get(0).getId());
+        assertEquals(2L, pagina.getItens().get(1).getId());
+        assertNotNull(pagina.getProximoCursor());
+
+        when(transferenciaRepository.buscarPorContaOrigemAntesDe(ORIGEM_ID, intermediaria.getDataTransferencia(), 2L, Limit.of(3)))
+                .thenReturn(Arrays.asList(antiga));
+        when(transferenciaRepository.buscarPorContaDestinoAntesDe(ORIGEM_ID, intermediaria.getDataTransferencia(), 2L, Limit.of(3)))
+                .thenReturn(List.of());
+
+        var proximaPagina = transferenciaService.buscarHistoricoTransferencias(ORIGEM_ID, pagina.getProximoCursor(), 2);
+
+        assertEquals(1, proximaPagina.getItens().size());
+        assertEquals(1L, proximaPagina.getItens().get(0).getId());
+        assertNull(proximaPagina.getProximoCursor());
+    }
+
+    @Test
+    public void testBuscarHistoricoCursorInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transferenciaService.buscarHistoricoTransferencias(ORIGEM_ID, "nao-e-um-cursor", null));
+    }
+}
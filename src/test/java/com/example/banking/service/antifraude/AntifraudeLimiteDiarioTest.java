@@ -0,0 +1,77 @@
+package com.example.banking.service.antifraude;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transferências que o antifraude aceita mas o limite diário recusa não entram no estado das
+ * regras, como na reconstrução, que só lê as concluídas.
+ */
+@SpringBootTest(properties = {
+        "banking.antifraude.habilitado=true",
+        "banking.antifraude.velocidade.maximo-por-janela=3",
+        "banking.limite-diario.padrao=2000"
+})
+class AntifraudeLimiteDiarioTest {
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private RegraVelocidade regraVelocidade;
+    @Autowired
+    private RegraNovoDestino regraNovoDestino;
+    @Autowired
+    private AntifraudeProperties propriedades;
+
+    @Test
+    void testRecusadaPeloLimiteDiarioNaoEntraNoEstado() {
+        var origem = salvarCliente(1_000_000L);
+        var conhecido = salvarCliente(0L);
+        var novo = salvarCliente(0L);
+        assertTrue(transferenciaEngine.realizarTransferencia(getTransferencia(origem, conhecido, 1_500L)).getSucesso());
+
+        for (int i = 0; i < 5; i++) {
+            var recusada = transferenciaEngine.realizarTransferencia(getTransferencia(origem, novo, 1_000L));
+            assertFalse(recusada.getSucesso());
+            assertEquals(RegrasTransferencia.MENSAGEM_LIMITE_DIARIO_EXCEDIDO, recusada.getMensagem());
+        }
+
+        var agora = System.currentTimeMillis();
+        assertEquals(0, regraVelocidade.pontuar(origem, novo, 1_000L, agora, Pendentes.NENHUMA));
+        assertEquals(propriedades.getNovoDestino().getPontos(),
+                regraNovoDestino.pontuar(origem, novo, 1_000L, agora, Pendentes.NENHUMA));
+        assertEquals(0, regraNovoDestino.pontuar(origem, conhecido, 1_000L, agora, Pendentes.NENHUMA));
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.banking.service.antifraude;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.TransferenciaLoteService;
+import com.example.banking.service.engine.TransferenciaEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Folha de pagamento: um lote maior que o bloco, de uma só origem, com o antifraude ligado.
+ */
+@SpringBootTest(properties = {
+        "banking.antifraude.habilitado=true",
+        "banking.transferencia.lote.tamanho-bloco=50"
+})
+class AntifraudeLoteTest {
+
+    private static final int ITENS = 120;
+
+    @Autowired
+    private TransferenciaLoteService transferenciaLoteService;
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private AntifraudeProperties propriedades;
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void testLoteDeUmaOrigemNaoEsbarraNaVelocidade() {
+        var origem = salvarCliente(1_000_000L);
+        var destinos = new ArrayList<String>();
+        var lote = new ArrayList<TransferenciaDTO>();
+        for (int i = 0; i < ITENS; i++) {
+            destinos.add(salvarCliente(0L));
+            lote.add(getTransferencia(origem, destinos.get(i), 1_000L));
+        }
+
+        var resultados = transferenciaLoteService.realizarLote(lote);
+
+        assertEquals(ITENS, resultados.size());
+        assertTrue(resultados.stream().allMatch(Transferencia::getSucesso));
+        assertEquals(1_000_000L - ITENS * 1_000L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+
+        // O lote, em três blocos, conta como uma só transferência da origem para a velocidade.
+        var maximo = propriedades.getVelocidade().getMaximoPorJanela();
+        for (int i = 0; i < maximo - 1; i++) {
+            assertTrue(transferenciaEngine.realizarTransferencia(getTransferencia(origem, destinos.get(i), 1_000L)).getSucesso());
+        }
+        var recusada = transferenciaEngine.realizarTransferencia(getTransferencia(origem, destinos.get(0), 1_000L));
+        assertFalse(recusada.getSucesso());
+        assertEquals(RegrasTransferencia.MENSAGEM_TRANSFERENCIA_SUSPEITA, recusada.getMensagem());
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.banking.service.antifraude;
+
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.RegrasTransferencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AntifraudeTest {
+
+    private static final Instant AGORA = Instant.parse("2024-05-10T12:00:00Z");
+
+    private final AntifraudeProperties propriedades = new AntifraudeProperties();
+    private final TransferenciaRepository transferenciaRepository = mock(TransferenciaRepository.class);
+    private Antifraude antifraude;
+
+    @BeforeEach
+    void setUp() {
+        propriedades.setHabilitado(true);
+        propriedades.getVelocidade().setMaximoPorJanela(3);
+        List<RegraAntifraude> regras = List.of(new RegraVelocidade(), new RegraNovoDestino(), new RegraValorAtipico());
+        regras.forEach(regra -> ReflectionTestUtils.setField(regra, "propriedades", propriedades));
+
+        antifraude = new Antifraude();
+        ReflectionTestUtils.setField(antifraude, "propriedades", propriedades);
+        ReflectionTestUtils.setField(antifraude, "regras", regras);
+        ReflectionTestUtils.setField(antifraude, "transferenciaRepository", transferenciaRepository);
+        ReflectionTestUtils.setField(antifraude, "transactionManager", mock(PlatformTransactionManager.class));
+        when(transferenciaRepository.streamConcluidasDesde(any())).thenReturn(Stream.empty());
+        fixarRelogio(AGORA);
+    }
+
+    private void fixarRelogio(Instant instante) {
+        ReflectionTestUtils.setField(antifraude, "relogio", Clock.fixed(instante, ZoneOffset.UTC));
+    }
+
+    private void transferir(String contaOrigem, String contaDestino, long valor) {
+        antifraude.confirmar(antifraude.avaliar(contaOrigem, contaDestino, valor));
+    }
+
+    @Test
+    void testVelocidadeRecusaAcimaDoMaximoNaJanela() {
+        antifraude.reconstruir();
+        transferir("1", "2", 1_000L);
+        transferir("1", "2", 1_000L);
+        transferir("1", "2", 1_000L);
+
+        var excecao = assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "2", 1_000L));
+        assertEquals(RegrasTransferencia.MENSAGEM_TRANSFERENCIA_SUSPEITA, excecao.getMessage());
+        transferir("3", "2", 1_000L);
+
+        fixarRelogio(AGORA.plus(Duration.ofMinutes(1)));
+        transferir("1", "2", 1_000L);
+    }
+
+    @Test
+    void testAvaliadaSemConfirmarNaoEntraNoEstado() {
+        antifraude.reconstruir();
+        IntStream.range(0, 5).forEach(i -> antifraude.avaliar("1", "2", 1_000L));
+
+        transferir("1", "2", 1_000L);
+        transferir("1", "2", 1_000L);
+        transferir("1", "2", 1_000L);
+        assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "2", 1_000L));
+    }
+
+    @Test
+    void testVelocidadeContaAceitasNaTransacaoAntesDoCommit() {
+        antifraude.reconstruir();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transferir("1", "2", 1_000L);
+            transferir("1", "2", 1_000L);
+            transferir("1", "2", 1_000L);
+            assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "2", 1_000L));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "2", 1_000L));
+    }
+
+    @Test
+    void testLoteContaComoUmaTransferenciaPorOrigemNaVelocidade() {
+        antifraude.reconstruir();
+        Antifraude.emLote(() -> IntStream.range(0, 10).forEach(i -> transferir("1", "2", 1_000L)));
+
+        transferir("1", "2", 1_000L);
+        transferir("1", "2", 1_000L);
+        assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "2", 1_000L));
+    }
+
+    @Test
+    void testItensDoMesmoLoteNaTransacaoNaoSomamNaVelocidade() {
+        propriedades.getVelocidade().setMaximoPorJanela(2);
+        antifraude.reconstruir();
+        transferir("1", "2", 1_000L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Antifraude.emLote(() -> IntStream.range(0, 10).forEach(i -> transferir("1", "2", 1_000L)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testLotesDeUmItemNaoContornamAVelocidade() {
+        antifraude.reconstruir();
+        IntStream.range(0, 3).forEach(i -> Antifraude.emLote(() -> transferir("1", "2", 1_000L)));
+
+        Antifraude.emLote(() ->
+                assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "2", 1_000L)));
+    }
+
+    @Test
+    void testValorAtipicoParaDestinoNovoRecusado() {
+        propriedades.getVelocidade().setMaximoPorJanela(100);
+        antifraude.reconstruir();
+        IntStream.range(0, 20).forEach(i -> transferir("1", "2", 1_000L + i % 3 * 100));
+
+        assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "4", 50_000L));
+        transferir("1", "3", 1_000L);
+        transferir("1", "2", 50_000L);
+    }
+
+    @Test
+    void testDesabilitadoNaoPontua() {
+        propriedades.setHabilitado(false);
+        antifraude.reconstruir();
+
+        IntStream.range(0, 10).forEach(i -> transferir("1", String.valueOf(i), 1_000_000L));
+    }
+
+    @Test
+    void testReconstruirComTransferenciasDoHistorico() {
+        var inicio = LocalDateTime.ofInstant(AGORA.minus(Duration.ofSeconds(30)), ZoneOffset.UTC);
+        var historico = IntStream.range(0, 3).mapToObj(i -> Transferencia.builder()
+                .contaOrigem("1")
+                .contaDestino("2")
+                .valor(1_000L)
+                .dataTransferencia(inicio.plusSeconds(i))
+                .sucesso(true)
+                .build());
+        when(transferenciaRepository.streamConcluidasDesde(any())).thenReturn(historico);
+
+        antifraude.reconstruir();
+
+        assertThrows(IllegalArgumentException.class, () -> antifraude.avaliar("1", "2", 1_000L));
+        transferir("2", "1", 1_000L);
+    }
+}
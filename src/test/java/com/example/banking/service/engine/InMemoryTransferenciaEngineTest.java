@@ -0,0 +1,192 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.exception.ResourceNotFoundException;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.ClienteCache;
+import com.example.banking.service.ClienteService;
+import com.example.banking.service.LimiteDiario;
+import com.example.banking.service.MetricasTransferencia;
+import com.example.banking.service.antifraude.Antifraude;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class InMemoryTransferenciaEngineTest {
+
+    @InjectMocks
+    private InMemoryTransferenciaEngine engine;
+
+    @Mock
+    private ClienteService clienteService;
+    @Mock
+    private ClienteCache clienteCache;
+    @Mock
+    private ClienteRepository clienteRepository;
+    @Mock
+    private TransferenciaRepository transferenciaRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private MetricasTransferencia metricasTransferencia;
+    @Mock
+    private LimiteDiario limiteDiario;
+    @Mock
+    private Antifraude antifraude;
+
+    private String ORIGEM_ID;
+    private String DESTINO_ID;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ORIGEM_ID = String.valueOf(UUID.randomUUID());
+        DESTINO_ID = String.valueOf(UUID.randomUUID());
+
+        when(clienteService.getClienteEntityByNumeroConta(ORIGEM_ID)).thenReturn(getCliente(ORIGEM_ID, 1_000_000L));
+        when(clienteService.getClienteEntityByNumeroConta(DESTINO_ID)).thenReturn(getCliente(DESTINO_ID, 500_000L));
+
+        engine.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.encerrar();
+    }
+
+    private static Cliente getCliente(String numeroConta, long saldo) {
+        return Cliente.builder()
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build();
+    }
+
+    private TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+    }
+
+    @Test
+    void testRealizarTransferenciaSucesso() {
+        var transferencia = engine.realizarTransferencia(getTransferencia(ORIGEM_ID, DESTINO_ID, 300_000L));
+
+        assertTrue(transferencia.getSucesso());
+        assertEquals("Transferência realizada com sucesso", transferencia.getMensagem());
+        assertEquals(700_000L, engine.consultarSaldo(ORIGEM_ID));
+        assertEquals(800_000L, engine.consultarSaldo(DESTINO_ID));
+
+        verify(clienteRepository, timeout(2000)).ajustarSaldo(ORIGEM_ID, -300_000L);
+        verify(clienteRepository, timeout(2000)).ajustarSaldo(DESTINO_ID, 300_000L);
+        verify(transferenciaRepository, timeout(2000)).saveAll(anyIterable());
+    }
+
+    @Test
+    void testLoteQueFalhaEhRepetidoAteGravar() {
+        var falha = new IllegalStateException("banco indisponível");
+        when(transferenciaRepository.saveAll(anyIterable())).thenThrow(falha, falha, falha).thenReturn(List.of());
+
+        assertTrue(engine.realizarTransferencia(getTransferencia(ORIGEM_ID, DESTINO_ID, 300_000L)).getSucesso());
+
+        verify(transferenciaRepository, timeout(5000).times(4)).saveAll(anyIterable());
+        verify(clienteRepository, times(4)).ajustarSaldo(ORIGEM_ID, -300_000L);
+    }
+
+    @Test
+    void testRealizarTransferenciaSaldoInsuficiente() {
+        engine.realizarTransferencia(getTransferencia(ORIGEM_ID, DESTINO_ID, 900_000L));
+        var transferencia = engine.realizarTransferencia(getTransferencia(ORIGEM_ID, DESTINO_ID, 200_000L));
+
+        assertFalse(transferencia.getSucesso());
+        assertEquals("Saldo insuficiente para a transferência", transferencia.getMensagem());
+        assertEquals(100_000L, engine.consultarSaldo(ORIGEM_ID));
+        assertEquals(1_400_000L, engine.consultarSaldo(DESTINO_ID));
+    }
+
+    @Test
+    void testRealizarTransferenciaExcedeLimite() {
+        var transferencia = engine.realizarTransferencia(getTransferencia(ORIGEM_ID, DESTINO_ID, 1_500_000L));
+
+        assertFalse(transferencia.getSucesso());
+        assertEquals("Valor da transferência excede o limite de R$ 10.000,00", transferencia.getMensagem());
+        verify(clienteService, never()).getClienteEntityByNumeroConta(ORIGEM_ID);
+        verify(transferenciaRepository, timeout(2000)).saveAll(anyIterable());
+    }
+
+    @Test
+    void testFalhaNoJournalNaoAplicaATransferencia() {
+        var reserva = new LimiteDiario.Reserva(ORIGEM_ID, 300_000L, 1L);
+        when(limiteDiario.reservar(ORIGEM_ID, 300_000L)).thenReturn(reserva);
+        var journal = mock(JournalTransferencias.class);
+        when(journal.anexar(any(), any(), any()))
+                .thenThrow(new IllegalStateException("Interrompido ao aguardar espaço no journal de transferências"));
+        ReflectionTestUtils.setField(engine, "journal", journal);
+
+        var transferencia = engine.realizarTransferencia(getTransferencia(ORIGEM_ID, DESTINO_ID, 300_000L));
+        ReflectionTestUtils.setField(engine, "journal", null);
+
+        assertFalse(transferencia.getSucesso());
+        assertEquals("Interrompido ao aguardar espaço no journal de transferências", transferencia.getMensagem());
+        assertEquals(1_000_000L, engine.consultarSaldo(ORIGEM_ID));
+        assertEquals(500_000L, engine.consultarSaldo(DESTINO_ID));
+        verify(limiteDiario).liberar(reserva);
+        verify(clienteCache, never()).atualizarSaldo(anyString(), anyLong());
+        verify(clienteRepository, after(300).never()).ajustarSaldo(anyString(), anyLong());
+    }
+
+    @Test
+    void testRealizarTransferenciaContaInexistente() {
+        when(clienteService.getClienteEntityByNumeroConta("99999"))
+                .thenThrow(new ResourceNotFoundException("Cliente não encontrado para a conta: 99999"));
+
+        var transferencia = engine.realizarTransferencia(getTransferencia(ORIGEM_ID, "99999", 10_000L));
+
+        assertFalse(transferencia.getSucesso());
+        assertEquals("Cliente não encontrado para a conta: 99999", transferencia.getMensagem());
+        assertEquals(1_000_000L, engine.consultarSaldo(ORIGEM_ID));
+        verify(clienteRepository, after(300).never()).ajustarSaldo(eq(ORIGEM_ID), anyLong());
+    }
+
+    @Test
+    void testTransferenciasConcorrentesPreservamSaldoTotal() throws Exception {
+        var executor = Executors.newFixedThreadPool(8);
+        var tarefas = new ArrayList<Future<Transferencia>>();
+        for (int i = 0; i < 4000; i++) {
+            var dto = i % 2 == 0
+                    ? getTransferencia(ORIGEM_ID, DESTINO_ID, 200L)
+                    : getTransferencia(DESTINO_ID, ORIGEM_ID, 100L);
+            tarefas.add(executor.submit(() -> engine.realizarTransferencia(dto)));
+        }
+        for (var tarefa : tarefas) {
+            assertTrue(tarefa.get().getSucesso());
+        }
+        executor.shutdown();
+
+        assertEquals(1_000_000L - 2000 * 200L + 2000 * 100L, engine.consultarSaldo(ORIGEM_ID));
+        assertEquals(1_500_000L, engine.consultarSaldo(ORIGEM_ID) + engine.consultarSaldo(DESTINO_ID));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.CheckpointJournal;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Idempotencia;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.CheckpointJournalRepository;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.IdempotenciaRepository;
+import com.example.banking.service.RegrasTransferencia;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Engine em memória com journal sobre o banco de teste. A recuperação simula uma queda entre a
+ * confirmação pelo journal e a gravação no banco: os registros são anexados direto ao journal,
+ * sem gravador, e uma nova engine é iniciada sobre o mesmo arquivo.
+ */
+@SpringBootTest(properties = "banking.transferencia.engine=memoria")
+class JournalRecuperacaoTest {
+
+    @TempDir
+    private Path diretorio;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private CheckpointJournalRepository checkpointJournalRepository;
+    @Autowired
+    private IdempotenciaRepository idempotenciaRepository;
+
+    @Test
+    void testRegistrosConfirmadosSaoReaplicadosUmaUnicaVez() throws Exception {
+        var arquivo = diretorio.resolve("journal.dat");
+        var origem = salvarCliente(10_000L);
+        var destino = salvarCliente(0L);
+        var chave = UUID.randomUUID().toString();
+        idempotenciaRepository.save(Idempotencia.builder()
+                .chave(chave)
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(3000L)
+                .criadaEm(LocalDateTime.now())
+                .build());
+
+        var checkpoint = checkpointJournalRepository.findById(CheckpointJournal.ID)
+                .map(CheckpointJournal::getUltimaSequencia).orElse(0L);
+        try (var journal = new JournalTransferencias(arquivo, 64)) {
+            journal.iniciar(checkpoint);
+            journal.anexar(getTransferencia(origem, destino, 1000L), null, sequencia -> { });
+            journal.anexar(getTransferencia(origem, destino, 2000L), null, sequencia -> { });
+            journal.aguardar(journal.anexar(getTransferencia(origem, destino, 3000L), chave, sequencia -> { }));
+        }
+
+        var engine = novaEngine(arquivo);
+        try {
+            assertEquals(4000L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+            assertEquals(6000L, clienteRepository.findByNumeroConta(destino).orElseThrow().getSaldo());
+            var idempotencia = idempotenciaRepository.findById(chave).orElseThrow();
+            assertTrue(idempotencia.isConcluida());
+            assertTrue(idempotencia.getSucesso());
+            assertEquals(checkpoint + 3, checkpointJournalRepository.findById(CheckpointJournal.ID).orElseThrow().getUltimaSequencia());
+
+            var dto = TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(500L).build();
+            assertTrue(engine.realizarTransferencia(dto).getSucesso());
+        } finally {
+            engine.encerrar();
+        }
+        assertEquals(3500L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+        assertEquals(checkpoint + 4, checkpointJournalRepository.findById(CheckpointJournal.ID).orElseThrow().getUltimaSequencia());
+
+        novaEngine(arquivo).encerrar();
+        assertEquals(3500L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+        assertEquals(6500L, clienteRepository.findByNumeroConta(destino).orElseThrow().getSaldo());
+    }
+
+    @Test
+    void testFilaDoGravadorCheiaNaoTravaOJournal() throws Exception {
+        var origem = salvarCliente(1_000_000L);
+        var destino = salvarCliente(0L);
+        var engine = novaEngine(diretorio.resolve("journal.dat"), 2);
+        var tarefas = new ArrayList<Callable<Boolean>>();
+        for (int i = 0; i < 200; i++) {
+            tarefas.add(() -> engine.realizarTransferencia(
+                    TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(100L).build()).getSucesso());
+        }
+        try (var executor = Executors.newFixedThreadPool(16)) {
+            for (var futuro : executor.invokeAll(tarefas, 60, TimeUnit.SECONDS)) {
+                assertTrue(futuro.get());
+            }
+        } finally {
+            engine.encerrar();
+        }
+        assertEquals(980_000L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+        assertEquals(20_000L, clienteRepository.findByNumeroConta(destino).orElseThrow().getSaldo());
+    }
+
+    private InMemoryTransferenciaEngine novaEngine(Path arquivo) {
+        return novaEngine(arquivo, 100_000);
+    }
+
+    private InMemoryTransferenciaEngine novaEngine(Path arquivo, int capacidadeFila) {
+        var engine = new InMemoryTransferenciaEngine();
+        beanFactory.autowireBean(engine);
+        ReflectionTestUtils.setField(engine, "arquivoJournal", arquivo.toString());
+        ReflectionTestUtils.setField(engine, "capacidadeFila", capacidadeFila);
+        engine.iniciar();
+        return engine;
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+
+    private static Transferencia getTransferencia(String origem, String destino, long valor) {
+        var transferencia = RegrasTransferencia.novaTransferencia(
+                TransferenciaDTO.builder().contaOrigem(origem).contaDestino(destino).valor(valor).build());
+        transferencia.setSucesso(true);
+        return transferencia;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.model.Transferencia;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JournalTransferenciasTest {
+
+    @TempDir
+    private Path diretorio;
+
+    private static Transferencia getTransferencia(String origem, String destino, long valor) {
+        return Transferencia.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .dataTransferencia(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .build();
+    }
+
+    @Test
+    void testRegistrosConfirmadosSobrevivemAReabertura() throws Exception {
+        var arquivo = diretorio.resolve("journal.dat");
+        var transferencia = getTransferencia("111", "222", 12_345L);
+        try (var journal = new JournalTransferencias(arquivo, 8)) {
+            journal.iniciar(0);
+            journal.anexar(transferencia, "chave-1", sequencia -> { });
+            journal.aguardar(journal.anexar(getTransferencia("222", "333", 1L), null, sequencia -> { }));
+        }
+
+        try (var journal = new JournalTransferencias(arquivo, 8)) {
+            var registros = journal.ler();
+            assertEquals(2, registros.size());
+            var primeiro = registros.get(0);
+            assertEquals(1, primeiro.sequencia());
+            assertEquals("111", primeiro.contaOrigem());
+            assertEquals("222", primeiro.contaDestino());
+            assertEquals(12_345L, primeiro.valor());
+            assertEquals(transferencia.getDataTransferencia(), primeiro.instante());
+            assertEquals("chave-1", primeiro.chave());
+            assertNull(registros.get(1).chave());
+        }
+    }
+
+    @Test
+    void testRegistroComEscritaInterrompidaEIgnorado() throws Exception {
+        var arquivo = diretorio.resolve("journal.dat");
+        try (var journal = new JournalTransferencias(arquivo, 8)) {
+            journal.iniciar(0);
+            journal.anexar(getTransferencia("111", "222", 100L), null, sequencia -> { });
+            journal.aguardar(journal.anexar(getTransferencia("111", "222", 200L), null, sequencia -> { }));
+        }
+        try (var canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0x7f}), JournalTransferencias.TAMANHO_REGISTRO + 40);
+        }
+
+        try (var journal = new JournalTransferencias(arquivo, 8)) {
+            var registros = journal.ler();
+            assertEquals(1, registros.size());
+            assertEquals(100L, registros.get(0).valor());
+        }
+    }
+
+    @Test
+    void testAnelCheioAguardaLiberacao() throws Exception {
+        try (var journal = new JournalTransferencias(diretorio.resolve("journal.dat"), 2)) {
+            journal.iniciar(0);
+            journal.anexar(getTransferencia("1", "2", 1L), null, sequencia -> { });
+            journal.anexar(getTransferencia("1", "2", 2L), null, sequencia -> { });
+
+            var terceiro = CompletableFuture.supplyAsync(
+                    () -> journal.anexar(getTransferencia("1", "2", 3L), null, sequencia -> { }));
+            assertThrows(TimeoutException.class, () -> terceiro.get(300, TimeUnit.MILLISECONDS));
+
+            journal.liberarAte(1);
+            assertEquals(3L, terceiro.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
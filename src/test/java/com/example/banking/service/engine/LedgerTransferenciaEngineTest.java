@@ -0,0 +1,97 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Lancamento;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.LancamentoRepository;
+import com.example.banking.repository.SaldoSnapshotRepository;
+import com.example.banking.service.ClienteService;
+import com.example.banking.service.LivroRazao;
+import com.example.banking.service.RegrasTransferencia;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "banking.transferencia.engine=ledger",
+        "banking.ledger.intervalo-snapshot=10"
+})
+class LedgerTransferenciaEngineTest {
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private LivroRazao livroRazao;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+    @Autowired
+    private SaldoSnapshotRepository saldoSnapshotRepository;
+
+    @Test
+    void testSaldoMaterializadoSemAlterarCliente() {
+        var origem = salvarCliente(10_000L);
+        var destino = salvarCliente(0L);
+
+        var transferencia = transferenciaEngine.realizarTransferencia(getTransferencia(origem, destino, 2500L));
+        assertTrue(transferencia.getSucesso());
+        var falha = transferenciaEngine.realizarTransferencia(getTransferencia(origem, destino, 50_000L));
+        assertFalse(falha.getSucesso());
+        assertEquals(RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE, falha.getMensagem());
+
+        assertEquals(7500L, clienteService.buscarPorNumeroConta(origem).getSaldo());
+        assertEquals(2500L, clienteService.buscarPorNumeroConta(destino).getSaldo());
+        assertEquals(7500L, lancamentoRepository.somarPorConta(origem));
+        assertEquals(2500L, lancamentoRepository.somarPorConta(destino));
+        assertTrue(lancamentoRepository.findAll().stream()
+                .filter(lancamento -> lancamento.getNumeroConta().equals(origem) && lancamento.getTipo() == Lancamento.Tipo.DEBITO)
+                .allMatch(lancamento -> transferencia.getId().equals(lancamento.getTransferenciaId())));
+    }
+
+    @Test
+    void testRecuperacaoPartindoDoSnapshot() {
+        var origem = salvarCliente(100_000L);
+        var destino = salvarCliente(0L);
+
+        for (int i = 0; i < 12; i++) {
+            transferenciaEngine.realizarTransferencia(getTransferencia(origem, destino, 1000L));
+        }
+        var snapshot = saldoSnapshotRepository.findById(origem).orElseThrow();
+        assertTrue(snapshot.getSaldo() < 100_000L);
+        assertEquals(snapshot.getSaldo(), clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+
+        livroRazao.recuperar();
+
+        assertEquals(88_000L, livroRazao.saldo(origem));
+        assertEquals(12_000L, livroRazao.saldo(destino));
+        assertEquals(88_000L, clienteService.buscarPorNumeroConta(origem).getSaldo());
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.ClienteCache;
+import com.example.banking.service.LimiteDiario;
+import com.example.banking.service.RegrasTransferencia;
+import com.example.banking.service.antifraude.Antifraude;
+import com.example.banking.service.antifraude.Pendentes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ParticaoTransferenciasTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ClienteRepository clienteRepository;
+    @Mock
+    private TransferenciaRepository transferenciaRepository;
+    @Mock
+    private ClienteCache clienteCache;
+    @Mock
+    private LimiteDiario limiteDiario;
+    @Mock
+    private Antifraude antifraude;
+
+    private ParticaoTransferencias particao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(clienteRepository.findByNumeroConta(anyString())).thenAnswer(invocacao -> Optional.of(Cliente.builder()
+                .numeroConta(invocacao.getArgument(0))
+                .saldo(invocacao.getArgument(0, String.class).startsWith("sem-saldo") ? 0L : 10_000L)
+                .build()));
+        when(limiteDiario.reservar(anyString(), anyLong()))
+                .thenAnswer(invocacao -> new LimiteDiario.Reserva(invocacao.getArgument(0), invocacao.getArgument(1), 1L));
+        when(antifraude.avaliar(anyString(), anyString(), anyLong(), any(), any()))
+                .thenAnswer(invocacao -> new Pendentes.Aceita(invocacao.getArgument(0), invocacao.getArgument(1),
+                        invocacao.getArgument(2), 0L, null));
+        particao = new ParticaoTransferencias(0, conta -> particao, transactionTemplate, clienteRepository,
+                transferenciaRepository, clienteCache, limiteDiario, antifraude, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        particao.encerrar();
+    }
+
+    @Test
+    void testFalhaNaGravacaoDevolveSoAsReservasFeitas() {
+        doThrow(new IllegalStateException("banco indisponível")).when(transactionTemplate).executeWithoutResult(any());
+        var aceito = pedido("origem", "destino", 1000L);
+        var recusado = pedido("sem-saldo", "destino", 1000L);
+        particao.enviar(aceito);
+        particao.enviar(recusado);
+
+        particao.iniciar();
+
+        assertFalhou(aceito);
+        assertFalhou(recusado);
+        assertEquals(RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE, recusado.transferencia().getMensagem());
+        verify(limiteDiario).liberar(new LimiteDiario.Reserva("origem", 1000L, 1L));
+        verify(limiteDiario, times(1)).liberar(any());
+        verify(antifraude, never()).confirmar(any());
+    }
+
+    private static ParticaoTransferencias.Pedido pedido(String origem, String destino, long valor) {
+        var dto = TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+        return new ParticaoTransferencias.Pedido(dto, RegrasTransferencia.novaTransferencia(dto), new CompletableFuture<Transferencia>(), null);
+    }
+
+    private static void assertFalhou(ParticaoTransferencias.Pedido pedido) {
+        var excecao = assertThrows(ExecutionException.class, () -> pedido.resultado().get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, excecao.getCause());
+    }
+}
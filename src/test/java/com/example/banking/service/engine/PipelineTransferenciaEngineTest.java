@@ -0,0 +1,116 @@
+package com.example.banking.service.engine;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.example.banking.model.Cliente;
+import com.example.banking.model.Transferencia;
+import com.example.banking.repository.ClienteRepository;
+import com.example.banking.repository.TransferenciaRepository;
+import com.example.banking.service.RegrasTransferencia;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "banking.transferencia.engine=pipeline",
+        "banking.transferencia.pipeline.particoes=4"
+})
+class PipelineTransferenciaEngineTest {
+
+    private static final int CONTAS = 12;
+    private static final int ESCRITORES = 16;
+    private static final int TRANSFERENCIAS_POR_ESCRITOR = 25;
+
+    @Autowired
+    private TransferenciaEngine transferenciaEngine;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+
+    @Test
+    void testTransferenciasConcorrentesEntreParticoesPreservamOTotal() throws Exception {
+        var contas = new ArrayList<String>();
+        for (int i = 0; i < CONTAS; i++) {
+            contas.add(salvarCliente(10_000L));
+        }
+
+        var tarefas = new ArrayList<Callable<List<Transferencia>>>();
+        for (int i = 0; i < ESCRITORES; i++) {
+            tarefas.add(() -> {
+                var aleatorio = ThreadLocalRandom.current();
+                var resultados = new ArrayList<Transferencia>();
+                for (int j = 0; j < TRANSFERENCIAS_POR_ESCRITOR; j++) {
+                    var origem = contas.get(aleatorio.nextInt(CONTAS));
+                    var destino = contas.get(aleatorio.nextInt(CONTAS));
+                    resultados.add(transferenciaEngine.realizarTransferencia(
+                            getTransferencia(origem, destino, aleatorio.nextLong(1, 5000))));
+                }
+                return resultados;
+            });
+        }
+
+        var sucessos = 0;
+        try (var executor = Executors.newFixedThreadPool(ESCRITORES)) {
+            for (var futuro : executor.invokeAll(tarefas)) {
+                for (var transferencia : futuro.get()) {
+                    if (transferencia.getSucesso()) {
+                        sucessos++;
+                    } else {
+                        assertEquals(RegrasTransferencia.MENSAGEM_SALDO_INSUFICIENTE, transferencia.getMensagem());
+                    }
+                }
+            }
+        }
+
+        var saldos = contas.stream().map(conta -> clienteRepository.findByNumeroConta(conta).orElseThrow().getSaldo()).toList();
+        assertTrue(saldos.stream().allMatch(saldo -> saldo >= 0));
+        assertEquals(CONTAS * 10_000L, saldos.stream().mapToLong(Long::longValue).sum());
+        assertTrue(sucessos > 0);
+        assertEquals(ESCRITORES * TRANSFERENCIAS_POR_ESCRITOR, transferenciaRepository.findAll().stream()
+                .filter(transferencia -> contas.contains(transferencia.getContaOrigem()))
+                .count());
+    }
+
+    @Test
+    void testDestinoInexistenteDevolveAReserva() {
+        var origem = salvarCliente(10_000L);
+
+        var transferencia = transferenciaEngine.realizarTransferencia(getTransferencia(origem, "inexistente-" + UUID.randomUUID(), 4000L));
+        assertFalse(transferencia.getSucesso());
+        assertTrue(transferencia.getMensagem().startsWith(RegrasTransferencia.MENSAGEM_CONTA_INEXISTENTE));
+
+        var destino = salvarCliente(0L);
+        assertTrue(transferenciaEngine.realizarTransferencia(getTransferencia(origem, destino, 10_000L)).getSucesso());
+        assertEquals(0L, clienteRepository.findByNumeroConta(origem).orElseThrow().getSaldo());
+        assertEquals(10_000L, clienteRepository.findByNumeroConta(destino).orElseThrow().getSaldo());
+    }
+
+    private String salvarCliente(long saldo) {
+        var numeroConta = String.valueOf(UUID.randomUUID());
+        clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + numeroConta)
+                .numeroConta(numeroConta)
+                .saldo(saldo)
+                .build());
+        return numeroConta;
+    }
+
+    private static TransferenciaDTO getTransferencia(String origem, String destino, long valor) {
+        return TransferenciaDTO.builder()
+                .contaOrigem(origem)
+                .contaDestino(destino)
+                .valor(valor)
+                .build();
+    }
+}
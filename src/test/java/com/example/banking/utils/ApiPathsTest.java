@@ -10,9 +10,21 @@ class ApiPathsTest {
         assertEquals("/api/v1/clientes", ApiPaths.API_V_1_CLIENTES,
                 "API_V_1_CLIENTES deveria ser '/api/v1/clientes'");
 
+        assertEquals("/api/v1/clientes/exportacao", ApiPaths.API_V_1_CLIENTES_EXPORTACAO,
+                "API_V_1_CLIENTES_EXPORTACAO deveria ser '/api/v1/clientes/exportacao'");
+
+        assertEquals("/api/v1/clientes/importacao", ApiPaths.API_V_1_CLIENTES_IMPORTACAO,
+                "API_V_1_CLIENTES_IMPORTACAO deveria ser '/api/v1/clientes/importacao'");
+
+        assertEquals("/api/v1/clientes/cache/estatisticas", ApiPaths.API_V_1_CLIENTES_CACHE_ESTATISTICAS,
+                "API_V_1_CLIENTES_CACHE_ESTATISTICAS deveria ser '/api/v1/clientes/cache/estatisticas'");
+
         assertEquals("/api/v1/transferencias", ApiPaths.API_V_1_TRANSFERENCIAS,
                 "API_V_1_TRANSFERENCIAS deveria ser '/api/v1/transferencias'");
 
+        assertEquals("/api/v1/transferencias/lote", ApiPaths.API_V_1_TRANSFERENCIAS_LOTE,
+                "API_V_1_TRANSFERENCIAS_LOTE deveria ser '/api/v1/transferencias/lote'");
+
         String numeroContaCliente = "12345";
         String expectedClientePath = String.format("/api/v1/clientes/%s", numeroContaCliente);
         String actualClientePath = String.format(ApiPaths.API_V_1_CLIENTES_COM_NUMERO_CONTA, numeroContaCliente);
@@ -26,5 +38,9 @@ class ApiPathsTest {
 
         assertEquals(expectedTransferenciaPath, actualTransferenciaPath,
                 "API_V_1_TRANSFERENCIAS_COM_NUMERO_CONTA deveria formatar '/api/v1/transferencias/historico/{numeroConta}' corretamente");
+
+        assertEquals(expectedTransferenciaPath + "/exportacao",
+                String.format(ApiPaths.API_V_1_TRANSFERENCIAS_EXPORTACAO_COM_NUMERO_CONTA, numeroContaTransferencia),
+                "API_V_1_TRANSFERENCIAS_EXPORTACAO_COM_NUMERO_CONTA deveria formatar '/api/v1/transferencias/historico/{numeroConta}/exportacao' corretamente");
     }
 }
\ No newline at end of file
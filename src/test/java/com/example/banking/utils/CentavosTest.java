@@ -0,0 +1,47 @@
+package com.example.banking.utils;
+
+import com.example.banking.dto.TransferenciaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CentavosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testConverterReaisEmCentavos() {
+        assertEquals(1050L, Centavos.deReais(new BigDecimal("10.5")));
+        assertEquals(30L, Centavos.deReais(new BigDecimal("0.30")));
+        assertEquals(new BigDecimal("10.50"), Centavos.emReais(1050L));
+        assertThrows(IllegalArgumentException.class, () -> Centavos.deReais(new BigDecimal("0.001")));
+    }
+
+    @Test
+    public void testJsonMantemFormatoDecimal() throws Exception {
+        var dto = objectMapper.readValue("{\"contaOrigem\":\"1\",\"contaDestino\":\"2\",\"valor\":0.3}", TransferenciaDTO.class);
+        assertEquals(30L, dto.getValor());
+
+        dto.setValor(1_000_000L);
+        assertEquals(10000.0, objectMapper.readTree(objectMapper.writeValueAsString(dto)).get("valor").asDouble());
+    }
+
+    @Test
+    public void testJsonRejeitaFracaoDeCentavo() {
+        assertThrows(InvalidFormatException.class, () ->
+                objectMapper.readValue("{\"valor\":10.005}", TransferenciaDTO.class));
+    }
+
+    @Test
+    public void testJsonValorNuloERejeitado() throws Exception {
+        assertThrows(MismatchedInputException.class, () ->
+                objectMapper.readValue("{\"valor\":null}", TransferenciaDTO.class));
+        assertEquals(0L, objectMapper.readValue("{}", TransferenciaDTO.class).getValor());
+    }
+}
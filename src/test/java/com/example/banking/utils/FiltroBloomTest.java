@@ -0,0 +1,41 @@
+package com.example.banking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltroBloomTest {
+
+    @Test
+    void testValoresAdicionadosSempreEncontrados() {
+        var filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("conta-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.talvezContenha("conta-" + i));
+        }
+    }
+
+    @Test
+    void testTaxaDeFalsosPositivosProximaDaConfigurada() {
+        var filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("conta-" + i);
+        }
+        var falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.talvezContenha("outra-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void testParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(10, 1.0));
+    }
+}